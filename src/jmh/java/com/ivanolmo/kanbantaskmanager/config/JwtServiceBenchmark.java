@@ -0,0 +1,60 @@
+package com.ivanolmo.kanbantaskmanager.config;
+
+import com.ivanolmo.kanbantaskmanager.entity.User;
+import com.ivanolmo.kanbantaskmanager.service.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// per request verify cost, run with ./gradlew jmh
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtServiceBenchmark {
+  private static final String SECRET_KEY = "dGhpc2lzYXZlcnlsb25ndGVzdHNlY3JldGtleWZvcmp3dHRlc3Rpbmc";
+
+  private JwtService jwtService;
+  private UserDetailsImpl userDetails;
+  private String token;
+
+  @Setup
+  public void setUp() {
+    jwtService = new JwtService(SECRET_KEY, 86400000);
+    userDetails = new UserDetailsImpl(User.builder().id("user").email("bench@test.com").build());
+    token = jwtService.generateToken(userDetails);
+  }
+
+  // previous behavior: key decoded and parser built on every call, token parsed three times
+  @Benchmark
+  public boolean verifyPerCallParser() {
+    String username = legacyExtractClaim(token, Claims::getSubject);
+    return username.equals(userDetails.getUsername())
+        && legacyExtractClaim(token, Claims::getSubject) != null
+        && !legacyExtractClaim(token, Claims::getExpiration).before(new Date());
+  }
+
+  @Benchmark
+  public boolean verifyCachedParser() {
+    Claims claims = jwtService.parseClaims(token);
+    return jwtService.isTokenValid(claims, userDetails);
+  }
+
+  private static <T> T legacyExtractClaim(String token, Function<Claims, T> claimsResolver) {
+    Key key = Keys.hmacShaKeyFor(Decoders.BASE64URL.decode(SECRET_KEY));
+    Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    return claimsResolver.apply(claims);
+  }
+}
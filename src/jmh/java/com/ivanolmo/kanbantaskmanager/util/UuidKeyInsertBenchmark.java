@@ -0,0 +1,106 @@
+package com.ivanolmo.kanbantaskmanager.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// batched inserts into a primary key that already holds a few hundred thousand rows, comparing
+// the previous random varchar ids with random and time-ordered native uuids. runs against an
+// in-memory h2 database by default, pass -Dbenchmark.jdbc-url (plus -Dbenchmark.jdbc-user and
+// -Dbenchmark.jdbc-password) to measure a real postgres. run with ./gradlew jmh
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UuidKeyInsertBenchmark {
+  private static final int PRELOADED_ROWS = 200_000;
+  private static final int BATCH_ROWS = 1000;
+
+  public enum KeyType {
+    RANDOM_VARCHAR("varchar(255)"),
+    RANDOM_UUID("uuid"),
+    UUID_V7("uuid");
+
+    private final String columnType;
+
+    KeyType(String columnType) {
+      this.columnType = columnType;
+    }
+
+    Object next() {
+      return switch (this) {
+        case RANDOM_VARCHAR -> UUID.randomUUID().toString();
+        case RANDOM_UUID -> UUID.randomUUID();
+        case UUID_V7 -> UuidV7.generate();
+      };
+    }
+  }
+
+  @Param
+  private KeyType keyType;
+
+  private Connection connection;
+  private PreparedStatement insert;
+
+  // a fresh table per iteration so every iteration starts from the same index depth
+  @Setup(Level.Iteration)
+  public void setUp() throws SQLException {
+    connection = DriverManager.getConnection(
+        System.getProperty("benchmark.jdbc-url", "jdbc:h2:mem:uuid_keys;DB_CLOSE_DELAY=-1"),
+        System.getProperty("benchmark.jdbc-user", "sa"),
+        System.getProperty("benchmark.jdbc-password", ""));
+    connection.setAutoCommit(false);
+
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("DROP TABLE IF EXISTS uuid_key_benchmark");
+      statement.execute("CREATE TABLE uuid_key_benchmark (id " + keyType.columnType
+          + " PRIMARY KEY, title varchar(255) NOT NULL)");
+    }
+
+    insert = connection.prepareStatement(
+        "INSERT INTO uuid_key_benchmark (id, title) VALUES (?, ?)");
+
+    for (int i = 0; i < PRELOADED_ROWS / BATCH_ROWS; i++) {
+      insertBatch();
+    }
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDown() throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("DROP TABLE uuid_key_benchmark");
+    }
+
+    connection.commit();
+    insert.close();
+    connection.close();
+  }
+
+  // one operation is one committed batch of BATCH_ROWS rows
+  @Benchmark
+  public int[] insertBatch() throws SQLException {
+    for (int i = 0; i < BATCH_ROWS; i++) {
+      insert.setObject(1, keyType.next());
+      insert.setString(2, "Task");
+      insert.addBatch();
+    }
+
+    int[] counts = insert.executeBatch();
+    connection.commit();
+    return counts;
+  }
+}
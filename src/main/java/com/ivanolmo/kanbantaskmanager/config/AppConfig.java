@@ -1,19 +1,60 @@
 package com.ivanolmo.kanbantaskmanager.config;
 
 import com.ivanolmo.kanbantaskmanager.service.UserDetailsServiceImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.TaskExecutorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
 public class AppConfig {
   @Bean
-  BCryptPasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+  PasswordEncoder passwordEncoder(
+      @Value("${security.password.algorithm:bcrypt}") String algorithm,
+      @Value("${security.password.target-millis:250}") long targetMillis,
+      @Value("${security.password.bcrypt.min-strength:10}") int bcryptMinStrength,
+      @Value("${security.password.argon2.memory-kib:19456}") int argon2MemoryKib
+  ) {
+    return new PasswordEncoderFactory(
+        algorithm, targetMillis, bcryptMinStrength, argon2MemoryKib).create();
+  }
+
+  // bcrypt is deliberately slow, keep it off the request threads and bounded so a login burst
+  // is rejected instead of starving the rest of the api
+  @Bean
+  ThreadPoolTaskExecutor passwordHashingExecutor(
+      @Value("${security.password.pool-size:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+      int poolSize,
+      @Value("${security.password.queue-capacity:100}") int queueCapacity
+  ) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    executor.setCorePoolSize(poolSize);
+    executor.setMaxPoolSize(poolSize);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("password-hashing-");
+    executor.initialize();
+
+    return executor;
+  }
+
+  // any executor bean switches off the one boot would configure, leaving mvc async requests such
+  // as the export stream on an unbounded thread per task. declare boot's executor the way boot
+  // would so they keep the bounded spring.task.execution pool
+  @Lazy
+  @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+      AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+  ThreadPoolTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+    return builder.build();
   }
 
   @Bean
@@ -23,12 +64,14 @@ public class AppConfig {
 
   @Bean
   AuthenticationProvider authenticationProvider(
-      UserDetailsServiceImpl userDetailsService, BCryptPasswordEncoder passwordEncoder
+      UserDetailsServiceImpl userDetailsService, PasswordEncoder passwordEncoder
   ) {
     DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
 
     authenticationProvider.setUserDetailsService(userDetailsService);
     authenticationProvider.setPasswordEncoder(passwordEncoder);
+    // rehashes the password after a successful login when its cost or algorithm is outdated
+    authenticationProvider.setUserDetailsPasswordService(userDetailsService);
 
     return authenticationProvider;
   }
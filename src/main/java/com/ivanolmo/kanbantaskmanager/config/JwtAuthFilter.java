@@ -1,11 +1,15 @@
 package com.ivanolmo.kanbantaskmanager.config;
 
+import com.ivanolmo.kanbantaskmanager.entity.User;
+import com.ivanolmo.kanbantaskmanager.service.UserDetailsImpl;
 import com.ivanolmo.kanbantaskmanager.service.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -23,8 +27,12 @@ import java.io.IOException;
 public class JwtAuthFilter extends OncePerRequestFilter {
   private final UserDetailsServiceImpl userDetailsService;
   private final JwtService jwtService;
+  private final VerifiedTokenCache verifiedTokenCache;
   private final HandlerExceptionResolver handlerExceptionResolver;
 
+  @Value("${security.jwt.stateless:false}")
+  private boolean stateless;
+
   @Override
   protected void doFilterInternal(
       @NonNull HttpServletRequest request,
@@ -39,14 +47,16 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     try {
       final String jwt = authHeader.substring(7);
-      final String userEmail = jwtService.extractUsername(jwt);
+      // verified once per token lifetime, every claim below comes from the cached parse
+      final Claims claims = verifiedTokenCache.verify(jwt);
+      final String userEmail = claims.getSubject();
 
       Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
       if (userEmail != null && authentication == null) {
-        UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+        UserDetails userDetails = loadUserDetails(claims, userEmail);
 
-        if (jwtService.isTokenValid(jwt, userDetails)) {
+        if (jwtService.isTokenValid(claims, userDetails)) {
           UsernamePasswordAuthenticationToken authToken =
               new UsernamePasswordAuthenticationToken(
                   userDetails,
@@ -63,4 +73,18 @@ public class JwtAuthFilter extends OncePerRequestFilter {
       handlerExceptionResolver.resolveException(request, response, null, e);
     }
   }
+
+  // in stateless mode the signed claims are trusted as-is, tokens without a user id still
+  // fall back to the database lookup
+  private UserDetails loadUserDetails(Claims claims, String userEmail) {
+    if (stateless) {
+      String userId = jwtService.extractUserId(claims);
+
+      if (userId != null) {
+        return new UserDetailsImpl(User.builder().id(userId).email(userEmail).build());
+      }
+    }
+
+    return this.userDetailsService.loadUserByUsername(userEmail);
+  }
 }
@@ -1,6 +1,8 @@
 package com.ivanolmo.kanbantaskmanager.config;
 
+import com.ivanolmo.kanbantaskmanager.service.UserDetailsImpl;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -17,11 +19,21 @@ import java.util.function.Function;
 
 @Service
 public class JwtService {
-  @Value("${security.jwt.secret-key}")
-  private String secretKey;
+  public static final String USER_ID_CLAIM = "uid";
 
-  @Value("${security.jwt.expiration-time}")
-  private long jwtExpiration;
+  private final long jwtExpiration;
+  // key and parser are immutable and thread safe, build them once instead of per token
+  private final Key signInKey;
+  private final JwtParser jwtParser;
+
+  public JwtService(
+      @Value("${security.jwt.secret-key}") String secretKey,
+      @Value("${security.jwt.expiration-time}") long jwtExpiration
+  ) {
+    this.jwtExpiration = jwtExpiration;
+    this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64URL.decode(secretKey));
+    this.jwtParser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+  }
 
   public String generateToken(
       Map<String, Object> extraClaims,
@@ -31,12 +43,14 @@ public class JwtService {
   }
 
   public String generateToken(UserDetails userDetails) {
-    return generateToken(new HashMap<>(), userDetails);
-  }
+    Map<String, Object> claims = new HashMap<>();
+
+    // embed the user id so stateless authentication can skip the user lookup
+    if (userDetails instanceof UserDetailsImpl userDetailsImpl) {
+      claims.put(USER_ID_CLAIM, userDetailsImpl.getId());
+    }
 
-  private Key getSignInKey() {
-    byte[] keyBytes = Decoders.BASE64URL.decode(secretKey);
-    return Keys.hmacShaKeyFor(keyBytes);
+    return generateToken(claims, userDetails);
   }
 
   private String buildToken(
@@ -50,40 +64,39 @@ public class JwtService {
         .setSubject(userDetails.getUsername())
         .setIssuedAt(new Date(System.currentTimeMillis()))
         .setExpiration(new Date(System.currentTimeMillis() + expiration))
-        .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+        .signWith(signInKey, SignatureAlgorithm.HS256)
         .compact();
   }
 
+  // verifies the signature and expiration, callers should parse once and read every claim from
+  // the result
+  public Claims parseClaims(String token) {
+    return jwtParser.parseClaimsJws(token).getBody();
+  }
+
   public String extractUsername(String token) {
     return extractClaim(token, Claims::getSubject);
   }
 
+  public String extractUserId(Claims claims) {
+    return claims.get(USER_ID_CLAIM, String.class);
+  }
+
   public <T> T extractClaim(
       String token,
       Function<Claims, T> claimsResolver) {
-    final Claims claims = extractAllClaims(token);
-    return claimsResolver.apply(claims);
-  }
-
-  private Claims extractAllClaims(String token) {
-    return Jwts
-        .parserBuilder()
-        .setSigningKey(getSignInKey())
-        .build()
-        .parseClaimsJws(token)
-        .getBody();
+    return claimsResolver.apply(parseClaims(token));
   }
 
   public boolean isTokenValid(String token, UserDetails userDetails) {
-    final String username = extractUsername(token);
-    return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+    return isTokenValid(parseClaims(token), userDetails);
   }
 
-  private boolean isTokenExpired(String token) {
-    return extractExpiration(token).before(new Date());
+  public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+    return claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims);
   }
 
-  private Date extractExpiration(String token) {
-    return extractClaim(token, Claims::getExpiration);
+  private boolean isTokenExpired(Claims claims) {
+    return claims.getExpiration().before(new Date());
   }
 }
@@ -0,0 +1,102 @@
+package com.ivanolmo.kanbantaskmanager.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// builds the delegating encoder used for all stored passwords. the cost of the encoder used for
+// new hashes is calibrated against the host at startup so a single hash stays close to the
+// configured latency target, older or cheaper hashes are upgraded on the next successful login
+@Slf4j
+public class PasswordEncoderFactory {
+  public static final String BCRYPT = "bcrypt";
+  public static final String ARGON2 = "argon2";
+
+  private static final String SAMPLE_PASSWORD = "calibration-password";
+  private static final int BCRYPT_MAX_STRENGTH = 31;
+  private static final int ARGON2_SALT_LENGTH = 16;
+  private static final int ARGON2_HASH_LENGTH = 32;
+  private static final int ARGON2_PARALLELISM = 1;
+  private static final int ARGON2_MAX_ITERATIONS = 10;
+
+  private final String algorithm;
+  private final long targetMillis;
+  private final int bcryptMinStrength;
+  private final int argon2MemoryKib;
+
+  public PasswordEncoderFactory(String algorithm, long targetMillis, int bcryptMinStrength,
+                                int argon2MemoryKib) {
+    this.algorithm = algorithm.toLowerCase();
+    this.targetMillis = targetMillis;
+    this.bcryptMinStrength = bcryptMinStrength;
+    this.argon2MemoryKib = argon2MemoryKib;
+  }
+
+  public PasswordEncoder create() {
+    Map<String, PasswordEncoder> encoders = new HashMap<>();
+    encoders.put(BCRYPT, new BCryptPasswordEncoder());
+    encoders.put(ARGON2, Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+
+    switch (algorithm) {
+      case BCRYPT -> encoders.put(BCRYPT, calibrateBcrypt());
+      case ARGON2 -> encoders.put(ARGON2, calibrateArgon2());
+      default -> throw new IllegalArgumentException(
+          "Unsupported password algorithm: " + algorithm);
+    }
+
+    DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(algorithm, encoders);
+    // hashes stored before the id prefix existed are plain bcrypt
+    passwordEncoder.setDefaultPasswordEncoderForMatches(encoders.get(BCRYPT));
+
+    return passwordEncoder;
+  }
+
+  // each bcrypt strength step doubles the work, stop before the next step would overshoot
+  private BCryptPasswordEncoder calibrateBcrypt() {
+    int strength = bcryptMinStrength;
+    long elapsed = time(new BCryptPasswordEncoder(strength));
+
+    while (strength < BCRYPT_MAX_STRENGTH && elapsed * 2 <= targetMillis) {
+      strength++;
+      elapsed = time(new BCryptPasswordEncoder(strength));
+    }
+
+    log.info("Calibrated bcrypt strength {} ({} ms per hash, target {} ms)",
+        strength, elapsed, targetMillis);
+
+    return new BCryptPasswordEncoder(strength);
+  }
+
+  // argon2 memory is fixed by configuration, iterations scale roughly linearly
+  private Argon2PasswordEncoder calibrateArgon2() {
+    int iterations = 1;
+    long elapsed = time(argon2(iterations));
+
+    while (iterations < ARGON2_MAX_ITERATIONS
+        && elapsed * (iterations + 1) / iterations <= targetMillis) {
+      iterations++;
+      elapsed = time(argon2(iterations));
+    }
+
+    log.info("Calibrated argon2 iterations {} with {} KiB ({} ms per hash, target {} ms)",
+        iterations, argon2MemoryKib, elapsed, targetMillis);
+
+    return argon2(iterations);
+  }
+
+  private Argon2PasswordEncoder argon2(int iterations) {
+    return new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH, ARGON2_PARALLELISM,
+        argon2MemoryKib, iterations);
+  }
+
+  private static long time(PasswordEncoder passwordEncoder) {
+    long start = System.nanoTime();
+    passwordEncoder.encode(SAMPLE_PASSWORD);
+    return (System.nanoTime() - start) / 1_000_000;
+  }
+}
@@ -0,0 +1,89 @@
+package com.ivanolmo.kanbantaskmanager.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+// remembers tokens that already passed signature verification until they expire, so repeat
+// requests with the same bearer token skip hmac verification and claim parsing
+@Component
+public class VerifiedTokenCache {
+  private final JwtService jwtService;
+  private final Cache<String, Claims> cache;
+
+  public VerifiedTokenCache(
+      JwtService jwtService,
+      ObjectProvider<MeterRegistry> meterRegistry,
+      @Value("${security.jwt.cache.max-size:10000}") long maxSize
+  ) {
+    this.jwtService = jwtService;
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfter(new TokenExpiry())
+        .recordStats()
+        .build();
+
+    meterRegistry.ifAvailable(registry ->
+        CaffeineCacheMetrics.monitor(registry, cache, "jwt.verified-tokens"));
+  }
+
+  // verification failures throw and are never cached
+  public Claims verify(String token) {
+    return cache.get(hash(token), key -> jwtService.parseClaims(token));
+  }
+
+  Cache<String, Claims> getCache() {
+    return cache;
+  }
+
+  // only a digest of the token is kept in memory
+  private static String hash(String token) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      byte[] hashed = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(hashed);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  // entries live exactly until the token's exp claim
+  private static class TokenExpiry implements Expiry<String, Claims> {
+    @Override
+    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+      Date expiration = claims.getExpiration();
+
+      if (expiration == null) {
+        return 0;
+      }
+
+      long remainingMillis = expiration.getTime() - System.currentTimeMillis();
+      return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+    }
+
+    @Override
+    public long expireAfterUpdate(String key, Claims claims, long currentTime,
+                                  long currentDuration) {
+      return currentDuration;
+    }
+
+    @Override
+    public long expireAfterRead(String key, Claims claims, long currentTime,
+                                long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
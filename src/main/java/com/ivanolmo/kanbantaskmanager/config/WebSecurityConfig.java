@@ -1,5 +1,6 @@
 package com.ivanolmo.kanbantaskmanager.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
@@ -21,6 +22,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
 
 import java.util.Arrays;
+import java.util.List;
 
 import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
 
@@ -45,6 +47,9 @@ public class WebSecurityConfig {
           for (String endpoint : AUTH_WHITELIST) {
             auth.requestMatchers(antMatcher(endpoint)).permitAll();
           }
+          // async dispatches resume a request that was already authorized, the jwt filter
+          // does not run again for them
+          auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll();
           auth.anyRequest().authenticated();
         })
         .sessionManagement(
@@ -63,10 +68,13 @@ public class WebSecurityConfig {
     config.setAllowCredentials(true);
     config.addAllowedOrigin(allowedOrigins);
     config.setAllowedMethods(Arrays.asList(HttpMethod.GET.name(), HttpMethod.POST.name(),
-        HttpMethod.PUT.name(), HttpMethod.DELETE.name(), HttpMethod.OPTIONS.name()));
+        HttpMethod.PUT.name(), HttpMethod.PATCH.name(), HttpMethod.DELETE.name(),
+        HttpMethod.OPTIONS.name()));
     config.setAllowedHeaders(Arrays.asList(HttpHeaders.ACCEPT, HttpHeaders.AUTHORIZATION,
         HttpHeaders.CONTENT_TYPE, HttpHeaders.ORIGIN, HttpHeaders.USER_AGENT, HttpHeaders.REFERER,
-        HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN));
+        HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, HttpHeaders.IF_MATCH,
+        HttpHeaders.IF_NONE_MATCH));
+    config.setExposedHeaders(List.of(HttpHeaders.ETAG));
     config.setMaxAge(3600L);
     source.registerCorsConfiguration("/**", config);
 
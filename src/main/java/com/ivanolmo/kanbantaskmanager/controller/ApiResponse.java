@@ -1,5 +1,6 @@
 package com.ivanolmo.kanbantaskmanager.controller;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.ivanolmo.kanbantaskmanager.exception.ApiError;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -17,4 +18,7 @@ public class ApiResponse<T> {
   private String message;
   private ApiError error;
   private HttpStatus status;
+
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private String nextCursor;
 }
@@ -17,6 +17,39 @@ public class ApiResponseUtil {
     return new ResponseEntity<>(apiResponse, status);
   }
 
+  public static <T> ResponseEntity<ApiResponse<T>> buildSuccessResponse(T data,
+                                                                        String message,
+                                                                        HttpStatus status,
+                                                                        String eTag) {
+    ApiResponse<T> apiResponse = ApiResponse.<T>builder()
+        .data(data)
+        .success(true)
+        .message(message)
+        .status(status)
+        .build();
+    return ResponseEntity.status(status).eTag(eTag).body(apiResponse);
+  }
+
+  public static <T> ResponseEntity<ApiResponse<T>> buildPagedResponse(T data,
+                                                                      String nextCursor,
+                                                                      String message,
+                                                                      HttpStatus status,
+                                                                      String eTag) {
+    ApiResponse<T> apiResponse = ApiResponse.<T>builder()
+        .data(data)
+        .success(true)
+        .message(message)
+        .status(status)
+        .nextCursor(nextCursor)
+        .build();
+    return ResponseEntity.status(status).eTag(eTag).body(apiResponse);
+  }
+
+  // 304 carries no body, only the validator the client already holds
+  public static <T> ResponseEntity<ApiResponse<T>> buildNotModifiedResponse(String eTag) {
+    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+  }
+
   public static ResponseEntity<ApiResponse<Object>> buildErrorResponse(ApiError error,
                                                                        String message,
                                                                        HttpStatus status) {
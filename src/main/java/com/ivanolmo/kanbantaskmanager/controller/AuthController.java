@@ -12,6 +12,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/auth")
 @RequiredArgsConstructor
@@ -20,21 +22,21 @@ public class AuthController {
   private final AuthService authService;
 
   @PostMapping("/register")
-  public ResponseEntity<ApiResponse<AuthResponseDTO>> register(
+  public CompletableFuture<ResponseEntity<ApiResponse<AuthResponseDTO>>> register(
       @RequestBody AuthRequestDTO request
   ) {
-    AuthResponseDTO response = authService.register(request);
-
-    return ApiResponseUtil.buildSuccessResponse(
-        response, "Successful user creation", HttpStatus.CREATED);
+    return authService.register(request).thenApply(response ->
+        ApiResponseUtil.buildSuccessResponse(
+            response, "Successful user creation", HttpStatus.CREATED));
   }
 
   @PostMapping("/login")
-  public ResponseEntity<ApiResponse<AuthResponseDTO>> login(
+  public CompletableFuture<ResponseEntity<ApiResponse<AuthResponseDTO>>> login(
       @RequestBody AuthRequestDTO request
   ) {
-    AuthResponseDTO response = authService.login(request);
-    return ApiResponseUtil.buildSuccessResponse(
-        response, "Successful user login", HttpStatus.OK);
+    // the request thread is released while the password is checked on the hashing pool
+    return authService.login(request).thenApply(response ->
+        ApiResponseUtil.buildSuccessResponse(
+            response, "Successful user login", HttpStatus.OK));
   }
 }
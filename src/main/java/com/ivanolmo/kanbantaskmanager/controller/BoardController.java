@@ -1,14 +1,27 @@
 package com.ivanolmo.kanbantaskmanager.controller;
 
 import com.ivanolmo.kanbantaskmanager.dto.BoardDTO;
+import com.ivanolmo.kanbantaskmanager.dto.BoardImportResultDTO;
+import com.ivanolmo.kanbantaskmanager.dto.BoardPageDTO;
+import com.ivanolmo.kanbantaskmanager.dto.BoardSummaryDTO;
+import com.ivanolmo.kanbantaskmanager.dto.ColumnDTO;
+import com.ivanolmo.kanbantaskmanager.dto.PositionDTO;
 import com.ivanolmo.kanbantaskmanager.service.BoardService;
+import com.ivanolmo.kanbantaskmanager.service.BoardTransferService;
+import com.ivanolmo.kanbantaskmanager.service.ColumnService;
+import com.ivanolmo.kanbantaskmanager.service.ContentVersionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -17,14 +30,102 @@ import java.util.List;
 @Slf4j
 public class BoardController {
   private final BoardService boardService;
+  private final BoardTransferService boardTransferService;
+  private final ColumnService columnService;
+  private final ContentVersionService contentVersionService;
 
+  // board reads are validated against the users content version. it is read before the data, so
+  // a write landing in between only makes the next poll refetch
   @GetMapping
-  public ResponseEntity<ApiResponse<List<BoardDTO>>> getAllUserBoards() {
-    List<BoardDTO> boards = boardService.getAllUserBoards();
+  public ResponseEntity<ApiResponse<List<BoardDTO>>> getAllUserBoards(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "50") int limit,
+      WebRequest request) {
+    String eTag = ETagUtil.toContentETag(contentVersionService.getCurrentVersion());
 
-    log.info("Successfully retrieved all boards for the user");
+    if (request.checkNotModified(eTag)) {
+      return ApiResponseUtil.buildNotModifiedResponse(eTag);
+    }
+
+    BoardPageDTO page = boardService.getAllUserBoards(cursor, limit);
+
+    log.info("Successfully retrieved {} boards for the user", page.getBoards().size());
+    return ApiResponseUtil.buildPagedResponse(page.getBoards(), page.getNextCursor(),
+        "Successfully retrieved all boards for the user", HttpStatus.OK, eTag);
+  }
+
+  @GetMapping("/summary")
+  public ResponseEntity<ApiResponse<List<BoardSummaryDTO>>> getUserBoardSummaries(
+      WebRequest request) {
+    String eTag = ETagUtil.toContentETag(contentVersionService.getCurrentVersion());
+
+    if (request.checkNotModified(eTag)) {
+      return ApiResponseUtil.buildNotModifiedResponse(eTag);
+    }
+
+    List<BoardSummaryDTO> summaries = boardService.getUserBoardSummaries();
+
+    log.info("Successfully retrieved board summaries for the user");
+    return ApiResponseUtil.buildSuccessResponse(summaries,
+        "Successfully retrieved board summaries for the user", HttpStatus.OK, eTag);
+  }
+
+  // newline delimited json, one board tree per line, written page by page
+  @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> exportBoards() {
+    log.info("Streaming board export for the user");
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .body(boardTransferService::exportBoards);
+  }
+
+  @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<ApiResponse<BoardImportResultDTO>> importBoards(InputStream ndjson) {
+    BoardImportResultDTO result = boardTransferService.importBoards(ndjson);
+
+    log.info("Successfully imported {} boards", result.getBoards());
     return ApiResponseUtil.buildSuccessResponse(
-        boards, "Successfully retrieved all boards for the user", HttpStatus.OK);
+        result, "Successfully imported boards", HttpStatus.CREATED);
+  }
+
+  // the tag works both for conditional reads and as If-Match on updates. the content version is
+  // read before the board, so a write racing the read only makes the next request refetch
+  @GetMapping("/{id}")
+  public ResponseEntity<ApiResponse<BoardDTO>> getBoard(
+      @PathVariable String id,
+      @RequestParam(defaultValue = "true") boolean tasks,
+      WebRequest request) {
+    long contentVersion = contentVersionService.getCurrentVersion();
+    String cachedETag = ETagUtil.findCurrentBoardETag(
+        request.getHeader(HttpHeaders.IF_NONE_MATCH), contentVersion);
+
+    if (cachedETag != null && request.checkNotModified(cachedETag)) {
+      return ApiResponseUtil.buildNotModifiedResponse(cachedETag);
+    }
+
+    BoardDTO boardDTO = boardService.getBoard(id, tasks);
+    String eTag = ETagUtil.toBoardETag(boardDTO.getVersion(), contentVersion);
+
+    log.info("Successfully retrieved the board with id: {}", id);
+    return ApiResponseUtil.buildSuccessResponse(boardDTO, "Successfully retrieved the board",
+        HttpStatus.OK, eTag);
+  }
+
+  @GetMapping("/{boardId}/columns/{columnId}")
+  public ResponseEntity<ApiResponse<ColumnDTO>> getBoardColumn(@PathVariable String boardId,
+                                                               @PathVariable String columnId,
+                                                               WebRequest request) {
+    String eTag = ETagUtil.toContentETag(contentVersionService.getCurrentVersion());
+
+    if (request.checkNotModified(eTag)) {
+      return ApiResponseUtil.buildNotModifiedResponse(eTag);
+    }
+
+    ColumnDTO columnDTO = boardService.getBoardColumn(boardId, columnId);
+
+    log.info("Successfully retrieved the column with id: {}", columnId);
+    return ApiResponseUtil.buildSuccessResponse(columnDTO, "Successfully retrieved the column",
+        HttpStatus.OK, eTag);
   }
 
   @PostMapping
@@ -32,18 +133,37 @@ public class BoardController {
     BoardDTO newBoardDTO = boardService.addBoardToUser(boardDTO);
 
     log.info("Successfully created a new board with id: {}", newBoardDTO.getId());
-    return ApiResponseUtil.buildSuccessResponse(
-        newBoardDTO, "Successfully created the board", HttpStatus.CREATED);
+    return ApiResponseUtil.buildSuccessResponse(newBoardDTO, "Successfully created the board",
+        HttpStatus.CREATED, ETagUtil.toETag(newBoardDTO.getVersion()));
   }
 
   @PutMapping("/{id}")
-  public ResponseEntity<ApiResponse<BoardDTO>> updateBoard(@Valid @RequestBody BoardDTO boardDTO,
-                                                           @PathVariable String id) {
+  public ResponseEntity<ApiResponse<BoardDTO>> updateBoard(
+      @Valid @RequestBody BoardDTO boardDTO,
+      @PathVariable String id,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    // If-Match takes precedence over a version echoed in the body
+    if (ifMatch != null) {
+      boardDTO.setVersion(ETagUtil.toVersion(ifMatch));
+    }
+
     BoardDTO updatedBoardDTO = boardService.updateBoard(id, boardDTO);
 
     log.info("Successfully updated the board with id: {}", id);
-    return ApiResponseUtil.buildSuccessResponse(
-        updatedBoardDTO, "Successfully updated the board", HttpStatus.OK);
+    return ApiResponseUtil.buildSuccessResponse(updatedBoardDTO, "Successfully updated the board",
+        HttpStatus.OK, ETagUtil.toETag(updatedBoardDTO.getVersion()));
+  }
+
+  // drag and drop, only changes the position of the column on its board
+  @PatchMapping("/{boardId}/columns/{columnId}/position")
+  public ResponseEntity<ApiResponse<Void>> reorderColumn(@Valid @RequestBody PositionDTO request,
+                                                         @PathVariable String boardId,
+                                                         @PathVariable String columnId) {
+    columnService.reorderColumn(boardId, columnId, request.getIndex());
+
+    log.info("Successfully moved the column with id: {} to index: {}", columnId,
+        request.getIndex());
+    return ApiResponseUtil.buildSuccessResponse(null, null, HttpStatus.NO_CONTENT);
   }
 
   @DeleteMapping("/{id}")
@@ -53,4 +173,14 @@ public class BoardController {
     log.info("Successfully deleted the board with id: {}", id);
     return ApiResponseUtil.buildSuccessResponse(null, null, HttpStatus.NO_CONTENT);
   }
+
+  // boards stay in the trash for the retention window before the purger removes them
+  @PostMapping("/{id}/restore")
+  public ResponseEntity<ApiResponse<BoardDTO>> restoreBoard(@PathVariable String id) {
+    BoardDTO boardDTO = boardService.restoreBoard(id);
+
+    log.info("Successfully restored the board with id: {}", id);
+    return ApiResponseUtil.buildSuccessResponse(boardDTO, "Successfully restored the board",
+        HttpStatus.OK, ETagUtil.toETag(boardDTO.getVersion()));
+  }
 }
@@ -0,0 +1,67 @@
+package com.ivanolmo.kanbantaskmanager.controller;
+
+public class ETagUtil {
+  // never used by a stored row, so it fails every version check
+  private static final long UNMATCHABLE_VERSION = -1L;
+  private static final char SEPARATOR = '.';
+
+  public static String toETag(Long version) {
+    return version == null ? null : "\"" + version + "\"";
+  }
+
+  // validator for reads that depend on all of a users board data. weak since it tracks the
+  // content version rather than the exact bytes
+  public static String toContentETag(long contentVersion) {
+    return "W/\"" + contentVersion + "\"";
+  }
+
+  // validator for a single board read. strong and led by the board version so it can be sent
+  // back as If-Match, the content version behind it covers edits of the boards tasks and subtasks
+  public static String toBoardETag(Long version, long contentVersion) {
+    return version == null ? null : "\"" + version + SEPARATOR + contentVersion + "\"";
+  }
+
+  // finds a board tag in an If-None-Match header that was issued at the current content version.
+  // every write bumps that version, so such a tag is still valid without reading the board
+  public static String findCurrentBoardETag(String ifNoneMatch, long contentVersion) {
+    if (ifNoneMatch == null) {
+      return null;
+    }
+
+    for (String candidate : ifNoneMatch.split(",")) {
+      String tag = candidate.trim();
+      tag = tag.startsWith("W/") ? tag.substring(2) : tag;
+      int separator = tag.indexOf(SEPARATOR);
+
+      if (separator > 0 && tag.endsWith("\"")
+          && tag.substring(separator + 1, tag.length() - 1).equals(Long.toString(contentVersion))) {
+        return tag;
+      }
+    }
+
+    return null;
+  }
+
+  // reads the expected version from an If-Match header, a board tag carries it before the
+  // separator. "*" means any version, weak or foreign tags can never match since If-Match uses
+  // strong comparison
+  public static Long toVersion(String ifMatch) {
+    String tag = ifMatch.trim();
+
+    if (tag.equals("*")) {
+      return null;
+    }
+
+    if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+      return UNMATCHABLE_VERSION;
+    }
+
+    int end = tag.indexOf(SEPARATOR);
+
+    try {
+      return Long.parseLong(tag.substring(1, end > 0 ? end : tag.length() - 1));
+    } catch (NumberFormatException e) {
+      return UNMATCHABLE_VERSION;
+    }
+  }
+}
@@ -1,16 +1,23 @@
 package com.ivanolmo.kanbantaskmanager.controller;
 
+import com.ivanolmo.kanbantaskmanager.dto.PositionDTO;
+import com.ivanolmo.kanbantaskmanager.dto.SubtaskCompletionRequestDTO;
 import com.ivanolmo.kanbantaskmanager.dto.SubtaskDTO;
 import com.ivanolmo.kanbantaskmanager.service.SubtaskService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/subtasks")
 @RequiredArgsConstructor
@@ -26,4 +33,25 @@ public class SubtaskController {
     return ApiResponseUtil.buildSuccessResponse(
         toggledSubtaskDTO, "Successfully toggled the subtask completion", HttpStatus.OK);
   }
+
+  @PatchMapping
+  public ResponseEntity<ApiResponse<List<SubtaskDTO>>> updateSubtaskCompletion(
+      @Valid @RequestBody SubtaskCompletionRequestDTO request) {
+    List<SubtaskDTO> subtaskDTOs =
+        subtaskService.updateSubtaskCompletion(request.getSubtasks());
+
+    log.info("Successfully updated the completion of {} subtasks", subtaskDTOs.size());
+    return ApiResponseUtil.buildSuccessResponse(
+        subtaskDTOs, "Successfully updated the subtask completion", HttpStatus.OK);
+  }
+
+  // drag and drop, only changes the position of the subtask within its task
+  @PatchMapping("/{id}/position")
+  public ResponseEntity<ApiResponse<Void>> reorderSubtask(@Valid @RequestBody PositionDTO request,
+                                                          @PathVariable String id) {
+    subtaskService.reorderSubtask(id, request.getIndex());
+
+    log.info("Successfully moved the subtask with id: {} to index: {}", id, request.getIndex());
+    return ApiResponseUtil.buildSuccessResponse(null, null, HttpStatus.NO_CONTENT);
+  }
 }
@@ -1,11 +1,14 @@
 package com.ivanolmo.kanbantaskmanager.controller;
 
+import com.ivanolmo.kanbantaskmanager.dto.PositionDTO;
 import com.ivanolmo.kanbantaskmanager.dto.TaskDTO;
+import com.ivanolmo.kanbantaskmanager.dto.TaskMoveDTO;
 import com.ivanolmo.kanbantaskmanager.dto.TaskRequestDTO;
 import com.ivanolmo.kanbantaskmanager.service.TaskService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -22,16 +25,46 @@ public class TaskController {
     TaskDTO newTaskDTO = taskService.addTaskToColumn(request.getColumnId(), request.getTask());
 
     log.info("Successfully added a new task to column with id: {}", request.getColumnId());
-    return ApiResponseUtil.buildSuccessResponse(newTaskDTO, "Successfully created the task", HttpStatus.CREATED);
+    return ApiResponseUtil.buildSuccessResponse(newTaskDTO, "Successfully created the task",
+        HttpStatus.CREATED, ETagUtil.toETag(newTaskDTO.getVersion()));
   }
 
   @PutMapping("/{id}")
-  public ResponseEntity<ApiResponse<TaskDTO>> updateTask(@Valid @RequestBody TaskRequestDTO request,
-                                                         @PathVariable String id) {
+  public ResponseEntity<ApiResponse<TaskDTO>> updateTask(
+      @Valid @RequestBody TaskRequestDTO request,
+      @PathVariable String id,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    // If-Match takes precedence over a version echoed in the body
+    if (ifMatch != null) {
+      request.getTask().setVersion(ETagUtil.toVersion(ifMatch));
+    }
+
     TaskDTO updatedTaskDTO = taskService.updateTask(id, request.getTask());
 
     log.info("Successfully updated the task with id: {}", id);
-    return ApiResponseUtil.buildSuccessResponse(updatedTaskDTO, "Successfully updated the task", HttpStatus.OK);
+    return ApiResponseUtil.buildSuccessResponse(updatedTaskDTO, "Successfully updated the task",
+        HttpStatus.OK, ETagUtil.toETag(updatedTaskDTO.getVersion()));
+  }
+
+  // drag and drop, only changes the position of the task within its column
+  @PatchMapping("/{id}/position")
+  public ResponseEntity<ApiResponse<Void>> reorderTask(@Valid @RequestBody PositionDTO request,
+                                                       @PathVariable String id) {
+    taskService.reorderTask(id, request.getIndex());
+
+    log.info("Successfully moved the task with id: {} to index: {}", id, request.getIndex());
+    return ApiResponseUtil.buildSuccessResponse(null, null, HttpStatus.NO_CONTENT);
+  }
+
+  // drag and drop, only changes the column of the task, which is appended to the new column
+  @PatchMapping("/{id}/move")
+  public ResponseEntity<ApiResponse<Void>> moveTask(@Valid @RequestBody TaskMoveDTO request,
+                                                    @PathVariable String id) {
+    taskService.moveTask(id, request.getColumnId());
+
+    log.info("Successfully moved the task with id: {} to column with id: {}", id,
+        request.getColumnId());
+    return ApiResponseUtil.buildSuccessResponse(null, null, HttpStatus.NO_CONTENT);
   }
 
   @DeleteMapping("/{id}")
@@ -25,5 +25,8 @@ public class BoardDTO {
 
   private LocalDateTime updatedAt;
 
+  // current version on reads, expected version on updates
+  private Long version;
+
   private List<ColumnDTO> columns;
 }
@@ -0,0 +1,20 @@
+package com.ivanolmo.kanbantaskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BoardImportResultDTO {
+  private long boards;
+
+  private long columns;
+
+  private long tasks;
+
+  private long subtasks;
+}
@@ -0,0 +1,18 @@
+package com.ivanolmo.kanbantaskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BoardPageDTO {
+  private List<BoardDTO> boards;
+
+  private String nextCursor;
+}
@@ -0,0 +1,20 @@
+package com.ivanolmo.kanbantaskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BoardRow {
+  private String id;
+  private String name;
+  private LocalDateTime createdAt;
+  private LocalDateTime updatedAt;
+  private Long version;
+}
@@ -0,0 +1,39 @@
+package com.ivanolmo.kanbantaskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BoardSummaryDTO {
+  private String id;
+
+  private String name;
+
+  private long columnCount;
+
+  private long taskCount;
+
+  private long subtaskCount;
+
+  private long completedSubtaskCount;
+
+  private double completedSubtaskRatio;
+
+  // constructor used by the aggregate query, derives the completion ratio from the counts
+  public BoardSummaryDTO(String id, String name, Long columnCount, Long taskCount,
+                         Long subtaskCount, Long completedSubtaskCount) {
+    this.id = id;
+    this.name = name;
+    this.columnCount = columnCount;
+    this.taskCount = taskCount;
+    this.subtaskCount = subtaskCount;
+    this.completedSubtaskCount = completedSubtaskCount;
+    this.completedSubtaskRatio =
+        subtaskCount == 0 ? 0 : (double) completedSubtaskCount / subtaskCount;
+  }
+}
@@ -0,0 +1,21 @@
+package com.ivanolmo.kanbantaskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ColumnRow {
+  private String id;
+  private String boardId;
+  private String name;
+  private String color;
+  private LocalDateTime createdAt;
+  private LocalDateTime updatedAt;
+}
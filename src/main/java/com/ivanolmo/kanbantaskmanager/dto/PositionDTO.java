@@ -0,0 +1,19 @@
+package com.ivanolmo.kanbantaskmanager.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PositionDTO {
+  // zero based index among the siblings, past the end moves the item last
+  @NotNull(message = "Index cannot be null")
+  @Min(value = 0, message = "Index cannot be negative")
+  private Integer index;
+}
@@ -0,0 +1,20 @@
+package com.ivanolmo.kanbantaskmanager.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SubtaskCompletionDTO {
+  @NotBlank(message = "Subtask id cannot be blank")
+  private String id;
+
+  @NotNull(message = "Subtask completed status cannot be null")
+  private Boolean completed;
+}
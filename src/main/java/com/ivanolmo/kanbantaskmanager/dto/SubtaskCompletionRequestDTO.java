@@ -0,0 +1,19 @@
+package com.ivanolmo.kanbantaskmanager.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SubtaskCompletionRequestDTO {
+  @NotEmpty(message = "Subtasks cannot be empty")
+  @Size(max = 500, message = "At most 500 subtasks can be updated at once")
+  private List<@Valid SubtaskCompletionDTO> subtasks;
+}
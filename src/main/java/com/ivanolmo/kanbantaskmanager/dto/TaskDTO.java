@@ -25,6 +25,8 @@ public class TaskDTO {
 
   private LocalDateTime updatedAt;
 
+  private Long version;
+
   private List<SubtaskDTO> subtasks;
 
   private String columnId;
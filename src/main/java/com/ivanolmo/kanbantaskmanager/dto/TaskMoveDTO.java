@@ -0,0 +1,16 @@
+package com.ivanolmo.kanbantaskmanager.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TaskMoveDTO {
+  @NotBlank(message = "Column id cannot be blank")
+  private String columnId;
+}
@@ -0,0 +1,22 @@
+package com.ivanolmo.kanbantaskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TaskRow {
+  private String id;
+  private String columnId;
+  private String title;
+  private String description;
+  private LocalDateTime createdAt;
+  private LocalDateTime updatedAt;
+  private Long version;
+}
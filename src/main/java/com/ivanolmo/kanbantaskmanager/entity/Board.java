@@ -1,11 +1,15 @@
 package com.ivanolmo.kanbantaskmanager.entity;
 
 import com.ivanolmo.kanbantaskmanager.dto.ColumnDTO;
+import com.ivanolmo.kanbantaskmanager.util.Positions;
+import com.ivanolmo.kanbantaskmanager.util.UniqueKeys;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Type;
+import org.hibernate.annotations.Where;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -21,16 +25,29 @@ import java.util.Optional;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "boards")
+@Table(name = "boards", indexes = {
+    @Index(name = "idx_boards_user_id_updated_at_id", columnList = "user_id, updated_at DESC, id DESC"),
+    @Index(name = "idx_boards_deleted_at", columnList = "deleted_at")
+}, uniqueConstraints = @UniqueConstraint(name = Board.NAME_KEY_CONSTRAINT,
+    columnNames = {"user_id", "name_key"}))
 @EntityListeners(AuditingEntityListener.class)
+@Where(clause = "deleted_at IS NULL")
 public class Board {
+  public static final String NAME_KEY_CONSTRAINT = "uk_boards_user_id_name_key";
+
   @Id
-  @GeneratedValue(strategy = GenerationType.UUID)
+  @GeneratedUuidV7
+  @Type(UuidStringType.class)
   private String id;
 
   @jakarta.persistence.Column(nullable = false)
   private String name;
 
+  // lower-cased name, board names are unique per user ignoring case. cleared while the board is
+  // deleted so the name can be reused
+  @jakarta.persistence.Column(name = "name_key")
+  private String nameKey;
+
   @CreatedDate
   @jakarta.persistence.Column(name = "created_at", nullable = false, updatable = false)
   private LocalDateTime createdAt;
@@ -39,6 +56,15 @@ public class Board {
   @jakarta.persistence.Column(name = "updated_at")
   private LocalDateTime updatedAt;
 
+  // optimistic lock, exposed to clients as the board ETag
+  @Version
+  @jakarta.persistence.Column(name = "version", nullable = false)
+  private Long version;
+
+  // set while the board is in the trash, every query skips it until it is restored or purged
+  @jakarta.persistence.Column(name = "deleted_at")
+  private LocalDateTime deletedAt;
+
   @OneToMany(mappedBy = "board", cascade = CascadeType.ALL, orphanRemoval = true)
   @lombok.Builder.Default
   private List<Column> columns = new ArrayList<>();
@@ -52,6 +78,12 @@ public class Board {
     return "Board [id=" + id + ", name=" + name + "]";
   }
 
+  @PrePersist
+  @PreUpdate
+  private void deriveNameKey() {
+    nameKey = UniqueKeys.of(name);
+  }
+
   // custom Builder class for dto -> entity conversion
   public static class Builder {
     private final Board board = new Board();
@@ -77,6 +109,7 @@ public class Board {
               .board(board)
               .build()).toList();
 
+      Positions.assign(columns, Column::getPosition, Column::setPosition);
       board.setColumns(columns);
       return this;
     }
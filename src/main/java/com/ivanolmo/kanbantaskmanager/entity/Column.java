@@ -1,11 +1,14 @@
 package com.ivanolmo.kanbantaskmanager.entity;
 
 import com.ivanolmo.kanbantaskmanager.dto.TaskDTO;
+import com.ivanolmo.kanbantaskmanager.util.Positions;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Type;
+import org.hibernate.annotations.Where;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -20,11 +23,16 @@ import java.util.Optional;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "columns")
+@Table(name = "columns", indexes = {
+    @Index(name = "idx_columns_user_id", columnList = "user_id"),
+    @Index(name = "idx_columns_board_id_position_id", columnList = "board_id, position, id")
+})
 @EntityListeners(AuditingEntityListener.class)
+@Where(clause = "deleted_at IS NULL")
 public class Column {
   @Id
-  @GeneratedValue(strategy = GenerationType.UUID)
+  @GeneratedUuidV7
+  @Type(UuidStringType.class)
   private String id;
 
   @jakarta.persistence.Column(nullable = false)
@@ -33,6 +41,10 @@ public class Column {
   @jakarta.persistence.Column(nullable = false, name = "color")
   private String color;
 
+  // gap based sort key among the siblings, see Positions
+  @jakarta.persistence.Column(name = "position", nullable = false)
+  private Long position;
+
   @CreatedDate
   @jakarta.persistence.Column(name = "created_at", nullable = false, updatable = false)
   private LocalDateTime createdAt;
@@ -41,10 +53,21 @@ public class Column {
   @jakarta.persistence.Column(name = "updated_at")
   private LocalDateTime updatedAt;
 
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "board_id", nullable = false)
   private Board board;
 
+  // owner of the board, copied down on insert so ownership checks on columns, tasks and
+  // subtasks never have to join up to boards
+  @jakarta.persistence.Column(name = "user_id", nullable = false, updatable = false)
+  @Type(UuidStringType.class)
+  private String userId;
+
+  // stamped with the boards deletedAt by the purger shortly after the board goes to the trash, so
+  // reads and ownership checks skip it without joining up to boards
+  @jakarta.persistence.Column(name = "deleted_at")
+  private LocalDateTime deletedAt;
+
   @OneToMany(mappedBy = "column", cascade = CascadeType.ALL, orphanRemoval = true)
   private List<Task> tasks;
 
@@ -52,6 +75,19 @@ public class Column {
     this.id = id;
   }
 
+  @PrePersist
+  private void prePersist() {
+    if (userId == null) {
+      userId = board.getUser().getId();
+    }
+
+    // callers that know the siblings place the row. anything else gets the first slot, ties with
+    // a first sibling there and sorts after it through the time-ordered id
+    if (position == null) {
+      position = Positions.GAP;
+    }
+  }
+
   // custom Builder class for dto -> entity conversion
   public static class Builder {
     private final Column column = new Column();
@@ -82,6 +118,7 @@ public class Column {
               .column(column)
               .build()).toList();
 
+      Positions.assign(tasks, Task::getPosition, Task::setPosition);
       column.setTasks(tasks);
       return this;
     }
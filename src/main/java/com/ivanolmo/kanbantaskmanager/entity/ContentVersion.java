@@ -0,0 +1,28 @@
+package com.ivanolmo.kanbantaskmanager.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Type;
+
+// per user counter bumped by every write to the users boards, columns, tasks or subtasks. kept
+// out of the users table so the hot row stays small and reading it never touches user data
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "content_versions")
+public class ContentVersion {
+  @Id
+  @jakarta.persistence.Column(name = "user_id")
+  @Type(UuidStringType.class)
+  private String userId;
+
+  @jakarta.persistence.Column(name = "version", nullable = false)
+  private Long version;
+}
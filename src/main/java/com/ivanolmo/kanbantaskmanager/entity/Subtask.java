@@ -1,10 +1,13 @@
 package com.ivanolmo.kanbantaskmanager.entity;
 
+import com.ivanolmo.kanbantaskmanager.util.Positions;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Type;
+import org.hibernate.annotations.Where;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -16,11 +19,16 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "subtasks")
+@Table(name = "subtasks", indexes = {
+    @Index(name = "idx_subtasks_user_id", columnList = "user_id"),
+    @Index(name = "idx_subtasks_task_id_position_id", columnList = "task_id, position, id")
+})
 @EntityListeners(AuditingEntityListener.class)
+@Where(clause = "deleted_at IS NULL")
 public class Subtask {
   @Id
-  @GeneratedValue(strategy = GenerationType.UUID)
+  @GeneratedUuidV7
+  @Type(UuidStringType.class)
   private String id;
 
   @jakarta.persistence.Column(name = "title", nullable = false)
@@ -30,6 +38,10 @@ public class Subtask {
   @lombok.Builder.Default
   private Boolean completed = false;
 
+  // gap based sort key among the siblings, see Positions
+  @jakarta.persistence.Column(name = "position", nullable = false)
+  private Long position;
+
   @CreatedDate
   @jakarta.persistence.Column(name = "created_at", nullable = false, updatable = false)
   private LocalDateTime createdAt;
@@ -38,10 +50,33 @@ public class Subtask {
   @jakarta.persistence.Column(name = "updated_at")
   private LocalDateTime updatedAt;
 
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "task_id", nullable = false)
   private Task task;
 
+  // owning user, copied from the task on insert
+  @jakarta.persistence.Column(name = "user_id", nullable = false, updatable = false)
+  @Type(UuidStringType.class)
+  private String userId;
+
+  // stamped with the deletedAt of its task when the task goes to the trash, or of its board by the
+  // purger shortly after the board does
+  @jakarta.persistence.Column(name = "deleted_at")
+  private LocalDateTime deletedAt;
+
+  @PrePersist
+  private void prePersist() {
+    if (userId == null) {
+      userId = task.getUserId();
+    }
+
+    // callers that know the siblings place the row. anything else gets the first slot, ties with
+    // a first sibling there and sorts after it through the time-ordered id
+    if (position == null) {
+      position = Positions.GAP;
+    }
+  }
+
   public static class Builder {
     private final Subtask subtask = new Subtask();
 
@@ -1,11 +1,15 @@
 package com.ivanolmo.kanbantaskmanager.entity;
 
 import com.ivanolmo.kanbantaskmanager.dto.SubtaskDTO;
+import com.ivanolmo.kanbantaskmanager.util.Positions;
+import com.ivanolmo.kanbantaskmanager.util.UniqueKeys;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Type;
+import org.hibernate.annotations.Where;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -21,19 +25,37 @@ import java.util.Optional;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+    @Index(name = "idx_tasks_user_id", columnList = "user_id"),
+    @Index(name = "idx_tasks_column_id_position_id", columnList = "column_id, position, id"),
+    @Index(name = "idx_tasks_deleted_at", columnList = "deleted_at")
+}, uniqueConstraints = @UniqueConstraint(name = Task.TITLE_KEY_CONSTRAINT,
+    columnNames = {"column_id", "title_key"}))
 @EntityListeners(AuditingEntityListener.class)
+@Where(clause = "deleted_at IS NULL")
 public class Task {
+  public static final String TITLE_KEY_CONSTRAINT = "uk_tasks_column_id_title_key";
+
   @Id
-  @GeneratedValue(strategy = GenerationType.UUID)
+  @GeneratedUuidV7
+  @Type(UuidStringType.class)
   private String id;
 
   @jakarta.persistence.Column(nullable = false)
   private String title;
 
+  // lower-cased title, task titles are unique per column ignoring case. cleared when the task is
+  // deleted so the title can be reused
+  @jakarta.persistence.Column(name = "title_key")
+  private String titleKey;
+
   @jakarta.persistence.Column(nullable = false)
   private String description;
 
+  // gap based sort key among the siblings, see Positions
+  @jakarta.persistence.Column(name = "position", nullable = false)
+  private Long position;
+
   @CreatedDate
   @jakarta.persistence.Column(name = "created_at", nullable = false, updatable = false)
   private LocalDateTime createdAt;
@@ -42,10 +64,24 @@ public class Task {
   @jakarta.persistence.Column(name = "updated_at")
   private LocalDateTime updatedAt;
 
-  @ManyToOne
+  @Version
+  @jakarta.persistence.Column(name = "version", nullable = false)
+  private Long version;
+
+  // set when the task or its board is deleted, every query skips it until it is restored with
+  // the board or purged
+  @jakarta.persistence.Column(name = "deleted_at")
+  private LocalDateTime deletedAt;
+
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "column_id", nullable = false)
   private Column column;
 
+  // owning user, copied from the column on insert
+  @jakarta.persistence.Column(name = "user_id", nullable = false, updatable = false)
+  @Type(UuidStringType.class)
+  private String userId;
+
   @OneToMany(mappedBy = "task", cascade = CascadeType.ALL, orphanRemoval = true)
   @lombok.Builder.Default
   private List<Subtask> subtasks = new ArrayList<>();
@@ -55,6 +91,26 @@ public class Task {
     return "Task [id=" + id + ", title=" + title + "]";
   }
 
+  @PrePersist
+  private void prePersist() {
+    if (userId == null) {
+      userId = column.getUserId();
+    }
+
+    // callers that know the siblings place the row. anything else gets the first slot, ties with
+    // a first sibling there and sorts after it through the time-ordered id
+    if (position == null) {
+      position = Positions.GAP;
+    }
+
+    deriveTitleKey();
+  }
+
+  @PreUpdate
+  private void deriveTitleKey() {
+    titleKey = UniqueKeys.of(title);
+  }
+
   // custom Builder class for dto -> entity conversion
   public static class Builder {
     private final Task task = new Task();
@@ -85,6 +141,7 @@ public class Task {
               .task(task)
               .build()).toList();
 
+      Positions.assign(subtasks, Subtask::getPosition, Subtask::setPosition);
       task.setSubtasks(subtasks);
       return this;
     }
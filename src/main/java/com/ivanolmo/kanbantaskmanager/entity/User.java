@@ -1,10 +1,12 @@
 package com.ivanolmo.kanbantaskmanager.entity;
 
+import com.ivanolmo.kanbantaskmanager.util.UniqueKeys;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Type;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -18,16 +20,24 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = @UniqueConstraint(name = User.EMAIL_KEY_CONSTRAINT,
+    columnNames = "email_key"))
 @EntityListeners(AuditingEntityListener.class)
 public class User {
+  public static final String EMAIL_KEY_CONSTRAINT = "uk_users_email_key";
+
   @Id
-  @GeneratedValue(strategy = GenerationType.UUID)
+  @GeneratedUuidV7
+  @Type(UuidStringType.class)
   private String id;
 
   @jakarta.persistence.Column(unique = true, nullable = false)
   private String email;
 
+  // lower-cased email, used for lookups so sign in ignores case
+  @jakarta.persistence.Column(name = "email_key", nullable = false)
+  private String emailKey;
+
   @jakarta.persistence.Column(nullable = false)
   private String password;
 
@@ -43,6 +53,12 @@ public class User {
   @Builder.Default
   private List<Board> boards = new ArrayList<>();
 
+  @PrePersist
+  @PreUpdate
+  private void deriveEmailKey() {
+    emailKey = UniqueKeys.of(email);
+  }
+
   @Override
   public String toString() {
     return "User [id=" + id + "]";
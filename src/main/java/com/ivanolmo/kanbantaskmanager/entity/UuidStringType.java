@@ -0,0 +1,87 @@
+package com.ivanolmo.kanbantaskmanager.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.type.SqlTypes;
+import org.hibernate.usertype.UserType;
+
+import java.io.Serializable;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Objects;
+import java.util.UUID;
+
+// ids stay strings in the entities, dtos and api but are stored as native 16 byte uuid columns.
+// a string that is not a uuid cannot name any row, so it is bound as the nil uuid and lookups
+// simply find nothing instead of failing
+public class UuidStringType implements UserType<String> {
+  private static final UUID NIL = new UUID(0L, 0L);
+
+  @Override
+  public int getSqlType() {
+    return SqlTypes.UUID;
+  }
+
+  @Override
+  public Class<String> returnedClass() {
+    return String.class;
+  }
+
+  @Override
+  public boolean equals(String x, String y) {
+    return Objects.equals(x, y);
+  }
+
+  @Override
+  public int hashCode(String x) {
+    return Objects.hashCode(x);
+  }
+
+  @Override
+  public String nullSafeGet(ResultSet rs, int position, SharedSessionContractImplementor session,
+                            Object owner) throws SQLException {
+    UUID value = rs.getObject(position, UUID.class);
+    return value == null ? null : value.toString();
+  }
+
+  @Override
+  public void nullSafeSet(PreparedStatement st, String value, int index,
+                          SharedSessionContractImplementor session) throws SQLException {
+    if (value == null) {
+      st.setNull(index, Types.OTHER);
+    } else {
+      st.setObject(index, toUuid(value));
+    }
+  }
+
+  @Override
+  public String deepCopy(String value) {
+    return value;
+  }
+
+  @Override
+  public boolean isMutable() {
+    return false;
+  }
+
+  @Override
+  public Serializable disassemble(String value) {
+    return value;
+  }
+
+  @Override
+  public String assemble(Serializable cached, Object owner) {
+    return (String) cached;
+  }
+
+  // native queries bind their ids through this as well, postgres does not compare uuid columns
+  // with text parameters
+  public static UUID toUuid(String value) {
+    try {
+      return UUID.fromString(value);
+    } catch (IllegalArgumentException e) {
+      return NIL;
+    }
+  }
+}
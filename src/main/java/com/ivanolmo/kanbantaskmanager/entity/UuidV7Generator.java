@@ -0,0 +1,12 @@
+package com.ivanolmo.kanbantaskmanager.entity;
+
+import com.ivanolmo.kanbantaskmanager.util.UuidV7;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+public class UuidV7Generator implements IdentifierGenerator {
+  @Override
+  public Object generate(SharedSessionContractImplementor session, Object object) {
+    return UuidV7.generate().toString();
+  }
+}
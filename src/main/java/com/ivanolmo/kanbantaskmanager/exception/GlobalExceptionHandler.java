@@ -5,6 +5,7 @@ import com.ivanolmo.kanbantaskmanager.controller.ApiResponseUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -46,6 +47,14 @@ public class GlobalExceptionHandler {
     return createResponseEntity(e, e.getHttpStatus(), request);
   }
 
+  // a versioned write lost the race after the up front version check passed
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public ResponseEntity<ApiResponse<Object>> handleOptimisticLockingFailure(
+      OptimisticLockingFailureException e, HttpServletRequest request) {
+    return createResponseEntity(e, "The resource was modified by another request",
+        HttpStatus.PRECONDITION_FAILED, request, null);
+  }
+
   @ExceptionHandler(Exception.class)
   public ResponseEntity<ApiResponse<Object>> handleAllExceptions(Exception e,
                                                                  HttpServletRequest request) {
@@ -62,6 +62,7 @@ public class BoardMapper {
         .name(board.getName())
         .createdAt(board.getCreatedAt())
         .updatedAt(board.getUpdatedAt())
+        .version(board.getVersion())
         .columns(columns)
         .build();
   }
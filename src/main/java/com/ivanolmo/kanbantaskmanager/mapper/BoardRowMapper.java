@@ -0,0 +1,96 @@
+package com.ivanolmo.kanbantaskmanager.mapper;
+
+import com.ivanolmo.kanbantaskmanager.dto.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// assembles the board -> column -> task -> subtask DTO tree from flat projection rows, so the
+// read path never materializes managed entities
+@Component
+@RequiredArgsConstructor
+public class BoardRowMapper {
+  private final SubtaskMapper subtaskMapper;
+
+  public List<BoardDTO> toDTOs(List<BoardRow> boards,
+                               List<ColumnRow> columns,
+                               List<TaskRow> tasks,
+                               List<SubtaskRow> subtasks) {
+    Map<String, List<SubtaskDTO>> subtasksByTaskId =
+        groupBy(subtasks, SubtaskRow::getTaskId, subtaskMapper::toDTO);
+    Map<String, List<TaskDTO>> tasksByColumnId =
+        groupBy(tasks, TaskRow::getColumnId, task -> toDTO(task, subtasksByTaskId));
+    Map<String, List<ColumnDTO>> columnsByBoardId =
+        groupBy(columns, ColumnRow::getBoardId, column -> toDTO(column, tasksByColumnId));
+
+    return boards.stream()
+        .map(board -> buildBoard(board,
+            columnsByBoardId.getOrDefault(board.getId(), Collections.emptyList())))
+        .toList();
+  }
+
+  // board with its columns only, tasks are left null to mark them as not loaded
+  public BoardDTO toDTO(BoardRow board, List<ColumnRow> columns) {
+    return buildBoard(board, columns.stream().map(column -> toDTO(column, null)).toList());
+  }
+
+  // single column with its tasks and their subtasks
+  public ColumnDTO toDTO(ColumnRow column, List<TaskRow> tasks, List<SubtaskRow> subtasks) {
+    Map<String, List<SubtaskDTO>> subtasksByTaskId =
+        groupBy(subtasks, SubtaskRow::getTaskId, subtaskMapper::toDTO);
+    Map<String, List<TaskDTO>> tasksByColumnId =
+        groupBy(tasks, TaskRow::getColumnId, task -> toDTO(task, subtasksByTaskId));
+
+    return toDTO(column, tasksByColumnId);
+  }
+
+  private BoardDTO buildBoard(BoardRow board, List<ColumnDTO> columns) {
+    return BoardDTO.builder()
+        .id(board.getId())
+        .name(board.getName())
+        .createdAt(board.getCreatedAt())
+        .updatedAt(board.getUpdatedAt())
+        .version(board.getVersion())
+        .columns(columns)
+        .build();
+  }
+
+  public ColumnDTO toDTO(ColumnRow column, Map<String, List<TaskDTO>> tasksByColumnId) {
+    return ColumnDTO.builder()
+        .id(column.getId())
+        .name(column.getName())
+        .color(column.getColor())
+        .createdAt(column.getCreatedAt())
+        .updatedAt(column.getUpdatedAt())
+        .tasks(tasksByColumnId == null
+            ? null : tasksByColumnId.getOrDefault(column.getId(), Collections.emptyList()))
+        .build();
+  }
+
+  public TaskDTO toDTO(TaskRow task, Map<String, List<SubtaskDTO>> subtasksByTaskId) {
+    return TaskDTO.builder()
+        .id(task.getId())
+        .title(task.getTitle())
+        .description(task.getDescription())
+        .createdAt(task.getCreatedAt())
+        .updatedAt(task.getUpdatedAt())
+        .version(task.getVersion())
+        .subtasks(subtasksByTaskId.getOrDefault(task.getId(), Collections.emptyList()))
+        .columnId(task.getColumnId())
+        .build();
+  }
+
+  // group rows by parent id, keeping the query order within each group
+  private <R, D> Map<String, List<D>> groupBy(List<R> rows,
+                                              Function<R, String> parentId,
+                                              Function<R, D> toDTO) {
+    return rows.stream().collect(Collectors.groupingBy(parentId, LinkedHashMap::new,
+        Collectors.mapping(toDTO, Collectors.toList())));
+  }
+}
@@ -1,6 +1,7 @@
 package com.ivanolmo.kanbantaskmanager.mapper;
 
 import com.ivanolmo.kanbantaskmanager.dto.SubtaskDTO;
+import com.ivanolmo.kanbantaskmanager.dto.SubtaskRow;
 import com.ivanolmo.kanbantaskmanager.entity.Subtask;
 import org.springframework.stereotype.Component;
 
@@ -19,4 +20,18 @@ public class SubtaskMapper {
         .updatedAt(subtask.getUpdatedAt())
         .build();
   }
+
+  public SubtaskDTO toDTO(SubtaskRow subtask) {
+    if (subtask == null) {
+      return null;
+    }
+
+    return SubtaskDTO.builder()
+        .id(subtask.getId())
+        .title(subtask.getTitle())
+        .completed(subtask.getCompleted())
+        .createdAt(subtask.getCreatedAt())
+        .updatedAt(subtask.getUpdatedAt())
+        .build();
+  }
 }
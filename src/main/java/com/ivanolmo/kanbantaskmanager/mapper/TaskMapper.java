@@ -34,6 +34,7 @@ public class TaskMapper {
         .description(task.getDescription())
         .createdAt(task.getCreatedAt())
         .updatedAt(task.getUpdatedAt())
+        .version(task.getVersion())
         .subtasks(subtasks)
         .columnId(task.getColumn().getId())
         .build();
@@ -0,0 +1,175 @@
+package com.ivanolmo.kanbantaskmanager.repository;
+
+import com.ivanolmo.kanbantaskmanager.entity.Board;
+import com.ivanolmo.kanbantaskmanager.entity.Column;
+import com.ivanolmo.kanbantaskmanager.entity.Subtask;
+import com.ivanolmo.kanbantaskmanager.entity.Task;
+import com.ivanolmo.kanbantaskmanager.util.UuidV7;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// write path for bulk imports. bypasses the persistence context entirely: postgres gets the
+// rows through COPY, any other database through a batched stateless session. callers must set
+// audit timestamps, owner ids, unique keys and initial versions since entity callbacks do not
+// run here
+@Repository
+@RequiredArgsConstructor
+public class BoardBulkRepository {
+  private static final int JDBC_BATCH_SIZE = 50;
+
+  private final EntityManagerFactory entityManagerFactory;
+
+  // inserts the boards with all of their columns, tasks and subtasks in one transaction
+  public void insertAll(List<Board> boards) {
+    SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+
+    try (StatelessSession session = sessionFactory.openStatelessSession()) {
+      Transaction transaction = session.beginTransaction();
+
+      try {
+        boolean copied = session.doReturningWork(connection -> {
+          if (!connection.isWrapperFor(PGConnection.class)) {
+            return false;
+          }
+
+          copy(connection.unwrap(PGConnection.class).getCopyAPI(), boards);
+          return true;
+        });
+
+        if (!copied) {
+          insert(session, boards);
+        }
+
+        transaction.commit();
+      } catch (RuntimeException e) {
+        transaction.rollback();
+        throw e;
+      }
+    }
+  }
+
+  // parents first so every foreign key already exists, one entity type at a time so inserts
+  // share a batch
+  private void insert(StatelessSession session, List<Board> boards) {
+    session.setJdbcBatchSize(JDBC_BATCH_SIZE);
+
+    boards.forEach(session::insert);
+    columns(boards).forEach(session::insert);
+    tasks(boards).forEach(session::insert);
+    subtasks(boards).forEach(session::insert);
+  }
+
+  private void copy(CopyManager copyManager, List<Board> boards) throws SQLException {
+    // COPY bypasses the id generator
+    boards.forEach(board -> board.setId(UuidV7.generate().toString()));
+    columns(boards).forEach(column -> column.setId(UuidV7.generate().toString()));
+    tasks(boards).forEach(task -> task.setId(UuidV7.generate().toString()));
+    subtasks(boards).forEach(subtask -> subtask.setId(UuidV7.generate().toString()));
+
+    CsvRows boardRows = new CsvRows();
+    boards.forEach(board -> boardRows.add(board.getId(), board.getName(), board.getNameKey(),
+        board.getCreatedAt(), board.getUpdatedAt(), board.getUser().getId(),
+        board.getVersion()));
+    copyIn(copyManager,
+        "boards (id, name, name_key, created_at, updated_at, user_id, version)", boardRows);
+
+    CsvRows columnRows = new CsvRows();
+    columns(boards).forEach(column -> columnRows.add(column.getId(), column.getName(),
+        column.getColor(), column.getCreatedAt(), column.getUpdatedAt(),
+        column.getBoard().getId(), column.getUserId(), column.getPosition()));
+    copyIn(copyManager,
+        "columns (id, name, color, created_at, updated_at, board_id, user_id, position)",
+        columnRows);
+
+    CsvRows taskRows = new CsvRows();
+    tasks(boards).forEach(task -> taskRows.add(task.getId(), task.getTitle(),
+        task.getTitleKey(), task.getDescription(), task.getCreatedAt(), task.getUpdatedAt(),
+        task.getColumn().getId(), task.getUserId(), task.getVersion(), task.getPosition()));
+    copyIn(copyManager,
+        "tasks (id, title, title_key, description, created_at, updated_at, column_id, user_id, " +
+            "version, position)",
+        taskRows);
+
+    CsvRows subtaskRows = new CsvRows();
+    subtasks(boards).forEach(subtask -> subtaskRows.add(subtask.getId(), subtask.getTitle(),
+        subtask.getCompleted(), subtask.getCreatedAt(), subtask.getUpdatedAt(),
+        subtask.getTask().getId(), subtask.getUserId(), subtask.getPosition()));
+    copyIn(copyManager,
+        "subtasks (id, title, completed, created_at, updated_at, task_id, user_id, position)",
+        subtaskRows);
+  }
+
+  private static void copyIn(CopyManager copyManager, String target, CsvRows rows)
+      throws SQLException {
+    if (rows.isEmpty()) {
+      return;
+    }
+
+    try {
+      copyManager.copyIn("COPY " + target + " FROM STDIN WITH (FORMAT csv)",
+          new StringReader(rows.toString()));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static List<Column> columns(List<Board> boards) {
+    List<Column> columns = new ArrayList<>();
+    boards.forEach(board -> columns.addAll(board.getColumns()));
+    return columns;
+  }
+
+  private static List<Task> tasks(List<Board> boards) {
+    List<Task> tasks = new ArrayList<>();
+    columns(boards).forEach(column -> tasks.addAll(column.getTasks()));
+    return tasks;
+  }
+
+  private static List<Subtask> subtasks(List<Board> boards) {
+    List<Subtask> subtasks = new ArrayList<>();
+    tasks(boards).forEach(task -> subtasks.addAll(task.getSubtasks()));
+    return subtasks;
+  }
+
+  // csv body for COPY, every value quoted so commas, quotes and newlines survive. nulls are
+  // left unquoted which COPY reads as NULL
+  private static class CsvRows {
+    private final StringBuilder csv = new StringBuilder();
+
+    void add(Object... values) {
+      for (int i = 0; i < values.length; i++) {
+        if (i > 0) {
+          csv.append(',');
+        }
+
+        if (values[i] != null) {
+          csv.append('"').append(values[i].toString().replace("\"", "\"\"")).append('"');
+        }
+      }
+
+      csv.append('\n');
+    }
+
+    boolean isEmpty() {
+      return csv.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+      return csv.toString();
+    }
+  }
+}
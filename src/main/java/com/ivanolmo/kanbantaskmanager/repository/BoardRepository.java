@@ -1,27 +1,209 @@
 package com.ivanolmo.kanbantaskmanager.repository;
 
 import com.ivanolmo.kanbantaskmanager.dto.BoardInfo;
+import com.ivanolmo.kanbantaskmanager.dto.BoardRow;
+import com.ivanolmo.kanbantaskmanager.dto.BoardSummaryDTO;
 import com.ivanolmo.kanbantaskmanager.entity.Board;
+import com.ivanolmo.kanbantaskmanager.entity.UuidStringType;
+import com.ivanolmo.kanbantaskmanager.util.UniqueKeys;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 public interface BoardRepository extends JpaRepository<Board, String> {
+  // the deletedAt of the trashed board, children stamped with it went to the trash together
+  String TRASHED_AT = "(SELECT b.deleted_at FROM boards b " +
+      "WHERE b.id = :id AND b.user_id = :userId AND b.deleted_at >= :cutoff)";
+
   Optional<List<Board>> findAllByUserId(String userId);
 
+  // keyset pagination over (updatedAt, id), newest first; both queries are served by the
+  // (user_id, updated_at, id) index and never scan past the requested page
+  @Query("SELECT new com.ivanolmo.kanbantaskmanager.dto.BoardRow(b.id, b.name, b.createdAt, " +
+      "b.updatedAt, b.version) FROM Board b WHERE b.user.id = :userId " +
+      "ORDER BY b.updatedAt DESC, b.id DESC")
+  List<BoardRow> findBoardRowsByUserId(@Param("userId") String userId, Pageable pageable);
+
+  @Query("SELECT new com.ivanolmo.kanbantaskmanager.dto.BoardRow(b.id, b.name, b.createdAt, " +
+      "b.updatedAt, b.version) FROM Board b WHERE b.user.id = :userId AND " +
+      "(b.updatedAt < :updatedAt OR (b.updatedAt = :updatedAt AND b.id < :id)) " +
+      "ORDER BY b.updatedAt DESC, b.id DESC")
+  List<BoardRow> findBoardRowsByUserIdAfter(@Param("userId") String userId,
+                                            @Param("updatedAt") LocalDateTime updatedAt,
+                                            @Param("id") String id,
+                                            Pageable pageable);
+
   Optional<Board> findByIdAndUserId(String id, String userId);
 
+  @Query("SELECT new com.ivanolmo.kanbantaskmanager.dto.BoardRow(b.id, b.name, b.createdAt, " +
+      "b.updatedAt, b.version) FROM Board b WHERE b.id = :id AND b.user.id = :userId")
+  Optional<BoardRow> findBoardRowByIdAndUserId(@Param("id") String id,
+                                               @Param("userId") String userId);
+
   boolean existsByIdAndUserId(String id, String userId);
 
   void deleteByIdAndUserId(String id, String userId);
 
-  @Query("SELECT b FROM Board b WHERE LOWER(b.name) = LOWER(:name) AND b.user.id = :userId")
-  Optional<Board> findByNameAndUserId(@Param("name") String name, @Param("userId") String userId);
+  // counts are computed in the database with a single grouped aggregate, no task or subtask
+  // rows are ever transferred
+  @Query("SELECT new com.ivanolmo.kanbantaskmanager.dto.BoardSummaryDTO(b.id, b.name, " +
+      "COUNT(DISTINCT c.id), COUNT(DISTINCT t.id), COUNT(s.id), " +
+      "COALESCE(SUM(CASE WHEN s.completed = true THEN 1L ELSE 0L END), 0L)) FROM Board b " +
+      "LEFT JOIN b.columns c LEFT JOIN c.tasks t LEFT JOIN t.subtasks s " +
+      "WHERE b.user.id = :userId GROUP BY b.id, b.name, b.updatedAt " +
+      "ORDER BY b.updatedAt DESC, b.id DESC")
+  List<BoardSummaryDTO> findBoardSummariesByUserId(@Param("userId") String userId);
 
   @Query("SELECT new com.ivanolmo.kanbantaskmanager.dto.BoardInfo(b.id, u.id, b) FROM Board b " +
       "JOIN b.user u WHERE b.id = :boardId")
   Optional<BoardInfo> findBoardInfoById(@Param("boardId") String boardId);
+
+  // moves the board to the trash, a single row update however large the board is. the name key
+  // is cleared so the name can be reused. its columns, tasks and subtasks are stamped later by the
+  // purger with stampTrashedChildren
+  @Modifying
+  @Query("UPDATE Board b SET b.deletedAt = :deletedAt, b.nameKey = NULL " +
+      "WHERE b.id = :id AND b.user.id = :userId")
+  int softDelete(@Param("id") String id, @Param("userId") String userId,
+                 @Param("deletedAt") LocalDateTime deletedAt);
+
+  // purger batch that copies the deletedAt of up to limit trashed boards down to their live
+  // columns, tasks and subtasks, so reads of a child never need to join up to its board. the
+  // boards stay locked until the batch commits, a restore of one of them waits for it and then
+  // finds every child stamped. children already in the trash keep their own deletedAt
+  @Transactional
+  default int stampTrashedChildren(int limit) {
+    List<UUID> boardIds = lockUnstampedTrashedBoards(limit).stream()
+        .map(UuidStringType::toUuid).toList();
+
+    if (boardIds.isEmpty()) {
+      return 0;
+    }
+
+    stampSubtasks(boardIds);
+    stampTasks(boardIds);
+    stampColumns(boardIds);
+    return boardIds.size();
+  }
+
+  @Query(value = "SELECT CAST(b.id AS varchar) FROM boards b WHERE b.deleted_at IS NOT NULL AND EXISTS " +
+      "(SELECT c.id FROM columns c WHERE c.board_id = b.id AND c.deleted_at IS NULL) " +
+      "LIMIT :limit FOR UPDATE", nativeQuery = true)
+  List<String> lockUnstampedTrashedBoards(@Param("limit") int limit);
+
+  @Modifying
+  @Query(value = "UPDATE subtasks s SET deleted_at = (SELECT b.deleted_at FROM boards b " +
+      "JOIN columns c ON c.board_id = b.id JOIN tasks t ON t.column_id = c.id " +
+      "WHERE t.id = s.task_id) WHERE s.deleted_at IS NULL AND s.task_id IN " +
+      "(SELECT t.id FROM tasks t JOIN columns c ON c.id = t.column_id " +
+      "WHERE c.board_id IN :boardIds)", nativeQuery = true)
+  int stampSubtasks(@Param("boardIds") Collection<UUID> boardIds);
+
+  @Modifying
+  @Query(value = "UPDATE tasks t SET deleted_at = (SELECT b.deleted_at FROM boards b " +
+      "JOIN columns c ON c.board_id = b.id WHERE c.id = t.column_id) " +
+      "WHERE t.deleted_at IS NULL AND t.column_id IN " +
+      "(SELECT c.id FROM columns c WHERE c.board_id IN :boardIds)", nativeQuery = true)
+  int stampTasks(@Param("boardIds") Collection<UUID> boardIds);
+
+  @Modifying
+  @Query(value = "UPDATE columns c SET deleted_at = (SELECT b.deleted_at FROM boards b " +
+      "WHERE b.id = c.board_id) WHERE c.deleted_at IS NULL AND c.board_id IN :boardIds",
+      nativeQuery = true)
+  int stampColumns(@Param("boardIds") Collection<UUID> boardIds);
+
+  // trashed rows are hidden from every jpql query, so restoring goes through sql. only boards
+  // deleted after the cutoff are restored, older ones belong to the purger. children come back
+  // when they were stamped with the boards deletedAt, ones deleted on their own stay in the trash.
+  // the name key is derived here like on every other write
+  default int restore(String id, String userId, LocalDateTime cutoff) {
+    UUID boardId = UuidStringType.toUuid(id);
+    UUID ownerId = UuidStringType.toUuid(userId);
+
+    Optional<String> name = findTrashedName(boardId, ownerId, cutoff);
+
+    if (name.isEmpty()) {
+      return 0;
+    }
+
+    restoreSubtasks(boardId, ownerId, cutoff);
+    restoreTasks(boardId, ownerId, cutoff);
+    restoreColumns(boardId, ownerId, cutoff);
+    return restoreBoard(boardId, ownerId, cutoff, UniqueKeys.of(name.get()));
+  }
+
+  // locks the board so a concurrent stampTrashedChildren batch either finishes first or skips it
+  @Query(value = "SELECT name FROM boards " +
+      "WHERE id = :id AND user_id = :userId AND deleted_at >= :cutoff FOR UPDATE",
+      nativeQuery = true)
+  Optional<String> findTrashedName(@Param("id") UUID id, @Param("userId") UUID userId,
+                                   @Param("cutoff") LocalDateTime cutoff);
+
+  @Modifying
+  @Query(value = "UPDATE subtasks SET deleted_at = NULL WHERE deleted_at = " + TRASHED_AT +
+      " AND task_id IN (SELECT t.id FROM tasks t JOIN columns c ON c.id = t.column_id " +
+      "WHERE c.board_id = :id)", nativeQuery = true)
+  int restoreSubtasks(@Param("id") UUID id, @Param("userId") UUID userId,
+                      @Param("cutoff") LocalDateTime cutoff);
+
+  @Modifying
+  @Query(value = "UPDATE tasks SET deleted_at = NULL WHERE deleted_at = " + TRASHED_AT +
+      " AND column_id IN (SELECT c.id FROM columns c WHERE c.board_id = :id)", nativeQuery = true)
+  int restoreTasks(@Param("id") UUID id, @Param("userId") UUID userId,
+                   @Param("cutoff") LocalDateTime cutoff);
+
+  @Modifying
+  @Query(value = "UPDATE columns SET deleted_at = NULL WHERE deleted_at = " + TRASHED_AT +
+      " AND board_id = :id", nativeQuery = true)
+  int restoreColumns(@Param("id") UUID id, @Param("userId") UUID userId,
+                     @Param("cutoff") LocalDateTime cutoff);
+
+  @Modifying
+  @Query(value = "UPDATE boards SET deleted_at = NULL, name_key = :nameKey " +
+      "WHERE id = :id AND user_id = :userId AND deleted_at >= :cutoff", nativeQuery = true)
+  int restoreBoard(@Param("id") UUID id, @Param("userId") UUID userId,
+                   @Param("cutoff") LocalDateTime cutoff, @Param("nameKey") String nameKey);
+
+  // purger batches, children first. each call removes at most limit rows in its own transaction
+  // and only touches boards deleted before the cutoff. a parent still holding children is left
+  // for the next run. LIMIT inside an IN subquery works on postgres and h2 but not on every
+  // database, mysql for one rejects it
+  @Transactional
+  @Modifying
+  @Query(value = "DELETE FROM subtasks WHERE id IN (SELECT s.id FROM subtasks s " +
+      "JOIN tasks t ON t.id = s.task_id JOIN columns c ON c.id = t.column_id " +
+      "JOIN boards b ON b.id = c.board_id WHERE b.deleted_at < :cutoff LIMIT :limit)",
+      nativeQuery = true)
+  int purgeSubtasks(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+  @Transactional
+  @Modifying
+  @Query(value = "DELETE FROM tasks WHERE id IN (SELECT t.id FROM tasks t " +
+      "JOIN columns c ON c.id = t.column_id JOIN boards b ON b.id = c.board_id " +
+      "WHERE b.deleted_at < :cutoff AND NOT EXISTS " +
+      "(SELECT s.id FROM subtasks s WHERE s.task_id = t.id) LIMIT :limit)", nativeQuery = true)
+  int purgeTasks(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+  @Transactional
+  @Modifying
+  @Query(value = "DELETE FROM columns WHERE id IN (SELECT c.id FROM columns c " +
+      "JOIN boards b ON b.id = c.board_id WHERE b.deleted_at < :cutoff AND NOT EXISTS " +
+      "(SELECT t.id FROM tasks t WHERE t.column_id = c.id) LIMIT :limit)", nativeQuery = true)
+  int purgeColumns(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+  @Transactional
+  @Modifying
+  @Query(value = "DELETE FROM boards WHERE id IN (SELECT b.id FROM boards b " +
+      "WHERE b.deleted_at < :cutoff AND NOT EXISTS " +
+      "(SELECT c.id FROM columns c WHERE c.board_id = b.id) LIMIT :limit)", nativeQuery = true)
+  int purgeBoards(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
 }
@@ -1,18 +1,45 @@
 package com.ivanolmo.kanbantaskmanager.repository;
 
 import com.ivanolmo.kanbantaskmanager.dto.ColumnInfo;
+import com.ivanolmo.kanbantaskmanager.dto.ColumnRow;
+import com.ivanolmo.kanbantaskmanager.dto.PositionRow;
 import com.ivanolmo.kanbantaskmanager.entity.Column;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ColumnRepository extends JpaRepository<Column, String> {
   Optional<List<Column>> findAllByBoardId(String boardId);
 
-  @Query("SELECT new com.ivanolmo.kanbantaskmanager.dto.ColumnInfo(c.id, u.id, c) FROM Column c " +
-      "JOIN c.board b JOIN b.user u WHERE c.id = :columnId")
+  @Query("SELECT new com.ivanolmo.kanbantaskmanager.dto.ColumnRow(c.id, c.board.id, c.name, " +
+      "c.color, c.createdAt, c.updatedAt) FROM Column c WHERE c.board.id IN :boardIds " +
+      "ORDER BY c.position, c.id")
+  List<ColumnRow> findColumnRowsByBoardIds(@Param("boardIds") Collection<String> boardIds);
+
+  @Query("SELECT new com.ivanolmo.kanbantaskmanager.dto.ColumnRow(c.id, c.board.id, c.name, " +
+      "c.color, c.createdAt, c.updatedAt) FROM Column c WHERE c.id = :id " +
+      "AND c.board.id = :boardId AND c.userId = :userId")
+  Optional<ColumnRow> findColumnRowByIdAndBoardIdAndUserId(@Param("id") String id,
+                                                          @Param("boardId") String boardId,
+                                                          @Param("userId") String userId);
+
+  @Query("SELECT new com.ivanolmo.kanbantaskmanager.dto.ColumnInfo(c.id, c.userId, c) " +
+      "FROM Column c WHERE c.id = :columnId")
   Optional<ColumnInfo> findColumnInfoById(@Param("columnId") String columnId);
+
+  @Query("SELECT new com.ivanolmo.kanbantaskmanager.dto.PositionRow(c.id, c.position) " +
+      "FROM Column c WHERE c.board.id = :boardId AND c.userId = :userId " +
+      "ORDER BY c.position, c.id")
+  List<PositionRow> findPositionRowsByBoardIdAndUserId(@Param("boardId") String boardId,
+                                                       @Param("userId") String userId);
+
+  @Modifying
+  @Query("UPDATE Column c SET c.position = :position WHERE c.id = :id AND c.userId = :userId")
+  int updatePosition(@Param("id") String id, @Param("userId") String userId,
+                     @Param("position") long position);
 }
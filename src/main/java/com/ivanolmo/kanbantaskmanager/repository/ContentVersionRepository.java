@@ -0,0 +1,14 @@
+package com.ivanolmo.kanbantaskmanager.repository;
+
+import com.ivanolmo.kanbantaskmanager.entity.ContentVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface ContentVersionRepository
+    extends JpaRepository<ContentVersion, String>, ContentVersionRepositoryCustom {
+  @Query("SELECT c.version FROM ContentVersion c WHERE c.userId = :userId")
+  Optional<Long> findVersionByUserId(@Param("userId") String userId);
+}
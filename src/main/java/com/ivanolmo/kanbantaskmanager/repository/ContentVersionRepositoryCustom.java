@@ -0,0 +1,5 @@
+package com.ivanolmo.kanbantaskmanager.repository;
+
+public interface ContentVersionRepositoryCustom {
+  int increment(String userId);
+}
@@ -0,0 +1,34 @@
+package com.ivanolmo.kanbantaskmanager.repository;
+
+import com.ivanolmo.kanbantaskmanager.entity.UuidStringType;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+// bumps the counter and creates it on a users first write in one statement, so two concurrent
+// first writes cannot both insert the row. postgres has ON CONFLICT, h2 the standard MERGE
+@RequiredArgsConstructor
+public class ContentVersionRepositoryCustomImpl implements ContentVersionRepositoryCustom {
+  private static final String POSTGRES_UPSERT = "INSERT INTO content_versions (user_id, version) " +
+      "VALUES (:userId, 1) ON CONFLICT (user_id) " +
+      "DO UPDATE SET version = content_versions.version + 1";
+  private static final String MERGE = "MERGE INTO content_versions c " +
+      "USING (SELECT CAST(:userId AS uuid) AS user_id) s ON c.user_id = s.user_id " +
+      "WHEN MATCHED THEN UPDATE SET version = c.version + 1 " +
+      "WHEN NOT MATCHED THEN INSERT (user_id, version) VALUES (s.user_id, 1)";
+
+  private final EntityManager entityManager;
+
+  @Override
+  public int increment(String userId) {
+    return entityManager.createNativeQuery(isPostgres() ? POSTGRES_UPSERT : MERGE)
+        .setParameter("userId", UuidStringType.toUuid(userId))
+        .executeUpdate();
+  }
+
+  private boolean isPostgres() {
+    return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+        .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+  }
+}
@@ -0,0 +1,35 @@
+package com.ivanolmo.kanbantaskmanager.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Repository;
+
+// keeps purger batches of several instances from running at the same time. postgres hands out a
+// transaction level advisory lock on the batch's own connection, released when it commits, so a
+// run never holds a second pooled connection. other databases (h2 in tests) only ever run a
+// single instance, so they purge unlocked
+@Repository
+@RequiredArgsConstructor
+public class PurgeLockRepository {
+  private static final long PURGE_LOCK_KEY = 0x6b616e62616e5047L;
+
+  private final EntityManager entityManager;
+
+  // false if another instance holds the lock, must be called inside the batch transaction
+  public boolean tryLock() {
+    if (!isPostgres()) {
+      return true;
+    }
+
+    return (Boolean) entityManager.createNativeQuery("SELECT pg_try_advisory_xact_lock(:key)")
+        .setParameter("key", PURGE_LOCK_KEY)
+        .getSingleResult();
+  }
+
+  private boolean isPostgres() {
+    return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+        .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+  }
+}
@@ -1,11 +1,81 @@
 package com.ivanolmo.kanbantaskmanager.repository;
 
+import com.ivanolmo.kanbantaskmanager.dto.PositionRow;
+import com.ivanolmo.kanbantaskmanager.dto.SubtaskRow;
 import com.ivanolmo.kanbantaskmanager.entity.Subtask;
+import com.ivanolmo.kanbantaskmanager.entity.UuidStringType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 public interface SubtaskRepository extends JpaRepository<Subtask, String> {
   Optional<List<Subtask>> findAllByTaskId(String taskId);
+
+  @Query("SELECT new com.ivanolmo.kanbantaskmanager.dto.SubtaskRow(s.id, s.task.id, s.title, " +
+      "s.completed, s.createdAt, s.updatedAt) FROM Subtask s " +
+      "WHERE s.task.column.board.id IN :boardIds ORDER BY s.position, s.id")
+  List<SubtaskRow> findSubtaskRowsByBoardIds(@Param("boardIds") Collection<String> boardIds);
+
+  @Query("SELECT new com.ivanolmo.kanbantaskmanager.dto.SubtaskRow(s.id, s.task.id, s.title, " +
+      "s.completed, s.createdAt, s.updatedAt) FROM Subtask s " +
+      "WHERE s.task.column.id = :columnId ORDER BY s.position, s.id")
+  List<SubtaskRow> findSubtaskRowsByColumnId(@Param("columnId") String columnId);
+
+  @Query("SELECT new com.ivanolmo.kanbantaskmanager.dto.SubtaskRow(s.id, s.task.id, s.title, " +
+      "s.completed, s.createdAt, s.updatedAt) FROM Subtask s WHERE s.id = :id")
+  Optional<SubtaskRow> findSubtaskRowById(@Param("id") String id);
+
+  // flip completion in place, the row only matches when the subtask belongs to the user
+  @Modifying
+  @Query("UPDATE Subtask s SET s.completed = CASE WHEN s.completed = true THEN false ELSE true END, " +
+      "s.updatedAt = :updatedAt WHERE s.id = :id AND s.userId = :userId")
+  int toggleCompletion(@Param("id") String id, @Param("userId") String userId,
+                       @Param("updatedAt") LocalDateTime updatedAt);
+
+  @Query("SELECT new com.ivanolmo.kanbantaskmanager.dto.SubtaskRow(s.id, s.task.id, s.title, " +
+      "s.completed, s.createdAt, s.updatedAt) FROM Subtask s WHERE s.id IN :ids")
+  List<SubtaskRow> findSubtaskRowsByIds(@Param("ids") Collection<String> ids);
+
+  long countByIdIn(Collection<String> ids);
+
+  // set completion for many subtasks at once, only rows owned by the user are matched so callers
+  // compare the count against the number of requested ids
+  @Modifying
+  @Query("UPDATE Subtask s SET s.completed = CASE WHEN s.id IN :completedIds THEN true ELSE false " +
+      "END, s.updatedAt = :updatedAt WHERE s.id IN :ids AND s.userId = :userId")
+  int updateCompletion(@Param("ids") Collection<String> ids,
+                       @Param("completedIds") Collection<String> completedIds,
+                       @Param("userId") String userId,
+                       @Param("updatedAt") LocalDateTime updatedAt);
+
+  // positions of every subtask of the task of the given subtask, empty unless the user owns it
+  @Query("SELECT new com.ivanolmo.kanbantaskmanager.dto.PositionRow(s.id, s.position) " +
+      "FROM Subtask s WHERE s.task.id = " +
+      "(SELECT o.task.id FROM Subtask o WHERE o.id = :id AND o.userId = :userId) " +
+      "ORDER BY s.position, s.id")
+  List<PositionRow> findSiblingPositionRows(@Param("id") String id,
+                                            @Param("userId") String userId);
+
+  @Modifying
+  @Query("UPDATE Subtask s SET s.position = :position WHERE s.id = :id AND s.userId = :userId")
+  int updatePosition(@Param("id") String id, @Param("userId") String userId,
+                     @Param("position") long position);
+
+  // removes the subtasks of every task in the given columns, trashed tasks included, which jpql
+  // would skip
+  default int deleteAllByColumnIds(Collection<String> columnIds) {
+    return deleteAllByColumnUuids(columnIds.stream().map(UuidStringType::toUuid).toList());
+  }
+
+  @Modifying
+  @Query(value = "DELETE FROM subtasks WHERE task_id IN " +
+      "(SELECT t.id FROM tasks t WHERE t.column_id IN :columnIds)", nativeQuery = true)
+  int deleteAllByColumnUuids(@Param("columnIds") Collection<UUID> columnIds);
 }
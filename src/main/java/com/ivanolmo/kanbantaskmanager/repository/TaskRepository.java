@@ -1,19 +1,110 @@
 package com.ivanolmo.kanbantaskmanager.repository;
 
+import com.ivanolmo.kanbantaskmanager.dto.PositionRow;
 import com.ivanolmo.kanbantaskmanager.dto.TaskInfo;
+import com.ivanolmo.kanbantaskmanager.dto.TaskRow;
 import com.ivanolmo.kanbantaskmanager.entity.Task;
+import com.ivanolmo.kanbantaskmanager.entity.UuidStringType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 public interface TaskRepository extends JpaRepository<Task, String> {
-  @Query("SELECT t FROM Task t WHERE LOWER(t.title) = LOWER(:title) AND t.column.id = :columnId")
-  Optional<Task> findByTitleAndColumnId(@Param("title") String title,
-                                        @Param("columnId") String columnId);
+  @Query("SELECT new com.ivanolmo.kanbantaskmanager.dto.TaskRow(t.id, t.column.id, t.title, " +
+      "t.description, t.createdAt, t.updatedAt, t.version) FROM Task t " +
+      "WHERE t.column.board.id IN :boardIds ORDER BY t.position, t.id")
+  List<TaskRow> findTaskRowsByBoardIds(@Param("boardIds") Collection<String> boardIds);
 
-  @Query("SELECT new com.ivanolmo.kanbantaskmanager.dto.TaskInfo(t.id, u.id, t) FROM Task t " +
-      "JOIN t.column c JOIN c.board b JOIN b.user u WHERE t.id = :taskId")
+  @Query("SELECT new com.ivanolmo.kanbantaskmanager.dto.TaskRow(t.id, t.column.id, t.title, " +
+      "t.description, t.createdAt, t.updatedAt, t.version) FROM Task t " +
+      "WHERE t.column.id = :columnId ORDER BY t.position, t.id")
+  List<TaskRow> findTaskRowsByColumnId(@Param("columnId") String columnId);
+
+  @Query("SELECT new com.ivanolmo.kanbantaskmanager.dto.TaskInfo(t.id, t.userId, t) FROM Task t " +
+      "WHERE t.id = :taskId")
   Optional<TaskInfo> findTaskInfoById(@Param("taskId") String taskId);
+
+  // removes the tasks of the given columns, trashed ones included, which jpql would skip
+  default int deleteAllByColumnIds(Collection<String> columnIds) {
+    return deleteAllByColumnUuids(columnIds.stream().map(UuidStringType::toUuid).toList());
+  }
+
+  @Modifying
+  @Query(value = "DELETE FROM tasks WHERE column_id IN :columnIds", nativeQuery = true)
+  int deleteAllByColumnUuids(@Param("columnIds") Collection<UUID> columnIds);
+
+  // moves the task and its subtasks to the trash, clearing the title key so the title can be
+  // reused. the purger removes them later
+  default int softDelete(String id, String userId, LocalDateTime deletedAt) {
+    softDeleteSubtasks(id, userId, deletedAt);
+    return softDeleteTask(id, userId, deletedAt);
+  }
+
+  @Modifying
+  @Query("UPDATE Subtask s SET s.deletedAt = :deletedAt " +
+      "WHERE s.task.id = :taskId AND s.userId = :userId")
+  int softDeleteSubtasks(@Param("taskId") String taskId, @Param("userId") String userId,
+                         @Param("deletedAt") LocalDateTime deletedAt);
+
+  @Modifying
+  @Query("UPDATE Task t SET t.deletedAt = :deletedAt, t.titleKey = NULL " +
+      "WHERE t.id = :id AND t.userId = :userId")
+  int softDeleteTask(@Param("id") String id, @Param("userId") String userId,
+                     @Param("deletedAt") LocalDateTime deletedAt);
+
+  // purger batches for tasks trashed on their own before the cutoff, subtasks first. tasks whose
+  // column went to the trash with its board wait for the board purge. each call removes at most
+  // limit rows in its own transaction, and a parent still holding children is left for the next
+  // run. like the board batches these rely on LIMIT inside IN, which postgres and h2 accept
+  @Transactional
+  @Modifying
+  @Query(value = "DELETE FROM subtasks WHERE id IN (SELECT s.id FROM subtasks s " +
+      "JOIN tasks t ON t.id = s.task_id JOIN columns c ON c.id = t.column_id " +
+      "WHERE t.deleted_at < :cutoff AND c.deleted_at IS NULL LIMIT :limit)",
+      nativeQuery = true)
+  int purgeSubtasks(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+  @Transactional
+  @Modifying
+  @Query(value = "DELETE FROM tasks WHERE id IN (SELECT t.id FROM tasks t " +
+      "JOIN columns c ON c.id = t.column_id " +
+      "WHERE t.deleted_at < :cutoff AND c.deleted_at IS NULL AND NOT EXISTS " +
+      "(SELECT s.id FROM subtasks s WHERE s.task_id = t.id) LIMIT :limit)", nativeQuery = true)
+  int purgeTasks(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+  // moves a task to the end of another column, only when both the task and the target column
+  // belong to the user
+  @Modifying
+  @Query("UPDATE Task t SET t.column.id = :columnId, t.position = " +
+      "(SELECT COALESCE(MAX(o.position), 0) + :gap FROM Task o WHERE o.column.id = :columnId), " +
+      "t.updatedAt = :updatedAt, t.version = t.version + 1 " +
+      "WHERE t.id = :id AND t.userId = :userId " +
+      "AND EXISTS (SELECT c.id FROM Column c WHERE c.id = :columnId AND c.userId = :userId)")
+  int moveTask(@Param("id") String id, @Param("columnId") String columnId,
+               @Param("userId") String userId, @Param("gap") long gap,
+               @Param("updatedAt") LocalDateTime updatedAt);
+
+  @Query("SELECT MAX(t.position) FROM Task t WHERE t.column.id = :columnId")
+  Long findMaxPositionByColumnId(@Param("columnId") String columnId);
+
+  // positions of every task in the column of the given task, empty unless the user owns it
+  @Query("SELECT new com.ivanolmo.kanbantaskmanager.dto.PositionRow(t.id, t.position) " +
+      "FROM Task t WHERE t.column.id = " +
+      "(SELECT o.column.id FROM Task o WHERE o.id = :id AND o.userId = :userId) " +
+      "ORDER BY t.position, t.id")
+  List<PositionRow> findSiblingPositionRows(@Param("id") String id,
+                                            @Param("userId") String userId);
+
+  @Modifying
+  @Query("UPDATE Task t SET t.position = :position WHERE t.id = :id AND t.userId = :userId")
+  int updatePosition(@Param("id") String id, @Param("userId") String userId,
+                     @Param("position") long position);
 }
@@ -2,11 +2,18 @@ package com.ivanolmo.kanbantaskmanager.repository;
 
 import com.ivanolmo.kanbantaskmanager.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, String> {
-  Optional<User> findByEmail(String email);
+  Optional<User> findByEmailKey(String emailKey);
+
+  @Modifying
+  @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+  int updatePassword(@Param("id") String id, @Param("password") String password);
 }
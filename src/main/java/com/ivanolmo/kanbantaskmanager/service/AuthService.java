@@ -3,9 +3,11 @@ package com.ivanolmo.kanbantaskmanager.service;
 import com.ivanolmo.kanbantaskmanager.dto.auth.AuthRequestDTO;
 import com.ivanolmo.kanbantaskmanager.dto.auth.AuthResponseDTO;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface AuthService {
-  AuthResponseDTO register(AuthRequestDTO request);
+  CompletableFuture<AuthResponseDTO> register(AuthRequestDTO request);
 
-  AuthResponseDTO login(AuthRequestDTO request);
+  CompletableFuture<AuthResponseDTO> login(AuthRequestDTO request);
 
 }
@@ -6,15 +6,22 @@ import com.ivanolmo.kanbantaskmanager.dto.auth.AuthResponseDTO;
 import com.ivanolmo.kanbantaskmanager.entity.User;
 import com.ivanolmo.kanbantaskmanager.exception.AuthException;
 import com.ivanolmo.kanbantaskmanager.repository.UserRepository;
+import com.ivanolmo.kanbantaskmanager.util.UniqueKeys;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
 @Service
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
@@ -22,54 +29,75 @@ public class AuthServiceImpl implements AuthService {
   private final PasswordEncoder passwordEncoder;
   private final UserRepository userRepository;
   private final JwtService jwtService;
+  private final ThreadPoolTaskExecutor passwordHashingExecutor;
 
-  public AuthResponseDTO register(AuthRequestDTO request) {
-    // if user email is already in use, throw error
-    userRepository.findByEmail(request.getEmail().toLowerCase())
-        .ifPresent(user -> {
-          throw new AuthException("Email is already in use", HttpStatus.BAD_REQUEST);
-        });
+  public CompletableFuture<AuthResponseDTO> register(AuthRequestDTO request) {
+    return supplyHashing(() -> {
+      User user = User
+          .builder()
+          .email(request.getEmail())
+          .password(passwordEncoder.encode(request.getPassword()))
+          .build();
 
-    User user = User
-        .builder()
-        .email(request.getEmail())
-        .password(passwordEncoder.encode(request.getPassword()))
-        .build();
+      // the unique email key rejects an address already in use, whatever its case
+      try {
+        userRepository.saveAndFlush(user);
+      } catch (DataIntegrityViolationException e) {
+        if (UniqueKeys.isViolated(e, User.EMAIL_KEY_CONSTRAINT)) {
+          throw new AuthException("Email is already in use", e, HttpStatus.BAD_REQUEST);
+        }
 
-    userRepository.save(user);
+        throw e;
+      }
 
-    UserDetails userDetails = new UserDetailsImpl(user);
-
-    return AuthResponseDTO
-        .builder()
-        .userId(user.getId())
-        .email(user.getEmail())
-        .accessToken(jwtService.generateToken(userDetails))
-        .build();
+      return buildResponse(new UserDetailsImpl(user));
+    });
   }
 
-  public AuthResponseDTO login(AuthRequestDTO request) {
-    try {
-      authenticationManager.authenticate(
-          new UsernamePasswordAuthenticationToken(
-              request.getEmail(),
-              request.getPassword()
-          )
-      );
-    } catch (BadCredentialsException e) {
-      throw new AuthException("Invalid email or password", e, HttpStatus.UNAUTHORIZED);
-    }
+  public CompletableFuture<AuthResponseDTO> login(AuthRequestDTO request) {
+    return supplyHashing(() -> {
+      Authentication authentication;
+
+      try {
+        authentication = authenticationManager.authenticate(
+            new UsernamePasswordAuthenticationToken(
+                request.getEmail(),
+                request.getPassword()
+            )
+        );
+      } catch (BadCredentialsException e) {
+        throw new AuthException("Invalid email or password", e, HttpStatus.UNAUTHORIZED);
+      }
 
-    User user = userRepository.findByEmail(request.getEmail()).orElseThrow(() ->
-        new AuthException("User not found", HttpStatus.NOT_FOUND));
+      // the provider already loaded the user to check the password, reuse it
+      if (authentication != null
+          && authentication.getPrincipal() instanceof UserDetailsImpl userDetails) {
+        return buildResponse(userDetails);
+      }
 
-    UserDetails userDetails = new UserDetailsImpl(user);
+      User user = userRepository.findByEmailKey(UniqueKeys.of(request.getEmail())).orElseThrow(() ->
+          new AuthException("User not found", HttpStatus.NOT_FOUND));
+
+      return buildResponse(new UserDetailsImpl(user));
+    });
+  }
 
+  private AuthResponseDTO buildResponse(UserDetailsImpl userDetails) {
     return AuthResponseDTO
         .builder()
-        .userId(user.getId())
-        .email(user.getEmail())
+        .userId(userDetails.getId())
+        .email(userDetails.getUsername())
         .accessToken(jwtService.generateToken(userDetails))
         .build();
   }
+
+  // runs password work on the bounded hashing pool, a full queue fails fast with 429
+  private <T> CompletableFuture<T> supplyHashing(Supplier<T> task) {
+    try {
+      return CompletableFuture.supplyAsync(task, passwordHashingExecutor);
+    } catch (RejectedExecutionException e) {
+      throw new AuthException("Too many authentication requests, please try again shortly", e,
+          HttpStatus.TOO_MANY_REQUESTS);
+    }
+  }
 }
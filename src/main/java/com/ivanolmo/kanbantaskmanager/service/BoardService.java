@@ -1,15 +1,26 @@
 package com.ivanolmo.kanbantaskmanager.service;
 
 import com.ivanolmo.kanbantaskmanager.dto.BoardDTO;
+import com.ivanolmo.kanbantaskmanager.dto.BoardPageDTO;
+import com.ivanolmo.kanbantaskmanager.dto.BoardSummaryDTO;
+import com.ivanolmo.kanbantaskmanager.dto.ColumnDTO;
 
 import java.util.List;
 
 public interface BoardService {
-  List<BoardDTO> getAllUserBoards();
+  BoardPageDTO getAllUserBoards(String cursor, int limit);
+
+  List<BoardSummaryDTO> getUserBoardSummaries();
+
+  BoardDTO getBoard(String id, boolean includeTasks);
+
+  ColumnDTO getBoardColumn(String boardId, String columnId);
 
   BoardDTO addBoardToUser(BoardDTO boardDTO);
 
   BoardDTO updateBoard(String id, BoardDTO boardDTO);
 
   void deleteBoard(String id);
+
+  BoardDTO restoreBoard(String id);
 }
@@ -2,19 +2,36 @@ package com.ivanolmo.kanbantaskmanager.service;
 
 import com.ivanolmo.kanbantaskmanager.dto.BoardDTO;
 import com.ivanolmo.kanbantaskmanager.dto.BoardInfo;
+import com.ivanolmo.kanbantaskmanager.dto.BoardPageDTO;
+import com.ivanolmo.kanbantaskmanager.dto.BoardRow;
+import com.ivanolmo.kanbantaskmanager.dto.BoardSummaryDTO;
 import com.ivanolmo.kanbantaskmanager.dto.ColumnDTO;
+import com.ivanolmo.kanbantaskmanager.dto.ColumnRow;
 import com.ivanolmo.kanbantaskmanager.entity.Board;
 import com.ivanolmo.kanbantaskmanager.entity.User;
 import com.ivanolmo.kanbantaskmanager.exception.EntityOperationException;
 import com.ivanolmo.kanbantaskmanager.mapper.BoardMapper;
+import com.ivanolmo.kanbantaskmanager.mapper.BoardRowMapper;
 import com.ivanolmo.kanbantaskmanager.repository.BoardRepository;
+import com.ivanolmo.kanbantaskmanager.repository.ColumnRepository;
+import com.ivanolmo.kanbantaskmanager.repository.SubtaskRepository;
+import com.ivanolmo.kanbantaskmanager.repository.TaskRepository;
+import com.ivanolmo.kanbantaskmanager.util.KeysetCursor;
+import com.ivanolmo.kanbantaskmanager.util.UniqueKeys;
 import com.ivanolmo.kanbantaskmanager.util.UserHelper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 
@@ -22,25 +39,94 @@ import java.util.List;
 @RequiredArgsConstructor
 @Slf4j
 public class BoardServiceImpl implements BoardService {
+  private static final int MAX_PAGE_SIZE = 100;
+
   private final BoardRepository boardRepository;
+  private final ColumnRepository columnRepository;
+  private final TaskRepository taskRepository;
+  private final SubtaskRepository subtaskRepository;
   private final BoardMapper boardMapper;
+  private final BoardRowMapper boardRowMapper;
   private final ColumnService columnService;
   private final UserHelper userHelper;
+  private final ContentVersionService contentVersionService;
+
+  // how long a deleted board can still be restored before the purger removes it
+  @Value("${trash.retention:P7D}")
+  private Duration trashRetention;
 
-  // get all boards for a user
+  // get a page of boards for a user
   @Transactional(readOnly = true)
-  public List<BoardDTO> getAllUserBoards() {
-    // get user from security context via helper method
-    User user = userHelper.getCurrentUser();
+  public BoardPageDTO getAllUserBoards(String cursor, int limit) {
+    // get user id from security context via helper method
+    String userId = userHelper.getCurrentUserId();
 
-    // get users boards
-    List<Board> boards =
-        boardRepository.findAllByUserId(user.getId()).orElse(Collections.emptyList());
+    // clamp the page size and fetch one extra row to find out whether another page follows
+    int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    Pageable pageable = PageRequest.of(0, pageSize + 1);
 
-    // map boards to DTOs and return as list
-    return boards.stream()
-        .map(boardMapper::toDTO)
-        .toList();
+    // get users boards as flat projection rows, starting after the cursor if one was given
+    List<BoardRow> boards;
+    if (cursor == null || cursor.isBlank()) {
+      boards = boardRepository.findBoardRowsByUserId(userId, pageable);
+    } else {
+      KeysetCursor position = KeysetCursor.decode(cursor);
+      boards = boardRepository.findBoardRowsByUserIdAfter(
+          userId, position.updatedAt(), position.id(), pageable);
+    }
+
+    String nextCursor = null;
+    if (boards.size() > pageSize) {
+      boards = boards.subList(0, pageSize);
+      BoardRow last = boards.get(pageSize - 1);
+      nextCursor = new KeysetCursor(last.getUpdatedAt(), last.getId()).encode();
+    }
+
+    return BoardPageDTO.builder()
+        .boards(loadBoardTree(boards))
+        .nextCursor(nextCursor)
+        .build();
+  }
+
+  // get column/task counts and subtask completion for each of the users boards
+  @Transactional(readOnly = true)
+  public List<BoardSummaryDTO> getUserBoardSummaries() {
+    // get user id from security context via helper method
+    String userId = userHelper.getCurrentUserId();
+
+    return boardRepository.findBoardSummariesByUserId(userId);
+  }
+
+  // get a single board, optionally without tasks so columns can be expanded on demand
+  @Transactional(readOnly = true)
+  public BoardDTO getBoard(String id, boolean includeTasks) {
+    // get user id from security context via helper method
+    String userId = userHelper.getCurrentUserId();
+
+    // get board row by id, scoped to the current user
+    BoardRow board = boardRepository.findBoardRowByIdAndUserId(id, userId)
+        .orElseThrow(() -> new EntityOperationException("Board", "read", HttpStatus.NOT_FOUND));
+
+    if (includeTasks) {
+      return loadBoardTree(List.of(board)).get(0);
+    }
+
+    return boardRowMapper.toDTO(board, columnRepository.findColumnRowsByBoardIds(List.of(id)));
+  }
+
+  // get a single column of a board with its tasks and subtasks
+  @Transactional(readOnly = true)
+  public ColumnDTO getBoardColumn(String boardId, String columnId) {
+    // get user id from security context via helper method
+    String userId = userHelper.getCurrentUserId();
+
+    // get column row by id, scoped to the board and the current user
+    ColumnRow column =
+        columnRepository.findColumnRowByIdAndBoardIdAndUserId(columnId, boardId, userId)
+            .orElseThrow(() -> new EntityOperationException("Column", "read", HttpStatus.NOT_FOUND));
+
+    return boardRowMapper.toDTO(column, taskRepository.findTaskRowsByColumnId(columnId),
+        subtaskRepository.findSubtaskRowsByColumnId(columnId));
   }
 
   @Transactional
@@ -48,97 +134,165 @@ public class BoardServiceImpl implements BoardService {
     // get user from security context via helper method
     User user = userHelper.getCurrentUser();
 
-    // check if new board name already exists for this user
-    boardRepository.findByNameAndUserId(boardDTO.getName(), user.getId())
-        .ifPresent(board -> {
-          throw new EntityOperationException(
-              "A board with that name already exists", HttpStatus.CONFLICT);
-        });
-
     // convert the BoardDTO to a Board entity and set user
     Board board = boardMapper.toEntity(boardDTO);
     board.setUser(user);
 
-    // save and return dto
+    // save and return dto, flushing so a duplicate name fails here on the unique name key
     try {
-      board = boardRepository.save(board);
-      return boardMapper.toDTO(board);
+      board = boardRepository.saveAndFlush(board);
     } catch (Exception e) {
+      throwIfDuplicateName(e);
       log.error("An error occurred while adding board '{}' to user '{}': {}",
           board.getName(), user.getId(), e.getMessage());
       throw new EntityOperationException("Board", "create", e, HttpStatus.INTERNAL_SERVER_ERROR);
     }
+
+    // bump the content version so polling clients refetch
+    contentVersionService.increment(user.getId());
+
+    return boardMapper.toDTO(board);
   }
 
   // update board
   @Transactional
   public BoardDTO updateBoard(String id, BoardDTO boardDTO) {
-    // get user from security context via helper method
-    User user = userHelper.getCurrentUser();
+    // get user id from security context via helper method
+    String userId = userHelper.getCurrentUserId();
 
     // get board by id
-    Board board = boardRepository.findByIdAndUserId(id, user.getId())
+    Board board = boardRepository.findByIdAndUserId(id, userId)
         .orElseThrow(() -> new EntityOperationException("Board", "read", HttpStatus.NOT_FOUND));
 
     // check if board exists and belongs to the current user
-    if (!board.getUser().getId().equals(user.getId())) {
+    if (!board.getUser().getId().equals(userId)) {
       throw new EntityOperationException("You do not have permission to update this board",
           HttpStatus.FORBIDDEN);
     }
 
-    // check if board name already exists but exclude current board
-    boardRepository.findByNameAndUserId(boardDTO.getName(), user.getId())
-        .filter(existingBoard -> !existingBoard.getId().equals(id))
-        .ifPresent(existingBoard -> {
-          throw new EntityOperationException("A board with that name already exists",
-              HttpStatus.CONFLICT);
-        });
+    // reject stale writes up front, the expected version comes from If-Match or the request body
+    if (boardDTO.getVersion() != null && !boardDTO.getVersion().equals(board.getVersion())) {
+      throw new EntityOperationException("The board was modified by another request",
+          HttpStatus.PRECONDITION_FAILED);
+    }
 
-    // update board name
+    // update board name, touching updatedAt so the board is always versioned even when only its
+    // columns change
     board.setName(boardDTO.getName());
+    board.setUpdatedAt(LocalDateTime.now());
 
-    // update columns and get the updated column DTOs
-    List<ColumnDTO> updatedColumnDTOs = columnService.updateColumns(id, boardDTO.getColumns());
+    // flush the versioned update before any column work. it locks the board row, so a concurrent
+    // writer waits on it and then fails the version check instead of interleaving child writes
+    Board updatedBoard;
 
     try {
-      // save the board after column updates
-      Board updatedBoard = boardRepository.save(board);
-
-      // create and return the updated BoardDTO
-      BoardDTO updatedBoardDTO = boardMapper.toDTO(updatedBoard);
-
-      // Set updated columns in DTO
-      updatedBoardDTO.setColumns(updatedColumnDTOs);
-      return updatedBoardDTO;
+      updatedBoard = boardRepository.saveAndFlush(board);
+    } catch (OptimisticLockingFailureException e) {
+      throw new EntityOperationException("The board was modified by another request",
+          HttpStatus.PRECONDITION_FAILED);
     } catch (Exception e) {
+      throwIfDuplicateName(e);
       log.error("An error occurred while updating board '{}': {}",
           board.getName(), e.getMessage());
       throw new EntityOperationException("Board", "update", e, HttpStatus.INTERNAL_SERVER_ERROR);
     }
+
+    // update columns and get the updated column DTOs
+    List<ColumnDTO> updatedColumnDTOs = columnService.updateColumns(id, boardDTO.getColumns());
+
+    // bump the content version so polling clients refetch
+    contentVersionService.increment(userId);
+
+    // create and return the updated BoardDTO
+    BoardDTO updatedBoardDTO = boardMapper.toDTO(updatedBoard);
+
+    // Set updated columns in DTO
+    updatedBoardDTO.setColumns(updatedColumnDTOs);
+    return updatedBoardDTO;
   }
 
   // delete board
   @Transactional
   public void deleteBoard(String id) {
-    // get user from security context via helper method
-    User user = userHelper.getCurrentUser();
+    // get user id from security context via helper method
+    String userId = userHelper.getCurrentUserId();
 
     // get board and user info
     BoardInfo boardInfo = boardRepository.findBoardInfoById(id)
         .orElseThrow(() -> new EntityOperationException("Board", "read", HttpStatus.NOT_FOUND));
 
     // check if board exists and belongs to the current user
-    if (!boardInfo.getUserId().equals(user.getId())) {
+    if (!boardInfo.getUserId().equals(userId)) {
       throw new EntityOperationException(
           "You do not have permission to delete this board", HttpStatus.FORBIDDEN);
     }
 
-    // delete board
+    // move the board to the trash, a single row update however large the board is. the purger
+    // stamps its columns, tasks and subtasks in the background and removes them once the board
+    // can no longer be restored
     try {
-      boardRepository.deleteById(id);
+      boardRepository.softDelete(id, userId, LocalDateTime.now());
     } catch (Exception e) {
       log.error("An error occurred while deleting board id {}: {}", id, e.getMessage());
       throw new EntityOperationException("Board", "delete", e, HttpStatus.INTERNAL_SERVER_ERROR);
     }
+
+    // bump the content version so polling clients refetch
+    contentVersionService.increment(userId);
+  }
+
+  // restore a board from the trash
+  @Transactional
+  public BoardDTO restoreBoard(String id) {
+    // get user id from security context via helper method
+    String userId = userHelper.getCurrentUserId();
+
+    // only boards of the current user still inside the retention window can be restored, the name
+    // key is derived again so a board created with the same name in the meantime conflicts
+    int restored;
+
+    try {
+      restored = boardRepository.restore(id, userId, LocalDateTime.now().minus(trashRetention));
+    } catch (Exception e) {
+      throwIfDuplicateName(e);
+      log.error("An error occurred while restoring board id {}: {}", id, e.getMessage());
+      throw new EntityOperationException("Board", "restore", e, HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    if (restored == 0) {
+      throw new EntityOperationException("Board", "restore", HttpStatus.NOT_FOUND);
+    }
+
+    BoardDTO boardDTO = getBoard(id, true);
+
+    // bump the content version so polling clients refetch
+    contentVersionService.increment(userId);
+
+    return boardDTO;
+  }
+
+  // board names are unique per user ignoring case, enforced by the name key constraint
+  private static void throwIfDuplicateName(Exception e) {
+    if (e instanceof DataIntegrityViolationException violation
+        && UniqueKeys.isViolated(violation, Board.NAME_KEY_CONSTRAINT)) {
+      throw new EntityOperationException("A board with that name already exists",
+          HttpStatus.CONFLICT);
+    }
+  }
+
+  // read the columns, tasks and subtasks of the given boards as projection rows (one query per
+  // level) and assemble the DTO tree, without hydrating entities or persistence-context snapshots
+  private List<BoardDTO> loadBoardTree(List<BoardRow> boards) {
+    if (boards.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    List<String> boardIds = boards.stream().map(BoardRow::getId).toList();
+
+    return boardRowMapper.toDTOs(
+        boards,
+        columnRepository.findColumnRowsByBoardIds(boardIds),
+        taskRepository.findTaskRowsByBoardIds(boardIds),
+        subtaskRepository.findSubtaskRowsByBoardIds(boardIds));
   }
 }
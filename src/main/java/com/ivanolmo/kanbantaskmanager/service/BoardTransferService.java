@@ -0,0 +1,13 @@
+package com.ivanolmo.kanbantaskmanager.service;
+
+import com.ivanolmo.kanbantaskmanager.dto.BoardImportResultDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface BoardTransferService {
+  BoardImportResultDTO importBoards(InputStream ndjson);
+
+  void exportBoards(OutputStream ndjson) throws IOException;
+}
@@ -0,0 +1,239 @@
+package com.ivanolmo.kanbantaskmanager.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.ivanolmo.kanbantaskmanager.dto.BoardDTO;
+import com.ivanolmo.kanbantaskmanager.dto.BoardImportResultDTO;
+import com.ivanolmo.kanbantaskmanager.dto.BoardPageDTO;
+import com.ivanolmo.kanbantaskmanager.dto.ColumnDTO;
+import com.ivanolmo.kanbantaskmanager.dto.SubtaskDTO;
+import com.ivanolmo.kanbantaskmanager.dto.TaskDTO;
+import com.ivanolmo.kanbantaskmanager.entity.Board;
+import com.ivanolmo.kanbantaskmanager.entity.Column;
+import com.ivanolmo.kanbantaskmanager.entity.Subtask;
+import com.ivanolmo.kanbantaskmanager.entity.Task;
+import com.ivanolmo.kanbantaskmanager.entity.User;
+import com.ivanolmo.kanbantaskmanager.exception.EntityOperationException;
+import com.ivanolmo.kanbantaskmanager.repository.BoardBulkRepository;
+import com.ivanolmo.kanbantaskmanager.util.Positions;
+import com.ivanolmo.kanbantaskmanager.util.UniqueKeys;
+import com.ivanolmo.kanbantaskmanager.util.UserHelper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BoardTransferServiceImpl implements BoardTransferService {
+  // rows (boards, columns, tasks and subtasks) written per transaction
+  private static final int IMPORT_BATCH_ROWS = 1000;
+  private static final int EXPORT_PAGE_SIZE = 100;
+  private static final byte NEWLINE = '\n';
+
+  private final BoardBulkRepository boardBulkRepository;
+  private final BoardService boardService;
+  private final UserHelper userHelper;
+  private final ContentVersionService contentVersionService;
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+
+  // reads one board per line and writes them in fixed size batches, only the current batch is
+  // held in memory. batches are committed as they fill, so an invalid line stops the import
+  // after the boards before it were stored
+  public BoardImportResultDTO importBoards(InputStream ndjson) {
+    String userId = userHelper.getCurrentUserId();
+    BoardImportResultDTO result = new BoardImportResultDTO();
+    List<Board> batch = new ArrayList<>();
+    int batchRows = 0;
+    long line = 0;
+
+    try (MappingIterator<BoardDTO> boards = objectMapper.readerFor(BoardDTO.class)
+        .readValues(ndjson)) {
+      while (boards.hasNextValue()) {
+        line++;
+        BoardDTO boardDTO = boards.nextValue();
+        validate(boardDTO, line);
+
+        Board board = toEntity(boardDTO, userId);
+        batch.add(board);
+        batchRows += count(board, result);
+
+        if (batchRows >= IMPORT_BATCH_ROWS) {
+          insertBatch(batch, userId);
+          batch.clear();
+          batchRows = 0;
+        }
+      }
+    } catch (JsonProcessingException e) {
+      throw new EntityOperationException("Invalid board JSON on line " + (line + 1),
+          HttpStatus.BAD_REQUEST);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    if (!batch.isEmpty()) {
+      insertBatch(batch, userId);
+    }
+
+    log.info("Imported {} boards for user {}", result.getBoards(), userId);
+    return result;
+  }
+
+  // walks the user's boards with the keyset cursor, one page of board trees in memory at a time
+  public void exportBoards(OutputStream ndjson) throws IOException {
+    ObjectWriter writer = objectMapper.writerFor(BoardDTO.class);
+    String cursor = null;
+
+    do {
+      BoardPageDTO page = boardService.getAllUserBoards(cursor, EXPORT_PAGE_SIZE);
+
+      for (BoardDTO board : page.getBoards()) {
+        ndjson.write(writer.writeValueAsBytes(board));
+        ndjson.write(NEWLINE);
+      }
+
+      ndjson.flush();
+      cursor = page.getNextCursor();
+    } while (cursor != null);
+  }
+
+  private void validate(BoardDTO boardDTO, long line) {
+    validate((Object) boardDTO, line);
+
+    for (ColumnDTO columnDTO : nonNull(boardDTO.getColumns())) {
+      validate(columnDTO, line);
+
+      for (TaskDTO taskDTO : nonNull(columnDTO.getTasks())) {
+        validate(taskDTO, line);
+        nonNull(taskDTO.getSubtasks()).forEach(subtaskDTO -> validate(subtaskDTO, line));
+      }
+    }
+  }
+
+  private void validate(Object dto, long line) {
+    Set<ConstraintViolation<Object>> violations = validator.validate(dto);
+
+    if (!violations.isEmpty()) {
+      throw new EntityOperationException("Invalid board on line " + line + ": "
+          + violations.iterator().next().getMessage(), HttpStatus.BAD_REQUEST);
+    }
+  }
+
+  // every committed batch is visible to readers, so each one bumps the content version
+  private void insertBatch(List<Board> batch, String userId) {
+    try {
+      boardBulkRepository.insertAll(batch);
+    } catch (DataIntegrityViolationException e) {
+      if (UniqueKeys.isViolated(e, Board.NAME_KEY_CONSTRAINT)) {
+        throw new EntityOperationException("A board with that name already exists",
+            HttpStatus.CONFLICT);
+      }
+
+      if (UniqueKeys.isViolated(e, Task.TITLE_KEY_CONSTRAINT)) {
+        throw new EntityOperationException("A task with that title already exists",
+            HttpStatus.CONFLICT);
+      }
+
+      throw e;
+    }
+
+    contentVersionService.increment(userId);
+  }
+
+  // ids are always generated, timestamps from the export are kept when present and positions
+  // follow the order of the exported lists
+  private Board toEntity(BoardDTO boardDTO, String userId) {
+    LocalDateTime now = LocalDateTime.now();
+
+    Board board = Board.builder()
+        .name(boardDTO.getName())
+        .nameKey(UniqueKeys.of(boardDTO.getName()))
+        .user(User.builder().id(userId).build())
+        .version(0L)
+        .createdAt(Optional.ofNullable(boardDTO.getCreatedAt()).orElse(now))
+        .updatedAt(Optional.ofNullable(boardDTO.getUpdatedAt()).orElse(now))
+        .build();
+
+    for (ColumnDTO columnDTO : nonNull(boardDTO.getColumns())) {
+      Column column = Column.builder()
+          .name(columnDTO.getName())
+          .color(columnDTO.getColor())
+          .board(board)
+          .userId(userId)
+          .position(Positions.at(board.getColumns().size()))
+          .tasks(new ArrayList<>())
+          .createdAt(Optional.ofNullable(columnDTO.getCreatedAt()).orElse(now))
+          .updatedAt(Optional.ofNullable(columnDTO.getUpdatedAt()).orElse(now))
+          .build();
+      board.getColumns().add(column);
+
+      for (TaskDTO taskDTO : nonNull(columnDTO.getTasks())) {
+        Task task = Task.builder()
+            .title(taskDTO.getTitle())
+            .titleKey(UniqueKeys.of(taskDTO.getTitle()))
+            .description(Optional.ofNullable(taskDTO.getDescription()).orElse(""))
+            .column(column)
+            .userId(userId)
+            .position(Positions.at(column.getTasks().size()))
+            .version(0L)
+            .createdAt(Optional.ofNullable(taskDTO.getCreatedAt()).orElse(now))
+            .updatedAt(Optional.ofNullable(taskDTO.getUpdatedAt()).orElse(now))
+            .build();
+        column.getTasks().add(task);
+
+        for (SubtaskDTO subtaskDTO : nonNull(taskDTO.getSubtasks())) {
+          task.getSubtasks().add(Subtask.builder()
+              .title(subtaskDTO.getTitle())
+              .completed(Boolean.TRUE.equals(subtaskDTO.getCompleted()))
+              .task(task)
+              .userId(userId)
+              .position(Positions.at(task.getSubtasks().size()))
+              .createdAt(Optional.ofNullable(subtaskDTO.getCreatedAt()).orElse(now))
+              .updatedAt(Optional.ofNullable(subtaskDTO.getUpdatedAt()).orElse(now))
+              .build());
+        }
+      }
+    }
+
+    return board;
+  }
+
+  // adds the board tree to the running totals and returns its row count
+  private static int count(Board board, BoardImportResultDTO result) {
+    int columns = board.getColumns().size();
+    int tasks = board.getColumns().stream().mapToInt(column -> column.getTasks().size()).sum();
+    int subtasks = board.getColumns().stream()
+        .flatMap(column -> column.getTasks().stream())
+        .mapToInt(task -> task.getSubtasks().size())
+        .sum();
+
+    result.setBoards(result.getBoards() + 1);
+    result.setColumns(result.getColumns() + columns);
+    result.setTasks(result.getTasks() + tasks);
+    result.setSubtasks(result.getSubtasks() + subtasks);
+
+    return 1 + columns + tasks + subtasks;
+  }
+
+  private static <T> List<T> nonNull(List<T> list) {
+    return Optional.ofNullable(list).orElse(Collections.emptyList());
+  }
+}
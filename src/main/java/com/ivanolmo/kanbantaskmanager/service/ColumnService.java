@@ -6,4 +6,6 @@ import java.util.List;
 
 public interface ColumnService {
   List<ColumnDTO> updateColumns(String boardId, List<ColumnDTO> columnDTOs);
+
+  void reorderColumn(String boardId, String columnId, int index);
 }
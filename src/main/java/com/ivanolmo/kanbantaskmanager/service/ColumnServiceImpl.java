@@ -3,11 +3,14 @@ package com.ivanolmo.kanbantaskmanager.service;
 import com.ivanolmo.kanbantaskmanager.dto.ColumnDTO;
 import com.ivanolmo.kanbantaskmanager.entity.Board;
 import com.ivanolmo.kanbantaskmanager.entity.Column;
-import com.ivanolmo.kanbantaskmanager.entity.User;
 import com.ivanolmo.kanbantaskmanager.exception.EntityOperationException;
 import com.ivanolmo.kanbantaskmanager.mapper.ColumnMapper;
 import com.ivanolmo.kanbantaskmanager.repository.BoardRepository;
 import com.ivanolmo.kanbantaskmanager.repository.ColumnRepository;
+import com.ivanolmo.kanbantaskmanager.repository.SubtaskRepository;
+import com.ivanolmo.kanbantaskmanager.repository.TaskRepository;
+import com.ivanolmo.kanbantaskmanager.util.CollectionDiff;
+import com.ivanolmo.kanbantaskmanager.util.Positions;
 import com.ivanolmo.kanbantaskmanager.util.UserHelper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -17,8 +20,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.function.Function;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,54 +28,97 @@ import java.util.stream.Collectors;
 public class ColumnServiceImpl implements ColumnService {
   private final ColumnRepository columnRepository;
   private final BoardRepository boardRepository;
+  private final TaskRepository taskRepository;
+  private final SubtaskRepository subtaskRepository;
   private final ColumnMapper columnMapper;
   private final UserHelper userHelper;
+  private final ContentVersionService contentVersionService;
 
   @Transactional
   public List<ColumnDTO> updateColumns(String boardId, List<ColumnDTO> columnDTOs) {
-    // get user from security context via helper method
-    User user = userHelper.getCurrentUser();
+    // get user id from security context via helper method
+    String userId = userHelper.getCurrentUserId();
 
     // get board by id
-    Board board = boardRepository.findByIdAndUserId(boardId, user.getId())
+    Board board = boardRepository.findByIdAndUserId(boardId, userId)
         .orElseThrow(() -> new EntityOperationException("Board", "read", HttpStatus.NOT_FOUND));
 
     // check if board exists and belongs to the current user
-    if (!board.getUser().getId().equals(user.getId())) {
+    if (!board.getUser().getId().equals(userId)) {
       throw new EntityOperationException(
           "You do not have permission to update columns on this board", HttpStatus.FORBIDDEN);
     }
 
-    // get the existing columns from db and create a map of those columns
-    List<Column> existingColumns =
-        columnRepository.findAllByBoardId(boardId).orElse(Collections.emptyList());
-    Map<String, Column> existingColumnsMap =
-        existingColumns.stream().collect(Collectors.toMap(Column::getId, Function.identity()));
-
-    // create or update columns based on the provided DTOs
-    List<Column> updatedColumns = columnDTOs.stream().map(dto -> {
-      Column column = existingColumnsMap.getOrDefault(dto.getId(), new Column());
-      column.setName(dto.getName());
-      column.setColor(dto.getColor());
-      column.setBoard(board);
-      return column;
-    }).toList();
-
-    // save updated columns
-    List<Column> savedColumns = columnRepository.saveAll(updatedColumns);
-
-    // get the IDs of the columns that should remain
-    Set<String> dtoIds = columnDTOs.stream().map(ColumnDTO::getId).collect(Collectors.toSet());
-
-    // determine columns to be deleted
-    List<Column> columnsToDelete =
-        existingColumns.stream().filter(existingColumn -> !dtoIds.contains(existingColumn.getId()))
-            .collect(Collectors.toList());
-
-    // delete columns that are not in the updated DTO list
-    columnRepository.deleteAll(columnsToDelete);
+    // diff the incoming columns against the stored ones
+    CollectionDiff<Column, ColumnDTO> diff = CollectionDiff.of(
+        columnRepository.findAllByBoardId(boardId).orElse(Collections.emptyList()),
+        Column::getId, columnDTOs, ColumnDTO::getId,
+        (column, dto) -> Objects.equals(column.getName(), dto.getName())
+            && Objects.equals(column.getColor(), dto.getColor()));
+
+    // changed columns are managed and get flushed by dirty checking, only new ones are saved
+    List<Column> columns = diff.apply(
+        dto -> Column.builder().name(dto.getName()).color(dto.getColor()).board(board).build(),
+        (column, dto) -> {
+          column.setName(dto.getName());
+          column.setColor(dto.getColor());
+        });
+
+    // columns follow the request order
+    Positions.assign(columns, Column::getPosition, Column::setPosition);
+
+    List<Column> insertedColumns = columns.stream().filter(column -> column.getId() == null)
+        .toList();
+
+    if (!insertedColumns.isEmpty()) {
+      columnRepository.saveAll(insertedColumns);
+    }
+
+    // delete removed columns with their tasks and subtasks in three set based statements instead
+    // of loading and cascading every child
+    List<String> removedColumnIds = diff.getRemovedIds(Column::getId);
+
+    if (!removedColumnIds.isEmpty()) {
+      subtaskRepository.deleteAllByColumnIds(removedColumnIds);
+      taskRepository.deleteAllByColumnIds(removedColumnIds);
+      columnRepository.deleteAllByIdInBatch(removedColumnIds);
+    }
+
     columnRepository.flush();
 
-    return savedColumns.stream().map(columnMapper::toDTO).collect(Collectors.toList());
+    return columns.stream().map(columnMapper::toDTO).collect(Collectors.toList());
+  }
+
+  // move one column of a board to index, normally a single row update
+  @Transactional
+  public void reorderColumn(String boardId, String columnId, int index) {
+    // get user id from security context via helper method
+    String userId = userHelper.getCurrentUserId();
+
+    // the sibling positions are only found when the board belongs to the user. like tasks and
+    // subtasks, a column of another user is forbidden and anything else is not found
+    Map<String, Long> positions = Positions.move(
+            columnRepository.findPositionRowsByBoardIdAndUserId(boardId, userId), columnId, index)
+        .orElseThrow(() -> {
+          boolean foreign = columnRepository.findColumnInfoById(columnId)
+              .map(columnInfo -> !columnInfo.getUserId().equals(userId))
+              .orElse(false);
+
+          if (!foreign) {
+            return new EntityOperationException("Column", "read", HttpStatus.NOT_FOUND);
+          }
+
+          return new EntityOperationException(
+              "You do not have permission to update columns on this board", HttpStatus.FORBIDDEN);
+        });
+
+    if (positions.isEmpty()) {
+      return;
+    }
+
+    positions.forEach((id, position) -> columnRepository.updatePosition(id, userId, position));
+
+    // bump the content version so polling clients refetch
+    contentVersionService.increment(userId);
   }
 }
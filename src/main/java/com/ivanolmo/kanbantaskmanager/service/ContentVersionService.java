@@ -0,0 +1,7 @@
+package com.ivanolmo.kanbantaskmanager.service;
+
+public interface ContentVersionService {
+  long getCurrentVersion();
+
+  void increment(String userId);
+}
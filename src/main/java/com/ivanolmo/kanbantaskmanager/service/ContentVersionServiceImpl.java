@@ -0,0 +1,30 @@
+package com.ivanolmo.kanbantaskmanager.service;
+
+import com.ivanolmo.kanbantaskmanager.repository.ContentVersionRepository;
+import com.ivanolmo.kanbantaskmanager.util.UserHelper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+// conditional board reads are answered from this counter with a single primary key lookup
+@Service
+@RequiredArgsConstructor
+public class ContentVersionServiceImpl implements ContentVersionService {
+  private final ContentVersionRepository contentVersionRepository;
+  private final UserHelper userHelper;
+
+  public long getCurrentVersion() {
+    // get user id from security context via helper method
+    String userId = userHelper.getCurrentUserId();
+
+    // users that never wrote anything have no row yet
+    return contentVersionRepository.findVersionByUserId(userId).orElse(0L);
+  }
+
+  // joins the callers transaction so the bump commits or rolls back with the write itself.
+  // callers bump last, the row stays locked until they commit
+  @Transactional
+  public void increment(String userId) {
+    contentVersionRepository.increment(userId);
+  }
+}
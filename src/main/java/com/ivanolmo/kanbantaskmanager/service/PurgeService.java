@@ -0,0 +1,5 @@
+package com.ivanolmo.kanbantaskmanager.service;
+
+public interface PurgeService {
+  long purge();
+}
@@ -0,0 +1,92 @@
+package com.ivanolmo.kanbantaskmanager.service;
+
+import com.ivanolmo.kanbantaskmanager.repository.BoardRepository;
+import com.ivanolmo.kanbantaskmanager.repository.PurgeLockRepository;
+import com.ivanolmo.kanbantaskmanager.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.IntUnaryOperator;
+
+// removes trashed tasks and boards with everything under them. deletes only mark rows, so the
+// actual removal happens here in small batches, each in its own short transaction, instead of
+// one long transaction holding locks on a whole board
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PurgeServiceImpl implements PurgeService {
+  private final BoardRepository boardRepository;
+  private final TaskRepository taskRepository;
+  private final PurgeLockRepository purgeLockRepository;
+  private final TransactionTemplate transactionTemplate;
+
+  @Value("${trash.retention:P7D}")
+  private Duration trashRetention;
+
+  @Value("${trash.batch-size:500}")
+  private int batchSize;
+
+  @Scheduled(cron = "${trash.purge-cron:0 * * * * *}")
+  public void scheduledPurge() {
+    try {
+      long purged = purge();
+
+      if (purged > 0) {
+        log.info("Purged {} deleted rows", purged);
+      }
+    } catch (Exception e) {
+      log.error("An error occurred while purging deleted rows: {}", e.getMessage());
+    }
+  }
+
+  // trashed boards first get their children stamped, then children go first so no batch ever
+  // violates a foreign key. the cutoffs are fixed for the whole run, rows deleted while it is
+  // running wait for the next one, and boards are only purged once they left the retention window
+  // so a restore never races a purge
+  public long purge() {
+    LocalDateTime now = LocalDateTime.now();
+    LocalDateTime boardCutoff = now.minus(trashRetention);
+
+    // one board per transaction, a large board is already a big enough batch
+    int stamped;
+
+    do {
+      stamped = runLocked(limit -> boardRepository.stampTrashedChildren(1));
+    } while (stamped == 1);
+
+    return drain(limit -> taskRepository.purgeSubtasks(now, limit))
+        + drain(limit -> taskRepository.purgeTasks(now, limit))
+        + drain(limit -> boardRepository.purgeSubtasks(boardCutoff, limit))
+        + drain(limit -> boardRepository.purgeTasks(boardCutoff, limit))
+        + drain(limit -> boardRepository.purgeColumns(boardCutoff, limit))
+        + drain(limit -> boardRepository.purgeBoards(boardCutoff, limit));
+  }
+
+  // runs batches until one comes back short
+  private long drain(IntUnaryOperator batch) {
+    long total = 0;
+    int deleted;
+
+    do {
+      deleted = runLocked(batch);
+      total += deleted;
+    } while (deleted == batchSize);
+
+    return total;
+  }
+
+  // each batch takes the purge lock in its own transaction, a batch that finds another instance
+  // purging does nothing and ends the phase
+  private int runLocked(IntUnaryOperator batch) {
+    Integer deleted = transactionTemplate.execute(
+        status -> purgeLockRepository.tryLock() ? batch.applyAsInt(batchSize) : 0);
+
+    return deleted == null ? 0 : deleted;
+  }
+}
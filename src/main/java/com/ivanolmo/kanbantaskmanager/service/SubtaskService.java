@@ -1,5 +1,6 @@
 package com.ivanolmo.kanbantaskmanager.service;
 
+import com.ivanolmo.kanbantaskmanager.dto.SubtaskCompletionDTO;
 import com.ivanolmo.kanbantaskmanager.dto.SubtaskDTO;
 
 import java.util.List;
@@ -8,4 +9,8 @@ public interface SubtaskService {
   List<SubtaskDTO> updateSubtasks(String taskId, List<SubtaskDTO> subtaskDTO);
 
   SubtaskDTO toggleSubtaskCompletion(String id);
+
+  List<SubtaskDTO> updateSubtaskCompletion(List<SubtaskCompletionDTO> completions);
+
+  void reorderSubtask(String id, int index);
 }
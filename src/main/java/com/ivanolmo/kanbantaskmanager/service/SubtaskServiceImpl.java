@@ -1,13 +1,16 @@
 package com.ivanolmo.kanbantaskmanager.service;
 
+import com.ivanolmo.kanbantaskmanager.dto.SubtaskCompletionDTO;
 import com.ivanolmo.kanbantaskmanager.dto.SubtaskDTO;
+import com.ivanolmo.kanbantaskmanager.dto.SubtaskRow;
 import com.ivanolmo.kanbantaskmanager.entity.Subtask;
 import com.ivanolmo.kanbantaskmanager.entity.Task;
-import com.ivanolmo.kanbantaskmanager.entity.User;
 import com.ivanolmo.kanbantaskmanager.exception.EntityOperationException;
 import com.ivanolmo.kanbantaskmanager.mapper.SubtaskMapper;
 import com.ivanolmo.kanbantaskmanager.repository.SubtaskRepository;
 import com.ivanolmo.kanbantaskmanager.repository.TaskRepository;
+import com.ivanolmo.kanbantaskmanager.util.CollectionDiff;
+import com.ivanolmo.kanbantaskmanager.util.Positions;
 import com.ivanolmo.kanbantaskmanager.util.UserHelper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,9 +18,12 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -30,81 +36,174 @@ public class SubtaskServiceImpl implements SubtaskService {
   private final TaskRepository taskRepository;
   private final SubtaskMapper subtaskMapper;
   private final UserHelper userHelper;
+  private final ContentVersionService contentVersionService;
 
   // update subtask
   @Transactional
   public List<SubtaskDTO> updateSubtasks(String taskId, List<SubtaskDTO> subtaskDTOs) {
-    // Get user from security context via helper method
-    User user = userHelper.getCurrentUser();
+    // get user id from security context via helper method
+    String userId = userHelper.getCurrentUserId();
 
     // get task by id
     Task task = taskRepository.findById(taskId).orElseThrow(
         () -> new EntityOperationException("Task", "read", HttpStatus.NOT_FOUND));
 
     // check if task belongs to user
-    if (!task.getColumn().getBoard().getUser().getId().equals(user.getId())) {
+    if (!task.getUserId().equals(userId)) {
       throw new EntityOperationException(
           "You do not have permission to update subtasks on this task", HttpStatus.FORBIDDEN);
     }
 
-    // get the existing subtasks from db and create a map of those subtasks
-    List<Subtask> existingSubtasks =
-        subtaskRepository.findAllByTaskId(taskId).orElse(Collections.emptyList());
-    Map<String, Subtask> existingSubtasksMap = existingSubtasks.stream()
-        .collect(Collectors.toMap(Subtask::getId, Function.identity()));
-
-    // create or update subtasks based on the provided DTOs
-    List<Subtask> updatedSubtasks = subtaskDTOs.stream()
-        .map(dto -> {
-          Subtask subtask = existingSubtasksMap.getOrDefault(dto.getId(), new Subtask());
+    // diff the incoming subtasks against the stored ones
+    CollectionDiff<Subtask, SubtaskDTO> diff = CollectionDiff.of(
+        subtaskRepository.findAllByTaskId(taskId).orElse(Collections.emptyList()),
+        Subtask::getId, subtaskDTOs, SubtaskDTO::getId,
+        (subtask, dto) -> Objects.equals(subtask.getTitle(), dto.getTitle())
+            && Objects.equals(subtask.getCompleted(), dto.getCompleted()));
+
+    // changed subtasks are managed and get flushed by dirty checking, only new ones are saved
+    List<Subtask> subtasks = diff.apply(
+        dto -> Subtask.builder().title(dto.getTitle()).completed(dto.getCompleted()).task(task)
+            .build(),
+        (subtask, dto) -> {
           subtask.setTitle(dto.getTitle());
           subtask.setCompleted(dto.getCompleted());
-          subtask.setTask(task);
-          return subtask;
-        }).collect(Collectors.toList());
+        });
 
-    // save updated subtasks
-    List<Subtask> savedSubtasks = subtaskRepository.saveAll(updatedSubtasks);
+    // subtasks follow the request order
+    Positions.assign(subtasks, Subtask::getPosition, Subtask::setPosition);
 
-    // get the IDs of the subtasks that should remain
-    Set<String> dtoIds = subtaskDTOs.stream()
-        .map(SubtaskDTO::getId)
-        .collect(Collectors.toSet());
+    List<Subtask> insertedSubtasks = subtasks.stream()
+        .filter(subtask -> subtask.getId() == null)
+        .toList();
 
-    // determine subtasks to be deleted
-    List<Subtask> subtasksToDelete = existingSubtasks.stream()
-        .filter(existingSubtask -> !dtoIds.contains(existingSubtask.getId()))
-        .collect(Collectors.toList());
+    if (!insertedSubtasks.isEmpty()) {
+      subtaskRepository.saveAll(insertedSubtasks);
+    }
 
-    // delete subtasks that are not in the updated DTO list
-    subtaskRepository.deleteAllInBatch(subtasksToDelete);
+    // delete subtasks that are not in the updated DTO list in a single statement
+    List<String> removedSubtaskIds = diff.getRemovedIds(Subtask::getId);
 
-    return savedSubtasks.stream().map(subtaskMapper::toDTO).collect(Collectors.toList());
+    if (!removedSubtaskIds.isEmpty()) {
+      subtaskRepository.deleteAllByIdInBatch(removedSubtaskIds);
+    }
+
+    return subtasks.stream().map(subtaskMapper::toDTO).collect(Collectors.toList());
   }
 
+  // toggle subtask completion with a single ownership checked update, the subtask graph is
+  // never loaded
   @Transactional
   public SubtaskDTO toggleSubtaskCompletion(String id) {
-    // Get user from security context via helper method
-    User user = userHelper.getCurrentUser();
+    // get user id from security context via helper method
+    String userId = userHelper.getCurrentUserId();
+
+    int updated;
+
+    try {
+      updated = subtaskRepository.toggleCompletion(id, userId, LocalDateTime.now());
+    } catch (Exception e) {
+      log.error("An error occurred while updating subtask id '{}': {}",
+          id, e.getMessage());
+      throw new EntityOperationException("Task", "update", e, HttpStatus.INTERNAL_SERVER_ERROR);
+    }
 
-    // get subtask by id
-    Subtask subtaskToToggle = subtaskRepository.findById(id).orElseThrow(
-        () -> new EntityOperationException("Subtask", "read", HttpStatus.NOT_FOUND));
+    // nothing was updated, the subtask is either missing or owned by someone else
+    if (updated == 0) {
+      if (!subtaskRepository.existsById(id)) {
+        throw new EntityOperationException("Subtask", "read", HttpStatus.NOT_FOUND);
+      }
 
-    if (!subtaskToToggle.getTask().getColumn().getBoard().getUser().getId().equals(user.getId())) {
       throw new EntityOperationException(
           "You do not have permission to update this subtask", HttpStatus.FORBIDDEN);
     }
 
-    subtaskToToggle.setCompleted(!subtaskToToggle.getCompleted());
+    // read the new state back by primary key
+    SubtaskDTO subtaskDTO = subtaskRepository.findSubtaskRowById(id)
+        .map(subtaskMapper::toDTO)
+        .orElseThrow(() -> new EntityOperationException("Subtask", "read", HttpStatus.NOT_FOUND));
+
+    // bump the content version so polling clients refetch
+    contentVersionService.increment(userId);
+
+    return subtaskDTO;
+  }
+
+  // set the completion state of several subtasks in one transaction and one update statement
+  @Transactional
+  public List<SubtaskDTO> updateSubtaskCompletion(List<SubtaskCompletionDTO> completions) {
+    // get user id from security context via helper method
+    String userId = userHelper.getCurrentUserId();
+
+    // last entry wins when the same subtask is sent more than once
+    Map<String, Boolean> completedById = new LinkedHashMap<>();
+    completions.forEach(completion ->
+        completedById.put(completion.getId(), completion.getCompleted()));
+
+    Set<String> ids = completedById.keySet();
+    List<String> completedIds = completedById.entrySet().stream()
+        .filter(Map.Entry::getValue)
+        .map(Map.Entry::getKey)
+        .toList();
+
+    int updated;
 
     try {
-      Subtask updatedSubtask = subtaskRepository.save(subtaskToToggle);
-      return subtaskMapper.toDTO(updatedSubtask);
+      updated = subtaskRepository.updateCompletion(ids, completedIds, userId, LocalDateTime.now());
     } catch (Exception e) {
-      log.error("An error occurred while updating subtask id '{}': {}",
-          id, e.getMessage());
-      throw new EntityOperationException("Task", "update", e, HttpStatus.INTERNAL_SERVER_ERROR);
+      log.error("An error occurred while updating the completion of subtasks {}: {}",
+          ids, e.getMessage());
+      throw new EntityOperationException("Subtask", "update", e, HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    // a missing or foreign subtask rolls back the whole batch
+    if (updated != ids.size()) {
+      if (subtaskRepository.countByIdIn(ids) != ids.size()) {
+        throw new EntityOperationException("Subtask", "read", HttpStatus.NOT_FOUND);
+      }
+
+      throw new EntityOperationException(
+          "You do not have permission to update these subtasks", HttpStatus.FORBIDDEN);
     }
+
+    // return the new states in request order
+    Map<String, SubtaskRow> rowsById = subtaskRepository.findSubtaskRowsByIds(ids).stream()
+        .collect(Collectors.toMap(SubtaskRow::getId, Function.identity()));
+    List<SubtaskDTO> subtaskDTOs = ids.stream().map(rowsById::get).map(subtaskMapper::toDTO)
+        .toList();
+
+    // bump the content version so polling clients refetch
+    contentVersionService.increment(userId);
+
+    return subtaskDTOs;
+  }
+
+  // move one subtask of a task to index, normally a single row update
+  @Transactional
+  public void reorderSubtask(String id, int index) {
+    // get user id from security context via helper method
+    String userId = userHelper.getCurrentUserId();
+
+    // the sibling positions are only found when the subtask belongs to the user
+    Map<String, Long> positions =
+        Positions.move(subtaskRepository.findSiblingPositionRows(id, userId), id, index)
+            .orElseThrow(() -> {
+              if (!subtaskRepository.existsById(id)) {
+                return new EntityOperationException("Subtask", "read", HttpStatus.NOT_FOUND);
+              }
+
+              return new EntityOperationException(
+                  "You do not have permission to update this subtask", HttpStatus.FORBIDDEN);
+            });
+
+    if (positions.isEmpty()) {
+      return;
+    }
+
+    positions.forEach((subtaskId, position) ->
+        subtaskRepository.updatePosition(subtaskId, userId, position));
+
+    // bump the content version so polling clients refetch
+    contentVersionService.increment(userId);
   }
 }
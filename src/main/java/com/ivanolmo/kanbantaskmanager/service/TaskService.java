@@ -7,5 +7,9 @@ public interface TaskService {
 
   TaskDTO updateTask(String id, TaskDTO taskDTO);
 
+  void moveTask(String id, String columnId);
+
+  void reorderTask(String id, int index);
+
   void deleteTask(String id);
 }
@@ -6,19 +6,24 @@ import com.ivanolmo.kanbantaskmanager.dto.TaskDTO;
 import com.ivanolmo.kanbantaskmanager.dto.TaskInfo;
 import com.ivanolmo.kanbantaskmanager.entity.Column;
 import com.ivanolmo.kanbantaskmanager.entity.Task;
-import com.ivanolmo.kanbantaskmanager.entity.User;
 import com.ivanolmo.kanbantaskmanager.exception.EntityOperationException;
 import com.ivanolmo.kanbantaskmanager.mapper.TaskMapper;
 import com.ivanolmo.kanbantaskmanager.repository.ColumnRepository;
 import com.ivanolmo.kanbantaskmanager.repository.TaskRepository;
+import com.ivanolmo.kanbantaskmanager.util.Positions;
+import com.ivanolmo.kanbantaskmanager.util.UniqueKeys;
 import com.ivanolmo.kanbantaskmanager.util.UserHelper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -29,127 +34,229 @@ public class TaskServiceImpl implements TaskService {
   private final SubtaskService subtaskService;
   private final TaskMapper taskMapper;
   private final UserHelper userHelper;
+  private final ContentVersionService contentVersionService;
 
   // create task
   @Transactional
   public TaskDTO addTaskToColumn(String columnId, TaskDTO taskDTO) {
-    // get user from security context via helper method
-    User user = userHelper.getCurrentUser();
+    // get user id from security context via helper method
+    String userId = userHelper.getCurrentUserId();
 
     // get column and user info
     ColumnInfo columnInfo = columnRepository.findColumnInfoById(columnId)
         .orElseThrow(() -> new EntityOperationException("Column", "read", HttpStatus.NOT_FOUND));
 
     // check that task -> column relation and user id matches
-    if (!columnInfo.getUserId().equals(user.getId())) {
+    if (!columnInfo.getUserId().equals(userId)) {
       throw new EntityOperationException(
           "You do not have permission to add a task to this column", HttpStatus.FORBIDDEN);
     }
 
     Column column = columnInfo.getColumn();
 
-    // check if new task title matches an existing title
-    taskRepository.findByTitleAndColumnId(taskDTO.getTitle(), columnId)
-        .ifPresent(existingTask -> {
-          throw new EntityOperationException("A task with that title already exists",
-              HttpStatus.CONFLICT);
-        });
-
     // convert the TaskDTO to a Task entity and set to column
     Task task = taskMapper.toEntity(taskDTO);
     task.setColumn(column);
 
-    // save and return dto, throw error if exception
+    // new tasks go to the end of the column
+    task.setPosition(Positions.after(taskRepository.findMaxPositionByColumnId(columnId)));
+
+    // save and return dto, flushing so a duplicate title fails here on the unique title key
     try {
-      task = taskRepository.save(task);
-      return taskMapper.toDTO(task);
+      task = taskRepository.saveAndFlush(task);
     } catch (Exception e) {
+      throwIfDuplicateTitle(e);
       log.error("An error occurred while adding task '{}' to column '{}': {}",
           taskDTO.getTitle(), column.getName(), e.getMessage());
       throw new EntityOperationException("Task", "create", e, HttpStatus.INTERNAL_SERVER_ERROR);
     }
+
+    // bump the content version so polling clients refetch
+    contentVersionService.increment(userId);
+
+    return taskMapper.toDTO(task);
   }
 
   // update task
   @Transactional
   public TaskDTO updateTask(String id, TaskDTO taskDTO) {
-    // Get user from security context via helper method
-    User user = userHelper.getCurrentUser();
+    // get user id from security context via helper method
+    String userId = userHelper.getCurrentUserId();
 
     // get task and user info
     TaskInfo taskInfo = taskRepository.findTaskInfoById(id)
         .orElseThrow(() -> new EntityOperationException("Task", "read", HttpStatus.NOT_FOUND));
 
     // check if task info and user id matches
-    if (!taskInfo.getUserId().equals(user.getId())) {
+    if (!taskInfo.getUserId().equals(userId)) {
       throw new EntityOperationException(
           "You do not have permission to update a task in this column", HttpStatus.FORBIDDEN);
     }
 
     Task task = taskInfo.getTask();
+
+    // reject stale writes up front, the expected version comes from If-Match or the request body
+    if (taskDTO.getVersion() != null && !taskDTO.getVersion().equals(task.getVersion())) {
+      throw new EntityOperationException("The task was modified by another request",
+          HttpStatus.PRECONDITION_FAILED);
+    }
+
     Column column = task.getColumn();
 
-    // handle column change
+    // handle column change, the new column must belong to the same user
     if (!taskDTO.getColumnId().equals(column.getId())) {
-      Column newColumn = columnRepository.findById(taskDTO.getColumnId())
+      ColumnInfo columnInfo = columnRepository.findColumnInfoById(taskDTO.getColumnId())
           .orElseThrow(() -> new EntityOperationException("Column", "read", HttpStatus.NOT_FOUND));
-      task.setColumn(newColumn);
-    }
 
-    // update task title after checking for duplicates in the same column
-    if (!taskDTO.getTitle().equals(task.getTitle())) {
-      taskRepository.findByTitleAndColumnId(taskDTO.getTitle(), task.getColumn().getId())
-          .ifPresent(existingTask -> {
-            throw new EntityOperationException("A task with that title already exists", HttpStatus.CONFLICT);
-          });
-      task.setTitle(taskDTO.getTitle());
+      if (!columnInfo.getUserId().equals(userId)) {
+        throw new EntityOperationException(
+            "You do not have permission to move a task to this column", HttpStatus.FORBIDDEN);
+      }
+
+      task.setColumn(columnInfo.getColumn());
+      task.setPosition(Positions.after(
+          taskRepository.findMaxPositionByColumnId(taskDTO.getColumnId())));
     }
 
-    // update description
+    // update title and description, touching updatedAt so subtask only edits still bump the version
+    task.setTitle(taskDTO.getTitle());
     task.setDescription(taskDTO.getDescription());
+    task.setUpdatedAt(LocalDateTime.now());
 
-    // update subtasks and get the updated subtask DTOs
-    List<SubtaskDTO> updatedSubtaskDTOs = subtaskService.updateSubtasks(id, taskDTO.getSubtasks());
+    // flush the versioned update before the subtask writes so concurrent editors of the same
+    // task are serialized on the task row
+    Task updatedTask;
 
-    // perform update and return dto
     try {
-      // save the task after subtask updates
-      Task updatedTask = taskRepository.save(task);
-
-      // create and return the updated TaskDTO
-      TaskDTO updatedTaskDTO = taskMapper.toDTO(updatedTask);
-      updatedTaskDTO.setSubtasks(updatedSubtaskDTOs);
-      return updatedTaskDTO;
+      updatedTask = taskRepository.saveAndFlush(task);
+    } catch (OptimisticLockingFailureException e) {
+      throw new EntityOperationException("The task was modified by another request",
+          HttpStatus.PRECONDITION_FAILED);
     } catch (Exception e) {
+      throwIfDuplicateTitle(e);
       log.error("An error occurred while updating task '{}': {}",
           taskDTO.getTitle(), e.getMessage());
       throw new EntityOperationException("Task", "update", e, HttpStatus.INTERNAL_SERVER_ERROR);
     }
+
+    // update subtasks and get the updated subtask DTOs
+    List<SubtaskDTO> updatedSubtaskDTOs = subtaskService.updateSubtasks(id, taskDTO.getSubtasks());
+
+    // bump the content version so polling clients refetch
+    contentVersionService.increment(userId);
+
+    // create and return the updated TaskDTO
+    TaskDTO updatedTaskDTO = taskMapper.toDTO(updatedTask);
+    updatedTaskDTO.setSubtasks(updatedSubtaskDTOs);
+    return updatedTaskDTO;
+  }
+
+  // move task to another column, a single ownership checked update that never loads the task
+  @Transactional
+  public void moveTask(String id, String columnId) {
+    // get user id from security context via helper method
+    String userId = userHelper.getCurrentUserId();
+
+    int moved;
+
+    // the target column may already hold a task with the same title
+    try {
+      moved = taskRepository.moveTask(id, columnId, userId, Positions.GAP, LocalDateTime.now());
+    } catch (DataIntegrityViolationException e) {
+      throwIfDuplicateTitle(e);
+      throw e;
+    }
+
+    if (moved == 1) {
+      // bump the content version so polling clients refetch
+      contentVersionService.increment(userId);
+      return;
+    }
+
+    // nothing was updated, find out why
+    TaskInfo taskInfo = taskRepository.findTaskInfoById(id)
+        .orElseThrow(() -> new EntityOperationException("Task", "read", HttpStatus.NOT_FOUND));
+
+    if (!taskInfo.getUserId().equals(userId)) {
+      throw new EntityOperationException(
+          "You do not have permission to move this task", HttpStatus.FORBIDDEN);
+    }
+
+    ColumnInfo columnInfo = columnRepository.findColumnInfoById(columnId)
+        .orElseThrow(() -> new EntityOperationException("Column", "read", HttpStatus.NOT_FOUND));
+
+    if (!columnInfo.getUserId().equals(userId)) {
+      throw new EntityOperationException(
+          "You do not have permission to move a task to this column", HttpStatus.FORBIDDEN);
+    }
+
+    throw new EntityOperationException("Task", "update", HttpStatus.INTERNAL_SERVER_ERROR);
+  }
+
+  // move a task to index within its column, normally a single row update
+  @Transactional
+  public void reorderTask(String id, int index) {
+    // get user id from security context via helper method
+    String userId = userHelper.getCurrentUserId();
+
+    // the sibling positions are only found when the task belongs to the user
+    Map<String, Long> positions =
+        Positions.move(taskRepository.findSiblingPositionRows(id, userId), id, index)
+            .orElseThrow(() -> {
+              if (!taskRepository.existsById(id)) {
+                return new EntityOperationException("Task", "read", HttpStatus.NOT_FOUND);
+              }
+
+              return new EntityOperationException(
+                  "You do not have permission to move this task", HttpStatus.FORBIDDEN);
+            });
+
+    if (positions.isEmpty()) {
+      return;
+    }
+
+    positions.forEach((taskId, position) ->
+        taskRepository.updatePosition(taskId, userId, position));
+
+    // bump the content version so polling clients refetch
+    contentVersionService.increment(userId);
   }
 
   // delete task
   @Transactional
   public void deleteTask(String id) {
-    // get user from security context via helper method
-    User user = userHelper.getCurrentUser();
+    // get user id from security context via helper method
+    String userId = userHelper.getCurrentUserId();
 
     // get task and user info
     TaskInfo taskInfo = taskRepository.findTaskInfoById(id)
         .orElseThrow(() -> new EntityOperationException("Task", "read", HttpStatus.NOT_FOUND));
 
     // check if task info and user id matches
-    if (!taskInfo.getUserId().equals(user.getId())) {
+    if (!taskInfo.getUserId().equals(userId)) {
       throw new EntityOperationException(
           "You do not have permission to delete a task from this column", HttpStatus.FORBIDDEN);
     }
 
-    // delete task or throw error if task not found
+    // move the task to the trash, the purger removes it with its subtasks in the background
     try {
-      taskRepository.deleteById(id);
+      taskRepository.softDelete(id, userId, LocalDateTime.now());
     } catch (Exception e) {
       log.error("An error occurred while deleting task id '{}': {}",
           id, e.getMessage());
       throw new EntityOperationException("Task", "delete", e, HttpStatus.INTERNAL_SERVER_ERROR);
     }
+
+    // bump the content version so polling clients refetch
+    contentVersionService.increment(userId);
+  }
+
+  // task titles are unique per column ignoring case, enforced by the title key constraint
+  private static void throwIfDuplicateTitle(Exception e) {
+    if (e instanceof DataIntegrityViolationException violation
+        && UniqueKeys.isViolated(violation, Task.TITLE_KEY_CONSTRAINT)) {
+      throw new EntityOperationException("A task with that title already exists",
+          HttpStatus.CONFLICT);
+    }
   }
 }
@@ -14,6 +14,10 @@ public class UserDetailsImpl implements UserDetails {
     this.user = user;
   }
 
+  public String getId() {
+    return user.getId();
+  }
+
   @Override
   public Collection<? extends GrantedAuthority> getAuthorities() {
     return Collections.emptyList();
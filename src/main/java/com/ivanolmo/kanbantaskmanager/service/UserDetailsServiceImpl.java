@@ -2,14 +2,17 @@ package com.ivanolmo.kanbantaskmanager.service;
 
 import com.ivanolmo.kanbantaskmanager.entity.User;
 import com.ivanolmo.kanbantaskmanager.repository.UserRepository;
+import com.ivanolmo.kanbantaskmanager.util.UniqueKeys;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
   private final UserRepository userRepository;
 
   @Autowired
@@ -19,9 +22,24 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
   @Override
   public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-    User user = userRepository.findByEmail(username)
+    User user = userRepository.findByEmailKey(UniqueKeys.of(username))
         .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
     return new UserDetailsImpl(user);
   }
+
+  // called by the authentication provider with the freshly encoded password after login
+  @Override
+  @Transactional
+  public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+    UserDetailsImpl user = (UserDetailsImpl) userDetails;
+    userRepository.updatePassword(user.getId(), newPassword);
+
+    return new UserDetailsImpl(User
+        .builder()
+        .id(user.getId())
+        .email(user.getUsername())
+        .password(newPassword)
+        .build());
+  }
 }
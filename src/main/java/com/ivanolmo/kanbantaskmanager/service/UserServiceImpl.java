@@ -3,6 +3,7 @@ package com.ivanolmo.kanbantaskmanager.service;
 import com.ivanolmo.kanbantaskmanager.entity.User;
 import com.ivanolmo.kanbantaskmanager.exception.EntityOperationException;
 import com.ivanolmo.kanbantaskmanager.repository.UserRepository;
+import com.ivanolmo.kanbantaskmanager.util.UniqueKeys;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
@@ -24,7 +25,7 @@ public class UserServiceImpl implements UserService {
   }
 
   public User getUserByEmail(String email) {
-    return userRepository.findByEmail(email)
+    return userRepository.findByEmailKey(UniqueKeys.of(email))
         .orElseThrow(() -> new EntityOperationException("User", "read", HttpStatus.NOT_FOUND));
   }
 }
@@ -0,0 +1,97 @@
+package com.ivanolmo.kanbantaskmanager.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// compares the stored children of a parent with the incoming dtos by id. incoming dtos without a
+// matching stored child are inserts, stored children no dto refers to are removals, and matches
+// are only treated as changes when the given predicate says their fields differ
+public class CollectionDiff<E, D> {
+  public record Entry<E, D>(E existing, D incoming) {
+    public boolean isInsert() {
+      return existing == null;
+    }
+  }
+
+  private final List<Entry<E, D>> entries;
+  private final List<E> removed;
+  private final BiPredicate<E, D> unchanged;
+
+  private CollectionDiff(List<Entry<E, D>> entries, List<E> removed,
+                         BiPredicate<E, D> unchanged) {
+    this.entries = entries;
+    this.removed = removed;
+    this.unchanged = unchanged;
+  }
+
+  public static <E, D> CollectionDiff<E, D> of(Collection<E> existing, Function<E, String> entityId,
+                                               Collection<D> incoming, Function<D, String> dtoId,
+                                               BiPredicate<E, D> unchanged) {
+    Map<String, E> existingById = existing.stream()
+        .collect(Collectors.toMap(entityId, Function.identity()));
+    Set<String> matchedIds = new HashSet<>();
+
+    List<Entry<E, D>> entries = incoming.stream().map(dto -> {
+      String id = dtoId.apply(dto);
+      E match = id == null ? null : existingById.get(id);
+
+      if (match != null) {
+        matchedIds.add(id);
+      }
+
+      return new Entry<>(match, dto);
+    }).toList();
+
+    List<E> removed = existing.stream()
+        .filter(entity -> !matchedIds.contains(entityId.apply(entity)))
+        .toList();
+
+    return new CollectionDiff<>(entries, removed, unchanged);
+  }
+
+  public List<D> getInserted() {
+    return entries.stream().filter(Entry::isInsert).map(Entry::incoming).toList();
+  }
+
+  public List<Entry<E, D>> getChanged() {
+    return entries.stream()
+        .filter(entry -> !entry.isInsert() && !unchanged.test(entry.existing(), entry.incoming()))
+        .toList();
+  }
+
+  public List<E> getRemoved() {
+    return removed;
+  }
+
+  public <K> List<K> getRemovedIds(Function<E, K> entityId) {
+    return removed.stream().map(entityId).toList();
+  }
+
+  // resolves every incoming dto to an entity in incoming order: inserts are created, changes are
+  // applied to the stored child and untouched children are returned as they are
+  public List<E> apply(Function<D, E> create, BiConsumer<E, D> update) {
+    List<E> result = new ArrayList<>(entries.size());
+
+    for (Entry<E, D> entry : entries) {
+      if (entry.isInsert()) {
+        result.add(create.apply(entry.incoming()));
+      } else {
+        if (!unchanged.test(entry.existing(), entry.incoming())) {
+          update.accept(entry.existing(), entry.incoming());
+        }
+
+        result.add(entry.existing());
+      }
+    }
+
+    return result;
+  }
+}
@@ -0,0 +1,36 @@
+package com.ivanolmo.kanbantaskmanager.util;
+
+import com.ivanolmo.kanbantaskmanager.exception.EntityOperationException;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// opaque (updatedAt, id) position used for keyset pagination, encoded as url-safe base64
+public record KeysetCursor(LocalDateTime updatedAt, String id) {
+  private static final String SEPARATOR = "|";
+
+  public String encode() {
+    String raw = updatedAt + SEPARATOR + id;
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static KeysetCursor decode(String cursor) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int separator = raw.indexOf(SEPARATOR);
+
+      if (separator < 1 || separator == raw.length() - 1) {
+        throw new IllegalArgumentException("Malformed cursor");
+      }
+
+      return new KeysetCursor(LocalDateTime.parse(raw.substring(0, separator)),
+          raw.substring(separator + 1));
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new EntityOperationException("Invalid pagination cursor", HttpStatus.BAD_REQUEST);
+    }
+  }
+}
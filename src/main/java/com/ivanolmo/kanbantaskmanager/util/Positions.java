@@ -0,0 +1,154 @@
+package com.ivanolmo.kanbantaskmanager.util;
+
+import com.ivanolmo.kanbantaskmanager.dto.PositionRow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+// columns, tasks and subtasks are ordered by a stored position. positions are spaced GAP apart,
+// so moving one item only rewrites its own row with a position between its new neighbours. once
+// two neighbours are adjacent the siblings are renumbered, which is rare enough to stay cheap
+public final class Positions {
+  public static final long GAP = 1L << 16;
+
+  private Positions() {
+  }
+
+  // position of the item at the given index of a freshly numbered list
+  public static long at(int index) {
+    return (index + 1L) * GAP;
+  }
+
+  // position of an item appended after the given last position, null when there are no siblings
+  public static long after(Long last) {
+    return last == null ? GAP : last + GAP;
+  }
+
+  // a position strictly between the two, either bound may be null for the start or the end
+  public static OptionalLong between(Long before, Long after) {
+    long lower = before == null ? 0 : before;
+
+    if (after == null) {
+      return OptionalLong.of(lower + GAP);
+    }
+
+    if (after - lower < 2) {
+      return OptionalLong.empty();
+    }
+
+    return OptionalLong.of(lower + (after - lower) / 2);
+  }
+
+  // new positions after moving the item to index among the ordered siblings, usually a single
+  // entry and empty when the item is already there. empty optional if the item is not a sibling
+  public static Optional<Map<String, Long>> move(List<PositionRow> siblings, String id,
+                                                 int index) {
+    int from = -1;
+
+    for (int i = 0; i < siblings.size(); i++) {
+      if (siblings.get(i).getId().equals(id)) {
+        from = i;
+        break;
+      }
+    }
+
+    if (from < 0) {
+      return Optional.empty();
+    }
+
+    List<PositionRow> others = new ArrayList<>(siblings);
+    PositionRow moved = others.remove(from);
+    int to = Math.max(0, Math.min(index, others.size()));
+
+    if (to == from) {
+      return Optional.of(Collections.emptyMap());
+    }
+
+    Long before = to == 0 ? null : others.get(to - 1).getPosition();
+    Long after = to == others.size() ? null : others.get(to).getPosition();
+    OptionalLong position = between(before, after);
+
+    if (position.isPresent()) {
+      return Optional.of(Map.of(id, position.getAsLong()));
+    }
+
+    // no room left between the neighbours, renumber and only return the rows that change
+    others.add(to, moved);
+    Map<String, Long> positions = new LinkedHashMap<>();
+
+    for (int i = 0; i < others.size(); i++) {
+      if (!Objects.equals(others.get(i).getPosition(), at(i))) {
+        positions.put(others.get(i).getId(), at(i));
+      }
+    }
+
+    return Optional.of(positions);
+  }
+
+  // places every item in list order for endpoints that receive the whole list. stored positions
+  // that already follow the order are kept and unplaced items are slotted between them, so
+  // resending an unchanged list writes nothing. anything else renumbers the list
+  public static <E> void assign(List<E> items, Function<E, Long> position,
+                                BiConsumer<E, Long> setPosition) {
+    long[] planned = slot(items.stream().map(position).toList());
+
+    for (int i = 0; i < items.size(); i++) {
+      long next = planned == null ? at(i) : planned[i];
+
+      if (!Objects.equals(position.apply(items.get(i)), next)) {
+        setPosition.accept(items.get(i), next);
+      }
+    }
+  }
+
+  // null if the stored positions are out of order or leave no room for the unplaced items
+  private static long[] slot(List<Long> stored) {
+    long[] planned = new long[stored.size()];
+    long lower = 0;
+    int i = 0;
+
+    while (i < stored.size()) {
+      Long current = stored.get(i);
+
+      if (current != null) {
+        if (current <= lower) {
+          return null;
+        }
+
+        planned[i++] = current;
+        lower = current;
+        continue;
+      }
+
+      // a run of unplaced items, spread evenly up to the next stored position
+      int end = i;
+      while (end < stored.size() && stored.get(end) == null) {
+        end++;
+      }
+
+      Long upper = end < stored.size() ? stored.get(end) : null;
+      long step = upper == null ? GAP : (upper - lower) / (end - i + 1);
+
+      if (step < 1) {
+        return null;
+      }
+
+      for (int j = i; j < end; j++) {
+        planned[j] = lower + step * (j - i + 1);
+      }
+
+      lower = planned[end - 1];
+      i = end;
+    }
+
+    return planned;
+  }
+}
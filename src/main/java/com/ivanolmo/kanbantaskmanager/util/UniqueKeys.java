@@ -0,0 +1,38 @@
+package com.ivanolmo.kanbantaskmanager.util;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+// names, titles and emails are unique ignoring case. each entity stores a lower-cased key column
+// under a unique constraint, so writes need no pre-check query and a duplicate surfaces as a
+// constraint violation that callers translate with isViolated
+public final class UniqueKeys {
+  private UniqueKeys() {
+  }
+
+  public static String of(String value) {
+    return value == null ? null : value.toLowerCase(Locale.ROOT);
+  }
+
+  // true if the write failed on the named constraint. databases report the name differently
+  // (h2 upper-cases it and appends the index), so it is matched case-insensitively
+  public static boolean isViolated(DataIntegrityViolationException e, String constraintName) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      String reported = cause instanceof ConstraintViolationException violation
+          && violation.getConstraintName() != null
+          ? violation.getConstraintName() : cause.getMessage();
+
+      if (reported != null && of(reported).contains(constraintName)) {
+        return true;
+      }
+
+      if (cause.getCause() == cause) {
+        break;
+      }
+    }
+
+    return false;
+  }
+}
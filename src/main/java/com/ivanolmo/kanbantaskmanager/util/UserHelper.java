@@ -3,8 +3,10 @@ package com.ivanolmo.kanbantaskmanager.util;
 import com.ivanolmo.kanbantaskmanager.entity.User;
 import com.ivanolmo.kanbantaskmanager.exception.EntityOperationException;
 import com.ivanolmo.kanbantaskmanager.repository.UserRepository;
+import com.ivanolmo.kanbantaskmanager.service.UserDetailsImpl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
@@ -13,9 +15,21 @@ import org.springframework.stereotype.Service;
 public class UserHelper {
   private final UserRepository userRepository;
 
+  // the authenticated principal already carries the user id, no query needed
+  public String getCurrentUserId() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+    if (authentication != null
+        && authentication.getPrincipal() instanceof UserDetailsImpl userDetails
+        && userDetails.getId() != null) {
+      return userDetails.getId();
+    }
+
+    throw new EntityOperationException("User", "read", HttpStatus.NOT_FOUND);
+  }
+
+  // lazy reference to the current user for setting associations, does not hit the users table
   public User getCurrentUser() {
-    String username = SecurityContextHolder.getContext().getAuthentication().getName();
-    return userRepository.findByEmail(username)
-        .orElseThrow(() -> new EntityOperationException("User", "read", HttpStatus.NOT_FOUND));
+    return userRepository.getReferenceById(getCurrentUserId());
   }
 }
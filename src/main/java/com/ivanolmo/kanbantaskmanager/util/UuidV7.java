@@ -0,0 +1,25 @@
+package com.ivanolmo.kanbantaskmanager.util;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+// time-ordered version 7 uuids: 48 bits of unix epoch millis followed by random bits. ids created
+// close together share a prefix, so new rows append to the right edge of the primary key and
+// foreign key indexes instead of landing on random pages
+public final class UuidV7 {
+  private static final SecureRandom RANDOM = new SecureRandom();
+
+  private UuidV7() {
+  }
+
+  public static UUID generate() {
+    return generate(System.currentTimeMillis());
+  }
+
+  static UUID generate(long epochMillis) {
+    long mostSignificantBits = (epochMillis << 16) | 0x7000L | (RANDOM.nextInt() & 0x0FFFL);
+    long leastSignificantBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+
+    return new UUID(mostSignificantBits, leastSignificantBits);
+  }
+}
@@ -0,0 +1,83 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// converts every id and id reference from varchar(255) to native uuid. written in java because
+// databases created before the migrations carry generated foreign key names that have to be
+// looked up, and because postgres needs an explicit cast where h2 converts implicitly. existing
+// random ids stay valid uuids, new rows get time-ordered ones
+public class V5__UuidKeys extends BaseJavaMigration {
+  private static final String[][] FOREIGN_KEYS = {
+      {"boards", "user_id", "users"},
+      {"columns", "board_id", "boards"},
+      {"tasks", "column_id", "columns"},
+      {"subtasks", "task_id", "tasks"}
+  };
+
+  private static final String[][] UUID_COLUMNS = {
+      {"users", "id"},
+      {"boards", "id"}, {"boards", "user_id"},
+      {"columns", "id"}, {"columns", "board_id"}, {"columns", "user_id"},
+      {"tasks", "id"}, {"tasks", "column_id"}, {"tasks", "user_id"},
+      {"subtasks", "id"}, {"subtasks", "task_id"}, {"subtasks", "user_id"},
+      {"content_versions", "user_id"}
+  };
+
+  @Override
+  public void migrate(Context context) throws SQLException {
+    Connection connection = context.getConnection();
+    boolean postgres = connection.getMetaData().getDatabaseProductName()
+        .toLowerCase(Locale.ROOT).contains("postgres");
+
+    try (Statement statement = connection.createStatement()) {
+      // referencing and referenced columns must change type together, so drop the keys first
+      for (String[] foreignKey : FOREIGN_KEYS) {
+        for (String name : foreignKeyNames(connection, foreignKey[0])) {
+          statement.execute("ALTER TABLE " + foreignKey[0] + " DROP CONSTRAINT " + name);
+        }
+      }
+
+      for (String[] column : UUID_COLUMNS) {
+        statement.execute("ALTER TABLE " + column[0] + " ALTER COLUMN " + column[1]
+            + " SET DATA TYPE uuid" + (postgres ? " USING " + column[1] + "::uuid" : ""));
+      }
+
+      for (String[] foreignKey : FOREIGN_KEYS) {
+        statement.execute("ALTER TABLE " + foreignKey[0] + " ADD CONSTRAINT fk_" + foreignKey[0]
+            + "_" + foreignKey[1] + " FOREIGN KEY (" + foreignKey[1] + ") REFERENCES "
+            + foreignKey[2] + " (id)");
+      }
+    }
+  }
+
+  private static List<String> foreignKeyNames(Connection connection, String table)
+      throws SQLException {
+    DatabaseMetaData metaData = connection.getMetaData();
+    String storedTable = metaData.storesUpperCaseIdentifiers()
+        ? table.toUpperCase(Locale.ROOT) : table;
+    List<String> names = new ArrayList<>();
+
+    try (ResultSet keys = metaData.getImportedKeys(connection.getCatalog(), connection.getSchema(),
+        storedTable)) {
+      while (keys.next()) {
+        String name = keys.getString("FK_NAME");
+
+        if (!names.contains(name)) {
+          names.add(name);
+        }
+      }
+    }
+
+    return names;
+  }
+}
@@ -0,0 +1,54 @@
+-- schema as first deployed, existing databases are baselined at this version
+
+CREATE TABLE users (
+    id         varchar(255) NOT NULL,
+    email      varchar(255) NOT NULL,
+    password   varchar(255) NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6),
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE boards (
+    id         varchar(255) NOT NULL,
+    name       varchar(255) NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6),
+    user_id    varchar(255) NOT NULL,
+    CONSTRAINT pk_boards PRIMARY KEY (id),
+    CONSTRAINT fk_boards_user_id FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE columns (
+    id         varchar(255) NOT NULL,
+    name       varchar(255) NOT NULL,
+    color      varchar(255) NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6),
+    board_id   varchar(255) NOT NULL,
+    CONSTRAINT pk_columns PRIMARY KEY (id),
+    CONSTRAINT fk_columns_board_id FOREIGN KEY (board_id) REFERENCES boards (id)
+);
+
+CREATE TABLE tasks (
+    id          varchar(255) NOT NULL,
+    title       varchar(255) NOT NULL,
+    description varchar(255) NOT NULL,
+    created_at  timestamp(6) NOT NULL,
+    updated_at  timestamp(6),
+    column_id   varchar(255) NOT NULL,
+    CONSTRAINT pk_tasks PRIMARY KEY (id),
+    CONSTRAINT fk_tasks_column_id FOREIGN KEY (column_id) REFERENCES columns (id)
+);
+
+CREATE TABLE subtasks (
+    id         varchar(255) NOT NULL,
+    title      varchar(255) NOT NULL,
+    completed  boolean      NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6),
+    task_id    varchar(255) NOT NULL,
+    CONSTRAINT pk_subtasks PRIMARY KEY (id),
+    CONSTRAINT fk_subtasks_task_id FOREIGN KEY (task_id) REFERENCES tasks (id)
+);
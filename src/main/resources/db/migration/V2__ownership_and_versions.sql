@@ -0,0 +1,30 @@
+-- owner ids copied down from boards so ownership checks never join up the tree, optimistic lock
+-- versions on boards and tasks, and the per-user content version behind conditional board reads
+
+ALTER TABLE boards ADD COLUMN version bigint DEFAULT 0 NOT NULL;
+ALTER TABLE tasks ADD COLUMN version bigint DEFAULT 0 NOT NULL;
+
+ALTER TABLE columns ADD COLUMN user_id varchar(255);
+UPDATE columns c SET user_id = (SELECT b.user_id FROM boards b WHERE b.id = c.board_id);
+ALTER TABLE columns ALTER COLUMN user_id SET NOT NULL;
+
+ALTER TABLE tasks ADD COLUMN user_id varchar(255);
+UPDATE tasks t SET user_id = (SELECT c.user_id FROM columns c WHERE c.id = t.column_id);
+ALTER TABLE tasks ALTER COLUMN user_id SET NOT NULL;
+
+ALTER TABLE subtasks ADD COLUMN user_id varchar(255);
+UPDATE subtasks s SET user_id = (SELECT t.user_id FROM tasks t WHERE t.id = s.task_id);
+ALTER TABLE subtasks ALTER COLUMN user_id SET NOT NULL;
+
+CREATE INDEX idx_boards_user_id_updated_at_id ON boards (user_id, updated_at DESC, id DESC);
+CREATE INDEX idx_columns_user_id ON columns (user_id);
+CREATE INDEX idx_tasks_user_id ON tasks (user_id);
+CREATE INDEX idx_subtasks_user_id ON subtasks (user_id);
+
+CREATE TABLE content_versions (
+    user_id varchar(255) NOT NULL,
+    version bigint       NOT NULL,
+    CONSTRAINT pk_content_versions PRIMARY KEY (user_id)
+);
+
+INSERT INTO content_versions (user_id, version) SELECT id, 0 FROM users;
@@ -0,0 +1,16 @@
+-- lower-cased keys behind the case-insensitive uniqueness of board names, task titles and emails
+
+ALTER TABLE boards ADD COLUMN name_key varchar(255);
+UPDATE boards SET name_key = LOWER(name);
+ALTER TABLE boards ALTER COLUMN name_key SET NOT NULL;
+ALTER TABLE boards ADD CONSTRAINT uk_boards_user_id_name_key UNIQUE (user_id, name_key);
+
+ALTER TABLE tasks ADD COLUMN title_key varchar(255);
+UPDATE tasks SET title_key = LOWER(title);
+ALTER TABLE tasks ALTER COLUMN title_key SET NOT NULL;
+ALTER TABLE tasks ADD CONSTRAINT uk_tasks_column_id_title_key UNIQUE (column_id, title_key);
+
+ALTER TABLE users ADD COLUMN email_key varchar(255);
+UPDATE users SET email_key = LOWER(email);
+ALTER TABLE users ALTER COLUMN email_key SET NOT NULL;
+ALTER TABLE users ADD CONSTRAINT uk_users_email_key UNIQUE (email_key);
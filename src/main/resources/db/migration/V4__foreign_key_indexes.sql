@@ -0,0 +1,7 @@
+-- every child table is read by its parent id in creation order and deleted by its parent id, so
+-- each foreign key leads an index that also serves the ordering. boards.user_id is already the
+-- leading column of idx_boards_user_id_updated_at_id and uk_boards_user_id_name_key
+
+CREATE INDEX idx_columns_board_id_created_at_id ON columns (board_id, created_at, id);
+CREATE INDEX idx_tasks_column_id_created_at_id ON tasks (column_id, created_at, id);
+CREATE INDEX idx_subtasks_task_id_created_at_id ON subtasks (task_id, created_at, id);
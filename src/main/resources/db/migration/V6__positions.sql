@@ -0,0 +1,26 @@
+-- gap based sort keys for columns, tasks and subtasks. existing rows keep their creation order,
+-- numbered through the creation order indexes before those are replaced by position ones
+
+ALTER TABLE columns ADD COLUMN position bigint;
+UPDATE columns c SET position = 65536 * (SELECT COUNT(*) FROM columns o
+    WHERE o.board_id = c.board_id
+      AND (o.created_at < c.created_at OR (o.created_at = c.created_at AND o.id <= c.id)));
+ALTER TABLE columns ALTER COLUMN position SET NOT NULL;
+DROP INDEX idx_columns_board_id_created_at_id;
+CREATE INDEX idx_columns_board_id_position_id ON columns (board_id, position, id);
+
+ALTER TABLE tasks ADD COLUMN position bigint;
+UPDATE tasks t SET position = 65536 * (SELECT COUNT(*) FROM tasks o
+    WHERE o.column_id = t.column_id
+      AND (o.created_at < t.created_at OR (o.created_at = t.created_at AND o.id <= t.id)));
+ALTER TABLE tasks ALTER COLUMN position SET NOT NULL;
+DROP INDEX idx_tasks_column_id_created_at_id;
+CREATE INDEX idx_tasks_column_id_position_id ON tasks (column_id, position, id);
+
+ALTER TABLE subtasks ADD COLUMN position bigint;
+UPDATE subtasks s SET position = 65536 * (SELECT COUNT(*) FROM subtasks o
+    WHERE o.task_id = s.task_id
+      AND (o.created_at < s.created_at OR (o.created_at = s.created_at AND o.id <= s.id)));
+ALTER TABLE subtasks ALTER COLUMN position SET NOT NULL;
+DROP INDEX idx_subtasks_task_id_created_at_id;
+CREATE INDEX idx_subtasks_task_id_position_id ON subtasks (task_id, position, id);
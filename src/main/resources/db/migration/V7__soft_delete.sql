@@ -0,0 +1,10 @@
+-- deleted boards and tasks stay in place until the purger removes them in batches. their unique
+-- keys are cleared on delete so the name or title can be reused, and restored from the name
+
+ALTER TABLE boards ADD COLUMN deleted_at timestamp(6);
+ALTER TABLE boards ALTER COLUMN name_key DROP NOT NULL;
+CREATE INDEX idx_boards_deleted_at ON boards (deleted_at);
+
+ALTER TABLE tasks ADD COLUMN deleted_at timestamp(6);
+ALTER TABLE tasks ALTER COLUMN title_key DROP NOT NULL;
+CREATE INDEX idx_tasks_deleted_at ON tasks (deleted_at);
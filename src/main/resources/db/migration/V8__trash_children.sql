@@ -0,0 +1,15 @@
+-- columns, tasks and subtasks are stamped with the deleted_at of the board or task they were
+-- trashed with, so ownership checks stay single table lookups instead of joining up to boards
+
+ALTER TABLE columns ADD COLUMN deleted_at timestamp(6);
+ALTER TABLE subtasks ADD COLUMN deleted_at timestamp(6);
+
+UPDATE columns SET deleted_at = (SELECT b.deleted_at FROM boards b WHERE b.id = columns.board_id)
+WHERE board_id IN (SELECT id FROM boards WHERE deleted_at IS NOT NULL);
+
+UPDATE tasks SET deleted_at = (SELECT c.deleted_at FROM columns c WHERE c.id = tasks.column_id)
+WHERE deleted_at IS NULL
+  AND column_id IN (SELECT id FROM columns WHERE deleted_at IS NOT NULL);
+
+UPDATE subtasks SET deleted_at = (SELECT t.deleted_at FROM tasks t WHERE t.id = subtasks.task_id)
+WHERE task_id IN (SELECT id FROM tasks WHERE deleted_at IS NOT NULL);
@@ -0,0 +1,29 @@
+package com.ivanolmo.kanbantaskmanager.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class AppConfigTest {
+  @Autowired
+  private ApplicationContext context;
+
+  @Test
+  public void testApplicationTaskExecutor_SurvivesThePasswordHashingPool() {
+    Object applicationTaskExecutor =
+        context.getBean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME);
+
+    assertInstanceOf(ThreadPoolTaskExecutor.class, applicationTaskExecutor,
+        "Mvc async requests should run on a pooled executor");
+    assertNotSame(context.getBean("passwordHashingExecutor"), applicationTaskExecutor,
+        "Password hashing should keep its own pool");
+  }
+}
@@ -0,0 +1,53 @@
+package com.ivanolmo.kanbantaskmanager.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordEncoderFactoryTest {
+
+  @Test
+  public void testCreate_Bcrypt() {
+    PasswordEncoder passwordEncoder = new PasswordEncoderFactory("bcrypt", 1, 4, 1024).create();
+
+    String encoded = passwordEncoder.encode("password");
+
+    assertTrue(encoded.startsWith("{bcrypt}"), "New hashes should carry the bcrypt id");
+    assertTrue(passwordEncoder.matches("password", encoded), "Password should match its hash");
+    assertFalse(passwordEncoder.upgradeEncoding(encoded), "Fresh hashes should not need an upgrade");
+  }
+
+  @Test
+  public void testCreate_LegacyHashMatchesAndUpgrades() {
+    PasswordEncoder passwordEncoder = new PasswordEncoderFactory("bcrypt", 1, 4, 1024).create();
+
+    // stored before the delegating encoder, no id prefix
+    String legacy = new BCryptPasswordEncoder(4).encode("password");
+
+    assertTrue(passwordEncoder.matches("password", legacy), "Legacy hashes should still match");
+    assertTrue(passwordEncoder.upgradeEncoding(legacy), "Legacy hashes should be upgraded");
+  }
+
+  @Test
+  public void testCreate_Argon2() {
+    PasswordEncoder passwordEncoder = new PasswordEncoderFactory("argon2", 1, 4, 1024).create();
+    String bcrypt = new PasswordEncoderFactory("bcrypt", 1, 4, 1024).create().encode("password");
+
+    String encoded = passwordEncoder.encode("password");
+
+    assertTrue(encoded.startsWith("{argon2}"), "New hashes should carry the argon2 id");
+    assertTrue(passwordEncoder.matches("password", encoded), "Password should match its hash");
+    assertTrue(passwordEncoder.matches("password", bcrypt), "Bcrypt hashes should still match");
+    assertTrue(passwordEncoder.upgradeEncoding(bcrypt), "Bcrypt hashes should move to argon2");
+  }
+
+  @Test
+  public void testCreate_UnsupportedAlgorithm() {
+    PasswordEncoderFactory factory = new PasswordEncoderFactory("md5", 1, 4, 1024);
+
+    assertThrows(IllegalArgumentException.class, factory::create,
+        "Unknown algorithms should be rejected at startup");
+  }
+}
@@ -0,0 +1,65 @@
+package com.ivanolmo.kanbantaskmanager.config;
+
+import com.ivanolmo.kanbantaskmanager.entity.User;
+import com.ivanolmo.kanbantaskmanager.service.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class VerifiedTokenCacheTest {
+  private static final String SECRET_KEY = "dGhpc2lzYXZlcnlsb25ndGVzdHNlY3JldGtleWZvcmp3dHRlc3Rpbmc";
+
+  private JwtService jwtService;
+  private MeterRegistry meterRegistry;
+  private VerifiedTokenCache verifiedTokenCache;
+  private String token;
+
+  @BeforeEach
+  public void setUp() {
+    jwtService = spy(new JwtService(SECRET_KEY, 60000));
+    meterRegistry = new SimpleMeterRegistry();
+    verifiedTokenCache = new VerifiedTokenCache(jwtService,
+        new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry))
+            .getBeanProvider(MeterRegistry.class),
+        100);
+
+    User user = User.builder().id("user").email("cache@test.com").build();
+    token = jwtService.generateToken(new UserDetailsImpl(user));
+  }
+
+  @Test
+  public void testVerify_RepeatTokenSkipsParsing() {
+    Claims first = verifiedTokenCache.verify(token);
+    Claims second = verifiedTokenCache.verify(token);
+
+    assertEquals("cache@test.com", first.getSubject(), "Subject should come from the token");
+    assertSame(first, second, "Repeat verification should return the cached claims");
+    verify(jwtService, times(1)).parseClaims(token);
+
+    assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count(),
+        "Cache hits should be exported");
+    assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count(),
+        "Cache misses should be exported");
+  }
+
+  @Test
+  public void testVerify_InvalidTokenNotCached() {
+    String tampered = token.substring(0, token.length() - 2) + "xx";
+
+    assertThrows(JwtException.class, () -> verifiedTokenCache.verify(tampered));
+    assertThrows(JwtException.class, () -> verifiedTokenCache.verify(tampered));
+
+    verify(jwtService, times(2)).parseClaims(tampered);
+    assertEquals(0, verifiedTokenCache.getCache().estimatedSize(),
+        "Failed verifications should not be cached");
+  }
+}
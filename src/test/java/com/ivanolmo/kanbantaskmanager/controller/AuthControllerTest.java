@@ -0,0 +1,111 @@
+package com.ivanolmo.kanbantaskmanager.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ivanolmo.kanbantaskmanager.dto.auth.AuthRequestDTO;
+import com.ivanolmo.kanbantaskmanager.entity.User;
+import com.ivanolmo.kanbantaskmanager.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class AuthControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @AfterEach
+  public void tearDown() {
+    userRepository.deleteAll();
+  }
+
+  @Test
+  public void testRegisterAndLogin() throws Exception {
+    perform("/auth/register", "auth@test.com", "password")
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.data.email").value("auth@test.com"));
+
+    perform("/auth/login", "auth@test.com", "password")
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.access_token").isNotEmpty());
+  }
+
+  @Test
+  public void testLogin_badCredentials() throws Exception {
+    perform("/auth/register", "auth@test.com", "password")
+        .andExpect(status().isCreated());
+
+    perform("/auth/login", "auth@test.com", "wrong password")
+        .andExpect(status().isUnauthorized())
+        .andExpect(jsonPath("$.message").value("Invalid email or password"));
+  }
+
+  @Test
+  public void testRegister_emailAlreadyInUseIgnoringCase() throws Exception {
+    perform("/auth/register", "auth@test.com", "password")
+        .andExpect(status().isCreated());
+
+    perform("/auth/register", "Auth@Test.com", "password")
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value("Email is already in use"));
+
+    perform("/auth/login", "AUTH@test.com", "password")
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  public void testLogin_upgradesLegacyHash() throws Exception {
+    // hash stored before the delegating encoder, no id prefix and a low cost
+    userRepository.save(User.builder()
+        .email("legacy@test.com")
+        .password(new BCryptPasswordEncoder(4).encode("password"))
+        .build());
+
+    perform("/auth/login", "legacy@test.com", "password")
+        .andExpect(status().isOk());
+
+    String stored = userRepository.findByEmailKey("legacy@test.com").orElseThrow().getPassword();
+    assertTrue(stored.startsWith("{bcrypt}"), "Password should be rehashed after login");
+  }
+
+  // auth endpoints are whitelisted by full path and complete asynchronously on the password
+  // hashing pool
+  private ResultActions perform(
+      String path, String email, String password) throws Exception {
+    AuthRequestDTO request = new AuthRequestDTO();
+    request.setEmail(email);
+    request.setPassword(password);
+
+    MvcResult result = mockMvc.perform(post("/api/v1" + path)
+            .servletPath("/api/v1")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    return mockMvc.perform(asyncDispatch(result));
+  }
+}
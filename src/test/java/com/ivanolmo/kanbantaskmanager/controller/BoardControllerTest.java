@@ -0,0 +1,393 @@
+package com.ivanolmo.kanbantaskmanager.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ivanolmo.kanbantaskmanager.config.JwtService;
+import com.ivanolmo.kanbantaskmanager.dto.BoardDTO;
+import com.ivanolmo.kanbantaskmanager.dto.ColumnDTO;
+import com.ivanolmo.kanbantaskmanager.entity.Board;
+import com.ivanolmo.kanbantaskmanager.entity.Column;
+import com.ivanolmo.kanbantaskmanager.entity.User;
+import com.ivanolmo.kanbantaskmanager.repository.BoardRepository;
+import com.ivanolmo.kanbantaskmanager.repository.UserRepository;
+import com.ivanolmo.kanbantaskmanager.service.UserDetailsImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties =
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.ivanolmo.kanbantaskmanager.controller.SqlStatementRecorder")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class BoardControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private JwtService jwtService;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private BoardRepository boardRepository;
+
+  private User user;
+  private Board board;
+  private String token;
+
+  @BeforeEach
+  public void setUp() {
+    user = userRepository.save(User.builder()
+        .email("controller@test.com")
+        .password("password")
+        .build());
+
+    board = Board.builder().name("Test Board").user(user).build();
+    board.getColumns().add(Column.builder().name("Todo").color("#000000").board(board).build());
+    board = boardRepository.save(board);
+
+    token = jwtService.generateToken(new UserDetailsImpl(user));
+    SqlStatementRecorder.clear();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    boardRepository.deleteAll();
+    userRepository.deleteAll();
+  }
+
+  @Test
+  public void testGetAllUserBoards_SingleUserLookup() throws Exception {
+    mockMvc.perform(get("/boards")
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data[0].id").value(board.getId()));
+
+    assertUserLookups();
+  }
+
+  @Test
+  public void testAddBoardToUser_SingleUserLookup() throws Exception {
+    BoardDTO boardDTO = BoardDTO.builder().name("New Board").build();
+
+    mockMvc.perform(post("/boards")
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(boardDTO)))
+        .andExpect(status().isCreated());
+
+    assertUserLookups();
+  }
+
+  @Test
+  public void testUpdateBoard_SingleUserLookup() throws Exception {
+    Column column = board.getColumns().get(0);
+    BoardDTO boardDTO = BoardDTO.builder()
+        .name("Updated Board")
+        .columns(List.of(ColumnDTO.builder()
+            .id(column.getId())
+            .name("Doing")
+            .color(column.getColor())
+            .build()))
+        .build();
+
+    mockMvc.perform(put("/boards/{id}", board.getId())
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(boardDTO)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.name").value("Updated Board"));
+
+    assertUserLookups();
+  }
+
+  @Test
+  public void testUpdateBoard_IfMatch() throws Exception {
+    BoardDTO boardDTO = BoardDTO.builder().name("Updated Board").columns(List.of()).build();
+
+    mockMvc.perform(get("/boards/{id}", board.getId())
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.version").value(0));
+
+    mockMvc.perform(put("/boards/{id}", board.getId())
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+            .header(HttpHeaders.IF_MATCH, "\"0\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(boardDTO)))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+        .andExpect(jsonPath("$.data.version").value(1));
+
+    // a second tab still holding the old tag loses
+    mockMvc.perform(put("/boards/{id}", board.getId())
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+            .header(HttpHeaders.IF_MATCH, "\"0\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(boardDTO)))
+        .andExpect(status().isPreconditionFailed());
+
+    assertEquals(1L, boardRepository.findById(board.getId()).orElseThrow().getVersion(),
+        "The rejected write should not bump the version");
+  }
+
+  @Test
+  public void testUpdateBoard_IfMatchFromGet() throws Exception {
+    BoardDTO boardDTO = BoardDTO.builder().name("Updated Board").columns(List.of()).build();
+
+    String eTag = mockMvc.perform(get("/boards/{id}", board.getId())
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    mockMvc.perform(put("/boards/{id}", board.getId())
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+            .header(HttpHeaders.IF_MATCH, eTag)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(boardDTO)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.version").value(1));
+
+    // the same tag is stale once the board changed
+    mockMvc.perform(put("/boards/{id}", board.getId())
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+            .header(HttpHeaders.IF_MATCH, eTag)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(boardDTO)))
+        .andExpect(status().isPreconditionFailed());
+  }
+
+  @Test
+  public void testGetBoard_NotModified() throws Exception {
+    String eTag = mockMvc.perform(get("/boards/{id}", board.getId())
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    SqlStatementRecorder.clear();
+
+    mockMvc.perform(get("/boards/{id}", board.getId())
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+            .header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+    assertEquals(0, SqlStatementRecorder.countTouching("boards"),
+        "A 304 should be answered without reading the board");
+
+    // a task edit leaves the board version alone but still changes the tag
+    mockMvc.perform(post("/tasks")
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"task\":{\"title\":\"New Task\",\"description\":\"Description\"," +
+                "\"subtasks\":[]},\"columnId\":\"" + board.getColumns().get(0).getId() + "\"}"))
+        .andExpect(status().isCreated());
+
+    mockMvc.perform(get("/boards/{id}", board.getId())
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+            .header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  public void testReorderColumn_SingleRowUpdate() throws Exception {
+    BoardDTO boardDTO = BoardDTO.builder()
+        .name("Test Board")
+        .columns(List.of(
+            ColumnDTO.builder().id(board.getColumns().get(0).getId()).name("Todo")
+                .color("#000000").build(),
+            ColumnDTO.builder().name("Doing").color("#000000").build(),
+            ColumnDTO.builder().name("Done").color("#000000").build()))
+        .build();
+
+    String response = mockMvc.perform(put("/boards/{id}", board.getId())
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(boardDTO)))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+    String doneId = objectMapper.readTree(response).at("/data/columns/2/id").asText();
+
+    SqlStatementRecorder.clear();
+
+    mockMvc.perform(patch("/boards/{boardId}/columns/{columnId}/position", board.getId(), doneId)
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"index\":0}"))
+        .andExpect(status().isNoContent());
+
+    assertEquals(1, SqlStatementRecorder.statements().stream()
+            .filter(statement -> statement.startsWith("update columns")).count(),
+        "Moving a column should write a single row");
+
+    mockMvc.perform(get("/boards/{id}", board.getId())
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.columns[0].name").value("Done"))
+        .andExpect(jsonPath("$.data.columns[1].name").value("Todo"))
+        .andExpect(jsonPath("$.data.columns[2].name").value("Doing"));
+  }
+
+  @Test
+  public void testDeleteBoard_RestoreFromTrash() throws Exception {
+    mockMvc.perform(delete("/boards/{id}", board.getId())
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+        .andExpect(status().isNoContent());
+
+    // the board is only marked, its columns, tasks and subtasks are left for the purger
+    assertEquals(List.of("boards"), SqlStatementRecorder.statements().stream()
+            .filter(statement -> statement.startsWith("update "))
+            .map(statement -> statement.split(" ")[1])
+            .filter(table -> List.of("boards", "columns", "tasks", "subtasks").contains(table))
+            .toList(),
+        "Deleting a board should update the board row only");
+    assertTrue(SqlStatementRecorder.statements().stream()
+            .noneMatch(statement -> statement.startsWith("delete")),
+        "Deleting a board should not delete any rows");
+
+    mockMvc.perform(get("/boards/{id}", board.getId())
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+        .andExpect(status().isNotFound());
+
+    mockMvc.perform(post("/boards/{id}/restore", board.getId())
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.name").value("Test Board"))
+        .andExpect(jsonPath("$.data.columns[0].name").value("Todo"));
+
+    mockMvc.perform(get("/boards/{id}", board.getId())
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  public void testGetAllUserBoards_NotModified() throws Exception {
+    String eTag = mockMvc.perform(get("/boards")
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    SqlStatementRecorder.clear();
+
+    mockMvc.perform(get("/boards")
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+            .header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+    assertEquals(0, SqlStatementRecorder.countTouching("boards"),
+        "A 304 should be answered without reading any boards");
+
+    mockMvc.perform(get("/boards/summary")
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+            .header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified());
+
+    // any write invalidates the tag
+    mockMvc.perform(post("/boards")
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(BoardDTO.builder().name("New Board").build())))
+        .andExpect(status().isCreated());
+
+    String newETag = mockMvc.perform(get("/boards")
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+            .header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.length()").value(2))
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    assertTrue(!eTag.equals(newETag), "The tag should change after a write");
+  }
+
+  @Test
+  public void testImportAndExportBoards() throws Exception {
+    String ndjson = String.join("\n",
+        "{\"name\":\"Imported One\",\"columns\":[{\"name\":\"Todo\",\"color\":\"#ffffff\","
+            + "\"tasks\":[{\"title\":\"Task\",\"description\":\"Desc\","
+            + "\"subtasks\":[{\"title\":\"Sub\",\"completed\":true}]}]}]}",
+        "{\"name\":\"Imported Two\"}");
+
+    mockMvc.perform(post("/boards/import")
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .content(ndjson))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.data.boards").value(2))
+        .andExpect(jsonPath("$.data.columns").value(1))
+        .andExpect(jsonPath("$.data.tasks").value(1))
+        .andExpect(jsonPath("$.data.subtasks").value(1));
+
+    MvcResult result = mockMvc.perform(get("/boards/export")
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    String export = mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+
+    List<BoardDTO> exported = export.lines()
+        .map(line -> {
+          try {
+            return objectMapper.readValue(line, BoardDTO.class);
+          } catch (Exception e) {
+            throw new IllegalStateException(e);
+          }
+        })
+        .toList();
+
+    assertEquals(3, exported.size(), "Every board should be exported on its own line");
+    BoardDTO imported = exported.stream()
+        .filter(board -> board.getName().equals("Imported One")).findFirst().orElseThrow();
+    assertEquals("Sub",
+        imported.getColumns().get(0).getTasks().get(0).getSubtasks().get(0).getTitle(),
+        "Imported board tree should be exported in full");
+  }
+
+  @Test
+  public void testImportBoards_InvalidLine() throws Exception {
+    mockMvc.perform(post("/boards/import")
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .content("{\"name\":\"Valid Board\"}\n{\"name\":\"\"}"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value(startsWith(
+            "Invalid board on line 2")));
+  }
+
+  // only the authentication filter may touch the users table
+  private void assertUserLookups() {
+    long lookups = SqlStatementRecorder.countTouching("users");
+    assertTrue(lookups <= 1, "Expected at most one users query per request but got " + lookups);
+  }
+}
@@ -0,0 +1,32 @@
+package com.ivanolmo.kanbantaskmanager.controller;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+// records every statement hibernate prepares so tests can assert on query counts
+public class SqlStatementRecorder implements StatementInspector {
+  private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+  @Override
+  public String inspect(String sql) {
+    STATEMENTS.add(sql.toLowerCase(Locale.ROOT));
+    return sql;
+  }
+
+  public static void clear() {
+    STATEMENTS.clear();
+  }
+
+  public static List<String> statements() {
+    return List.copyOf(STATEMENTS);
+  }
+
+  public static long countTouching(String table) {
+    Pattern pattern = Pattern.compile("\\b" + Pattern.quote(table) + "\\b");
+    return STATEMENTS.stream().filter(sql -> pattern.matcher(sql).find()).count();
+  }
+}
@@ -0,0 +1,92 @@
+package com.ivanolmo.kanbantaskmanager.controller;
+
+import com.ivanolmo.kanbantaskmanager.config.JwtService;
+import com.ivanolmo.kanbantaskmanager.entity.Board;
+import com.ivanolmo.kanbantaskmanager.entity.User;
+import com.ivanolmo.kanbantaskmanager.repository.BoardRepository;
+import com.ivanolmo.kanbantaskmanager.repository.UserRepository;
+import com.ivanolmo.kanbantaskmanager.service.UserDetailsImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+    "security.jwt.stateless=true",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.ivanolmo.kanbantaskmanager.controller.SqlStatementRecorder"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class StatelessAuthenticationTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private JwtService jwtService;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private BoardRepository boardRepository;
+
+  private User user;
+  private Board board;
+
+  @BeforeEach
+  public void setUp() {
+    user = userRepository.save(User.builder()
+        .email("stateless@test.com")
+        .password("password")
+        .build());
+    board = boardRepository.save(Board.builder().name("Test Board").user(user).build());
+    SqlStatementRecorder.clear();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    boardRepository.deleteAll();
+    userRepository.deleteAll();
+  }
+
+  @Test
+  public void testUserIdClaim_SkipsUserLookup() throws Exception {
+    String token = jwtService.generateToken(new UserDetailsImpl(user));
+
+    mockMvc.perform(get("/boards/{id}", board.getId())
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.id").value(board.getId()));
+
+    assertEquals(0, SqlStatementRecorder.countTouching("users"),
+        "Stateless requests should not query the users table");
+  }
+
+  @Test
+  public void testTokenWithoutUserId_FallsBackToUserLookup() throws Exception {
+    // tokens issued before the user id claim existed only carry the subject
+    String token = jwtService.generateToken(new HashMap<>(), new UserDetailsImpl(user));
+
+    mockMvc.perform(get("/boards/{id}", board.getId())
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.id").value(board.getId()));
+
+    assertEquals(1, SqlStatementRecorder.countTouching("users"),
+        "Legacy tokens should be resolved through the users table");
+  }
+}
@@ -1,27 +1,41 @@
 package com.ivanolmo.kanbantaskmanager.repository;
 
+import com.ivanolmo.kanbantaskmanager.dto.BoardRow;
+import com.ivanolmo.kanbantaskmanager.dto.BoardSummaryDTO;
 import com.ivanolmo.kanbantaskmanager.entity.Board;
+import com.ivanolmo.kanbantaskmanager.entity.Column;
+import com.ivanolmo.kanbantaskmanager.entity.Subtask;
+import com.ivanolmo.kanbantaskmanager.entity.Task;
 import com.ivanolmo.kanbantaskmanager.entity.User;
+import com.ivanolmo.kanbantaskmanager.util.UniqueKeys;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
+@Import(JdbcBatchRecorder.class)
 @ActiveProfiles("test")
 public class BoardRepositoryTest {
+  // hibernate.jdbc.batch_size in application.yml
+  private static final int JDBC_BATCH_SIZE = 50;
 
   @Autowired
   private BoardRepository boardRepository;
@@ -55,6 +69,12 @@ public class BoardRepositoryTest {
         "Found board id should match persisted" + " board id");
   }
 
+  @Test
+  public void testSave_GeneratesTimeOrderedIds() {
+    assertEquals(7, UUID.fromString(board1.getId()).version(), "Ids should be version 7 uuids");
+    assertEquals(7, UUID.fromString(user.getId()).version(), "Ids should be version 7 uuids");
+  }
+
   @Test
   public void testExistsByIdAndUserId() {
     boolean exists = boardRepository.existsByIdAndUserId(board1.getId(), user.getId());
@@ -90,11 +110,182 @@ public class BoardRepositoryTest {
   }
 
   @Test
-  public void testFindByNameAndUserId() {
-    Optional<Board> foundBoard = boardRepository.findByNameAndUserId("Test Board 1", user.getId());
+  public void testSave_DuplicateNameIgnoringCase() {
+    Board duplicate = Board.builder().name("TEST BOARD 1").user(user).build();
 
-    assertTrue(foundBoard.isPresent(), "Board should be found");
-    assertEquals(board1.getId(), foundBoard.get().getId(), "Found board ID should match expected");
+    DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class,
+        () -> boardRepository.saveAndFlush(duplicate));
+    assertTrue(UniqueKeys.isViolated(e, Board.NAME_KEY_CONSTRAINT),
+        "The name key constraint should reject the duplicate");
+  }
+
+  @Test
+  public void testSave_RenameToDuplicateName() {
+    Board board2 = boardRepository.findAllByUserId(user.getId()).orElseThrow().stream()
+        .filter(board -> !board.getId().equals(board1.getId())).findFirst().orElseThrow();
+    board2.setName("test board 1");
+
+    DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class,
+        () -> boardRepository.saveAndFlush(board2));
+    assertTrue(UniqueKeys.isViolated(e, Board.NAME_KEY_CONSTRAINT),
+        "The name key should follow a rename");
+  }
+
+  @Test
+  public void testFindBoardRowsByUserId() {
+    List<BoardRow> rows = boardRepository.findBoardRowsByUserId(user.getId(), PageRequest.of(0, 1));
+
+    assertEquals(1, rows.size(), "Found board rows should be limited to the page size");
+    assertEquals("Test Board 2", rows.get(0).getName(), "Newest board should come first");
+  }
+
+  @Test
+  public void testFindBoardRowsByUserIdAfter() {
+    BoardRow first =
+        boardRepository.findBoardRowsByUserId(user.getId(), PageRequest.of(0, 1)).get(0);
+
+    List<BoardRow> rows = boardRepository.findBoardRowsByUserIdAfter(
+        user.getId(), first.getUpdatedAt(), first.getId(), PageRequest.of(0, 10));
+
+    assertEquals(1, rows.size(), "Only boards after the cursor should be found");
+    assertEquals(board1.getId(), rows.get(0).getId(), "Remaining board should match");
+  }
+
+  @Test
+  public void testFindBoardSummariesByUserId() {
+    Column column1 = createColumn("Column 1", board1);
+    createColumn("Column 2", board1);
+    Task task1 = createTask("Task 1", column1);
+    Task task2 = createTask("Task 2", column1);
+    createSubtask("Subtask 1", true, task1);
+    createSubtask("Subtask 2", false, task1);
+    createSubtask("Subtask 3", true, task2);
+    createSubtask("Subtask 4", true, task2);
+
+    List<BoardSummaryDTO> summaries = boardRepository.findBoardSummariesByUserId(user.getId());
+    BoardSummaryDTO summary = summaries.stream()
+        .filter(s -> s.getId().equals(board1.getId())).findFirst().orElseThrow();
+    BoardSummaryDTO emptySummary = summaries.stream()
+        .filter(s -> !s.getId().equals(board1.getId())).findFirst().orElseThrow();
+
+    assertEquals(2, summaries.size(), "There should be one summary per board");
+    assertEquals(2, summary.getColumnCount(), "Column count should match");
+    assertEquals(2, summary.getTaskCount(), "Task count should match");
+    assertEquals(4, summary.getSubtaskCount(), "Subtask count should match");
+    assertEquals(0.75, summary.getCompletedSubtaskRatio(), "Completion ratio should match");
+    assertEquals(0, emptySummary.getColumnCount(), "Empty board should have no columns");
+    assertEquals(0, emptySummary.getCompletedSubtaskRatio(), "Empty board ratio should be 0");
+  }
+
+  @Test
+  public void testSoftDelete_HidesBoardAndFreesName() {
+    createSubtask("Subtask", false, createTask("Task", createColumn("Column", board1)));
+
+    assertEquals(1, boardRepository.softDelete(board1.getId(), user.getId(), LocalDateTime.now()),
+        "The board should be marked as deleted");
+    entityManager.clear();
+
+    assertTrue(boardRepository.findByIdAndUserId(board1.getId(), user.getId()).isEmpty(),
+        "Deleted board should not be found");
+    assertEquals(1, boardRepository.findBoardSummariesByUserId(user.getId()).size(),
+        "Deleted board should not be summarized");
+    assertEquals(1, countRows("subtasks"), "Subtasks should stay until the board is purged");
+    assertDoesNotThrow(() -> createBoard("Test Board 1", user),
+        "The name of a deleted board should be free again");
+  }
+
+  @Test
+  public void testRestore() {
+    LocalDateTime deletedAt = LocalDateTime.now();
+    boardRepository.softDelete(board1.getId(), user.getId(), deletedAt);
+
+    assertEquals(0, boardRepository.restore(board1.getId(), user.getId(), deletedAt.plusSeconds(1)),
+        "Boards deleted before the cutoff should not be restored");
+    assertEquals(0, boardRepository.restore(board1.getId(), "otherUser", deletedAt.minusDays(7)),
+        "Boards of other users should not be restored");
+    assertEquals(1, boardRepository.restore(board1.getId(), user.getId(), deletedAt.minusDays(7)),
+        "Boards deleted after the cutoff should be restored");
+    entityManager.clear();
+
+    Board restored = boardRepository.findByIdAndUserId(board1.getId(), user.getId()).orElseThrow();
+    assertNull(restored.getDeletedAt(), "Restored board should not be marked as deleted");
+    assertEquals(UniqueKeys.of("Test Board 1"), restored.getNameKey(),
+        "Restored board should get its name key back");
+  }
+
+  @Test
+  public void testRestore_DuplicateName() {
+    LocalDateTime deletedAt = LocalDateTime.now();
+    boardRepository.softDelete(board1.getId(), user.getId(), deletedAt);
+    createBoard("TEST BOARD 1", user);
+
+    assertThrows(DataIntegrityViolationException.class,
+        () -> boardRepository.restore(board1.getId(), user.getId(), deletedAt.minusDays(7)),
+        "Restoring a board whose name was taken meanwhile should fail");
+  }
+
+  @Test
+  public void testPurge_RemovesBoardTreeInBatches() {
+    Column column = createColumn("Column", board1);
+    Task task = createTask("Task", column);
+    createSubtask("Subtask 1", false, task);
+    createSubtask("Subtask 2", false, task);
+
+    LocalDateTime deletedAt = LocalDateTime.now().minusDays(8);
+    boardRepository.softDelete(board1.getId(), user.getId(), deletedAt);
+    LocalDateTime cutoff = deletedAt.plusDays(1);
+
+    assertEquals(0, boardRepository.purgeBoards(cutoff, 10),
+        "A board should not be purged while it still has columns");
+    assertEquals(1, boardRepository.purgeSubtasks(cutoff, 1), "A batch should respect the limit");
+    assertEquals(1, boardRepository.purgeSubtasks(cutoff, 1), "A batch should respect the limit");
+    assertEquals(0, boardRepository.purgeSubtasks(cutoff, 1), "Nothing should be left");
+    assertEquals(1, boardRepository.purgeTasks(cutoff, 10), "Tasks should be purged");
+    assertEquals(1, boardRepository.purgeColumns(cutoff, 10), "Columns should be purged");
+    assertEquals(1, boardRepository.purgeBoards(cutoff, 10), "The board should be purged");
+    assertEquals(1, countRows("boards"), "Live boards should be kept");
+  }
+
+  @Test
+  public void testPurge_KeepsBoardsInsideRetention() {
+    createColumn("Column", board1);
+    LocalDateTime deletedAt = LocalDateTime.now();
+    boardRepository.softDelete(board1.getId(), user.getId(), deletedAt);
+
+    LocalDateTime cutoff = deletedAt.minusSeconds(1);
+
+    assertEquals(0, boardRepository.purgeColumns(cutoff, 10),
+        "Columns of a board deleted after the cutoff should be kept");
+    assertEquals(0, boardRepository.purgeBoards(cutoff, 10),
+        "A board deleted after the cutoff should be kept");
+  }
+
+  @Test
+  public void testSaveBoard_BatchesColumnInserts() {
+    JdbcBatchRecorder.clear();
+
+    boardRepository.saveAndFlush(createBoardWithColumns(JDBC_BATCH_SIZE * 2 + 10));
+
+    // the columns go out in full batches of hibernate.jdbc.batch_size and one for the rest
+    assertEquals(List.of(JDBC_BATCH_SIZE, JDBC_BATCH_SIZE, 10),
+        JdbcBatchRecorder.rowsPerBatch("insert into columns"),
+        "Column inserts should be sent in batches");
+  }
+
+  private Board createBoardWithColumns(int columnCount) {
+    Board board = Board.builder().name("Batch Board " + columnCount).user(user).build();
+
+    for (int i = 0; i < columnCount; i++) {
+      board.getColumns().add(
+          Column.builder().name("Column " + i).color("#000000").board(board).build());
+    }
+
+    return board;
+  }
+
+  private long countRows(String table) {
+    return ((Number) entityManager.getEntityManager()
+        .createNativeQuery("SELECT COUNT(*) FROM " + table).getSingleResult()).longValue();
   }
 
   private void setupMockSecurityContext() {
@@ -116,4 +307,21 @@ public class BoardRepositoryTest {
     entityManager.persistAndFlush(board);
     return board;
   }
+
+  private Column createColumn(String name, Board board) {
+    Column column = Column.builder().name(name).color("#FFFFFF").board(board).build();
+    entityManager.persistAndFlush(column);
+    return column;
+  }
+
+  private Task createTask(String title, Column column) {
+    Task task = Task.builder().title(title).description("description").column(column).build();
+    entityManager.persistAndFlush(task);
+    return task;
+  }
+
+  private void createSubtask(String title, boolean completed, Task task) {
+    Subtask subtask = Subtask.builder().title(title).completed(completed).task(task).build();
+    entityManager.persistAndFlush(subtask);
+  }
 }
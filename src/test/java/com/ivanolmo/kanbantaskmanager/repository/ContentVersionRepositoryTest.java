@@ -0,0 +1,52 @@
+package com.ivanolmo.kanbantaskmanager.repository;
+
+import com.ivanolmo.kanbantaskmanager.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ActiveProfiles("test")
+public class ContentVersionRepositoryTest {
+
+  @Autowired
+  private ContentVersionRepository contentVersionRepository;
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  private User user;
+
+  @BeforeEach
+  public void setUp() {
+    user = User.builder().email("user@example.com").password("password").build();
+    entityManager.persistAndFlush(user);
+  }
+
+  @Test
+  public void testIncrement_CreatesRowOnFirstWrite() {
+    assertEquals(Optional.empty(), contentVersionRepository.findVersionByUserId(user.getId()),
+        "A user without writes should have no row");
+
+    assertEquals(1, contentVersionRepository.increment(user.getId()), "One row should be written");
+
+    assertEquals(Optional.of(1L), contentVersionRepository.findVersionByUserId(user.getId()),
+        "The first write should create the row");
+  }
+
+  @Test
+  public void testIncrement_BumpsExistingRow() {
+    contentVersionRepository.increment(user.getId());
+    contentVersionRepository.increment(user.getId());
+
+    assertEquals(Optional.of(2L), contentVersionRepository.findVersionByUserId(user.getId()),
+        "Every write should bump the version");
+  }
+}
@@ -0,0 +1,70 @@
+package com.ivanolmo.kanbantaskmanager.repository;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// wraps the datasource so tests can see the jdbc batches hibernate executes. prepared statement
+// counts cannot tell a batch from rows sent one by one, every executeBatch call is recorded here
+// with the statement it ran and the number of rows it carried
+@TestConfiguration
+public class JdbcBatchRecorder implements BeanPostProcessor {
+  private static final Set<Class<?>> WRAPPED_TYPES =
+      Set.of(Connection.class, Statement.class, PreparedStatement.class, CallableStatement.class);
+  private static final List<Batch> BATCHES = new CopyOnWriteArrayList<>();
+
+  public record Batch(String sql, int rows) {
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    return bean instanceof DataSource dataSource ? wrap(DataSource.class, dataSource, null) : bean;
+  }
+
+  public static void clear() {
+    BATCHES.clear();
+  }
+
+  // row counts of the batches whose statement starts with the given prefix, in execution order
+  public static List<Integer> rowsPerBatch(String prefix) {
+    return BATCHES.stream().filter(batch -> batch.sql() != null && batch.sql().startsWith(prefix))
+        .map(Batch::rows).toList();
+  }
+
+  private static Object wrap(Class<?> type, Object target, String sql) {
+    return Proxy.newProxyInstance(JdbcBatchRecorder.class.getClassLoader(),
+        new Class<?>[] {type}, (proxy, method, args) -> {
+          Object result;
+
+          try {
+            result = method.invoke(target, args);
+          } catch (InvocationTargetException e) {
+            throw e.getCause();
+          }
+
+          if (method.getName().equals("executeBatch")) {
+            BATCHES.add(new Batch(sql, ((int[]) result).length));
+          }
+
+          if (result != null && WRAPPED_TYPES.contains(method.getReturnType())) {
+            String statementSql = args != null && args.length > 0 && args[0] instanceof String s
+                ? s.toLowerCase(Locale.ROOT) : null;
+
+            return wrap(method.getReturnType(), result, statementSql);
+          }
+
+          return result;
+        });
+  }
+}
@@ -0,0 +1,261 @@
+package com.ivanolmo.kanbantaskmanager.repository;
+
+import com.ivanolmo.kanbantaskmanager.controller.SqlStatementRecorder;
+import com.ivanolmo.kanbantaskmanager.entity.Board;
+import com.ivanolmo.kanbantaskmanager.entity.Column;
+import com.ivanolmo.kanbantaskmanager.entity.Subtask;
+import com.ivanolmo.kanbantaskmanager.entity.Task;
+import com.ivanolmo.kanbantaskmanager.entity.User;
+import com.ivanolmo.kanbantaskmanager.entity.UuidStringType;
+import com.ivanolmo.kanbantaskmanager.util.Positions;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// runs every repository query the services use against a seeded schema built by the migrations
+// and checks that the plan reaches each table through an index, never a full table scan
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+    + "com.ivanolmo.kanbantaskmanager.controller.SqlStatementRecorder")
+@ActiveProfiles("test")
+public class QueryPlanTest {
+  private static final int USERS = 4;
+  private static final int BOARDS_PER_USER = 5;
+  private static final int COLUMNS_PER_BOARD = 3;
+  private static final int TASKS_PER_COLUMN = 4;
+  private static final int SUBTASKS_PER_TASK = 3;
+
+  @Autowired
+  private BoardRepository boardRepository;
+  @Autowired
+  private ColumnRepository columnRepository;
+  @Autowired
+  private TaskRepository taskRepository;
+  @Autowired
+  private SubtaskRepository subtaskRepository;
+  @Autowired
+  private UserRepository userRepository;
+  @Autowired
+  private ContentVersionRepository contentVersionRepository;
+  @Autowired
+  private TestEntityManager entityManager;
+
+  private User user;
+  private Board board;
+  private Column column;
+  private Task task;
+  private Subtask subtask;
+  private LocalDateTime now;
+
+  @BeforeEach
+  public void setUp() {
+    now = LocalDateTime.now();
+    List<User> users = new ArrayList<>();
+
+    for (int u = 0; u < USERS; u++) {
+      User seededUser = User.builder().email("user" + u + "@example.com").password("password")
+          .build();
+      entityManager.persist(seededUser);
+      users.add(seededUser);
+
+      for (int b = 0; b < BOARDS_PER_USER; b++) {
+        Board seededBoard = Board.builder().name("Board " + b).user(seededUser).build();
+        entityManager.persist(seededBoard);
+
+        for (int c = 0; c < COLUMNS_PER_BOARD; c++) {
+          Column seededColumn = Column.builder().name("Column " + c).color("#000000")
+              .board(seededBoard).build();
+          entityManager.persist(seededColumn);
+
+          for (int t = 0; t < TASKS_PER_COLUMN; t++) {
+            Task seededTask = Task.builder().title("Task " + t).description("Description")
+                .column(seededColumn).build();
+            entityManager.persist(seededTask);
+
+            for (int s = 0; s < SUBTASKS_PER_TASK; s++) {
+              Subtask seededSubtask = Subtask.builder().title("Subtask " + s).completed(false)
+                  .task(seededTask).build();
+              entityManager.persist(seededSubtask);
+
+              subtask = seededSubtask;
+            }
+
+            task = seededTask;
+          }
+
+          column = seededColumn;
+        }
+
+        board = seededBoard;
+      }
+    }
+
+    user = users.get(USERS - 1);
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  @Test
+  public void testBoardQueries() {
+    assertIndexed(() -> boardRepository.findBoardRowsByUserId(user.getId(), PageRequest.of(0, 2)),
+        user.getId(), 0, 2);
+    assertIndexed(() -> boardRepository.findBoardRowsByUserIdAfter(user.getId(), now,
+        board.getId(), PageRequest.of(0, 2)), user.getId(), now, now, board.getId(), 0, 2);
+    assertIndexed(() -> boardRepository.findByIdAndUserId(board.getId(), user.getId()),
+        board.getId(), user.getId());
+    assertIndexed(() -> boardRepository.findBoardRowByIdAndUserId(board.getId(), user.getId()),
+        board.getId(), user.getId());
+    assertIndexed(() -> boardRepository.findBoardSummariesByUserId(user.getId()), user.getId());
+    assertIndexed(() -> boardRepository.findBoardInfoById(board.getId()), board.getId());
+    assertIndexed(() -> boardRepository.softDelete(board.getId(), user.getId(), now),
+        now, board.getId(), user.getId());
+
+    UUID boardId = UuidStringType.toUuid(board.getId());
+    UUID userId = UuidStringType.toUuid(user.getId());
+    assertIndexed(() -> boardRepository.stampSubtasks(List.of(boardId)), boardId);
+    assertIndexed(() -> boardRepository.stampTasks(List.of(boardId)), boardId);
+    assertIndexed(() -> boardRepository.stampColumns(List.of(boardId)), boardId);
+    assertIndexed(() -> boardRepository.findTrashedName(boardId, userId, now),
+        boardId, userId, now);
+    assertIndexed(() -> boardRepository.restoreSubtasks(boardId, userId, now),
+        boardId, userId, now, boardId);
+    assertIndexed(() -> boardRepository.restoreTasks(boardId, userId, now),
+        boardId, userId, now, boardId);
+    assertIndexed(() -> boardRepository.restoreColumns(boardId, userId, now),
+        boardId, userId, now, boardId);
+    assertIndexed(() -> boardRepository.restoreBoard(boardId, userId, now, "board"),
+        "board", boardId, userId, now);
+  }
+
+  @Test
+  public void testColumnQueries() {
+    assertIndexed(() -> columnRepository.findAllByBoardId(board.getId()), board.getId());
+    assertIndexed(() -> columnRepository.findColumnRowsByBoardIds(List.of(board.getId())),
+        board.getId());
+    assertIndexed(() -> columnRepository.findColumnRowByIdAndBoardIdAndUserId(column.getId(),
+        board.getId(), user.getId()), column.getId(), board.getId(), user.getId());
+    assertIndexed(() -> columnRepository.findColumnInfoById(column.getId()), column.getId());
+    assertIndexed(() -> columnRepository.findPositionRowsByBoardIdAndUserId(board.getId(),
+        user.getId()), board.getId(), user.getId());
+    assertIndexed(() -> columnRepository.updatePosition(column.getId(), user.getId(),
+        Positions.GAP), Positions.GAP, column.getId(), user.getId());
+  }
+
+  @Test
+  public void testTaskQueries() {
+    assertIndexed(() -> taskRepository.findTaskRowsByBoardIds(List.of(board.getId())),
+        board.getId());
+    assertIndexed(() -> taskRepository.findTaskRowsByColumnId(column.getId()), column.getId());
+    assertIndexed(() -> taskRepository.findTaskInfoById(task.getId()), task.getId());
+    assertIndexed(() -> taskRepository.moveTask(task.getId(), column.getId(), user.getId(),
+        Positions.GAP, now), column.getId(), Positions.GAP, column.getId(), now, task.getId(),
+        user.getId(), column.getId(), user.getId());
+    assertIndexed(() -> taskRepository.findMaxPositionByColumnId(column.getId()),
+        column.getId());
+    assertIndexed(() -> taskRepository.findSiblingPositionRows(task.getId(), user.getId()),
+        task.getId(), user.getId());
+    assertIndexed(() -> taskRepository.updatePosition(task.getId(), user.getId(), Positions.GAP),
+        Positions.GAP, task.getId(), user.getId());
+    assertIndexed(() -> taskRepository.existsById(task.getId()), task.getId());
+    assertIndexed(() -> taskRepository.softDeleteSubtasks(task.getId(), user.getId(), now),
+        now, task.getId(), user.getId());
+    assertIndexed(() -> taskRepository.softDeleteTask(task.getId(), user.getId(), now),
+        now, task.getId(), user.getId());
+  }
+
+  @Test
+  public void testSubtaskQueries() {
+    assertIndexed(() -> subtaskRepository.findAllByTaskId(task.getId()), task.getId());
+    assertIndexed(() -> subtaskRepository.findSubtaskRowsByBoardIds(List.of(board.getId())),
+        board.getId());
+    assertIndexed(() -> subtaskRepository.findSubtaskRowsByColumnId(column.getId()),
+        column.getId());
+    assertIndexed(() -> subtaskRepository.findSubtaskRowById(subtask.getId()), subtask.getId());
+    assertIndexed(() -> subtaskRepository.findSubtaskRowsByIds(List.of(subtask.getId())),
+        subtask.getId());
+    assertIndexed(() -> subtaskRepository.countByIdIn(List.of(subtask.getId())),
+        subtask.getId());
+    assertIndexed(() -> subtaskRepository.existsById(subtask.getId()), subtask.getId());
+    assertIndexed(() -> subtaskRepository.toggleCompletion(subtask.getId(), user.getId(), now),
+        now, subtask.getId(), user.getId());
+    assertIndexed(() -> subtaskRepository.updateCompletion(List.of(subtask.getId()),
+        List.of(subtask.getId()), user.getId(), now),
+        subtask.getId(), now, subtask.getId(), user.getId());
+    assertIndexed(() -> subtaskRepository.findSiblingPositionRows(subtask.getId(), user.getId()),
+        subtask.getId(), user.getId());
+    assertIndexed(() -> subtaskRepository.updatePosition(subtask.getId(), user.getId(),
+        Positions.GAP), Positions.GAP, subtask.getId(), user.getId());
+  }
+
+  @Test
+  public void testCascadeDeletes() {
+    // subtasks first, the statement reads the task ids it deletes by
+    assertIndexed(() -> subtaskRepository.deleteAllByColumnIds(List.of(column.getId())),
+        column.getId());
+    assertIndexed(() -> taskRepository.deleteAllByColumnIds(List.of(column.getId())),
+        column.getId());
+  }
+
+  @Test
+  public void testUserQueries() {
+    assertIndexed(() -> userRepository.findByEmailKey(user.getEmailKey()), user.getEmailKey());
+    assertIndexed(() -> contentVersionRepository.findVersionByUserId(user.getId()),
+        user.getId());
+    assertIndexed(() -> contentVersionRepository.increment(user.getId()), user.getId());
+  }
+
+  // runs the query, then explains the single statement it issued with the same parameters
+  private void assertIndexed(Runnable query, Object... parameters) {
+    SqlStatementRecorder.clear();
+    query.run();
+
+    List<String> statements = SqlStatementRecorder.statements();
+    assertEquals(1, statements.size(), () -> "Expected a single statement but got " + statements);
+
+    String sql = statements.get(0);
+    assertEquals(parameters.length, sql.chars().filter(c -> c == '?').count(),
+        () -> "Parameters should match the placeholders of " + sql);
+
+    String plan = explain(sql, parameters);
+    assertFalse(plan.toLowerCase(Locale.ROOT).contains("tablescan"),
+        () -> "Expected every table to be read through an index:\n" + plan);
+  }
+
+  private String explain(String sql, Object... parameters) {
+    return session().doReturningWork(connection -> {
+      try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+        for (int i = 0; i < parameters.length; i++) {
+          statement.setObject(i + 1, parameters[i]);
+        }
+
+        StringBuilder plan = new StringBuilder();
+
+        try (ResultSet resultSet = statement.executeQuery()) {
+          while (resultSet.next()) {
+            plan.append(resultSet.getString(1)).append('\n');
+          }
+        }
+
+        return plan.toString();
+      }
+    });
+  }
+
+  private Session session() {
+    return entityManager.getEntityManager().unwrap(Session.class);
+  }
+}
@@ -0,0 +1,117 @@
+package com.ivanolmo.kanbantaskmanager.repository;
+
+import com.ivanolmo.kanbantaskmanager.dto.SubtaskRow;
+import com.ivanolmo.kanbantaskmanager.entity.Board;
+import com.ivanolmo.kanbantaskmanager.entity.Column;
+import com.ivanolmo.kanbantaskmanager.entity.Subtask;
+import com.ivanolmo.kanbantaskmanager.entity.Task;
+import com.ivanolmo.kanbantaskmanager.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+public class SubtaskRepositoryTest {
+
+  @Autowired
+  private SubtaskRepository subtaskRepository;
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  private User user;
+  private Subtask subtask;
+
+  @BeforeEach
+  public void setUp() {
+    user = User.builder().email("user@example.com").password("password").build();
+    entityManager.persist(user);
+    Board board = Board.builder().name("Test Board").user(user).build();
+    entityManager.persist(board);
+    Column column = Column.builder().name("Todo").color("#000000").board(board).build();
+    entityManager.persist(column);
+    Task task = Task.builder().title("Task").description("Description").column(column).build();
+    entityManager.persist(task);
+    subtask = Subtask.builder().title("Subtask").completed(false).task(task).build();
+    entityManager.persistAndFlush(subtask);
+    entityManager.clear();
+  }
+
+  @Test
+  public void testToggleCompletion() {
+    int first = subtaskRepository.toggleCompletion(subtask.getId(), user.getId(),
+        LocalDateTime.now());
+
+    assertEquals(1, first, "Subtask should be toggled");
+    assertTrue(subtaskRepository.findSubtaskRowById(subtask.getId()).orElseThrow().getCompleted(),
+        "Subtask should be completed");
+
+    subtaskRepository.toggleCompletion(subtask.getId(), user.getId(), LocalDateTime.now());
+
+    assertFalse(subtaskRepository.findSubtaskRowById(subtask.getId()).orElseThrow().getCompleted(),
+        "Subtask should be incomplete again");
+  }
+
+  @Test
+  public void testToggleCompletion_OtherUser() {
+    User otherUser = User.builder().email("other@example.com").password("password").build();
+    entityManager.persistAndFlush(otherUser);
+
+    int updated = subtaskRepository.toggleCompletion(subtask.getId(), otherUser.getId(),
+        LocalDateTime.now());
+
+    assertEquals(0, updated, "Another user should not toggle the subtask");
+    assertFalse(subtaskRepository.findSubtaskRowById(subtask.getId()).orElseThrow().getCompleted(),
+        "Subtask should be unchanged");
+  }
+
+  @Test
+  public void testUpdateCompletion() {
+    Subtask other = Subtask.builder().title("Other").completed(true)
+        .task(entityManager.find(Task.class, subtaskTaskId())).build();
+    entityManager.persistAndFlush(other);
+    List<String> ids = List.of(subtask.getId(), other.getId());
+
+    int updated = subtaskRepository.updateCompletion(ids, List.of(subtask.getId()), user.getId(),
+        LocalDateTime.now());
+
+    assertEquals(2, updated, "Both subtasks should be updated");
+    assertTrue(subtaskRepository.findSubtaskRowById(subtask.getId()).orElseThrow().getCompleted(),
+        "Subtask should be completed");
+    assertFalse(subtaskRepository.findSubtaskRowById(other.getId()).orElseThrow().getCompleted(),
+        "Other subtask should be incomplete");
+
+    updated = subtaskRepository.updateCompletion(ids, List.of(), user.getId(),
+        LocalDateTime.now());
+
+    assertEquals(2, updated, "Both subtasks should be updated");
+    assertEquals(0, subtaskRepository.findSubtaskRowsByIds(ids).stream()
+        .filter(SubtaskRow::getCompleted).count(), "No subtask should be completed");
+  }
+
+  @Test
+  public void testUpdateCompletion_OtherUser() {
+    User otherUser = User.builder().email("other@example.com").password("password").build();
+    entityManager.persistAndFlush(otherUser);
+
+    int updated = subtaskRepository.updateCompletion(List.of(subtask.getId(), "missing"),
+        List.of(subtask.getId()), otherUser.getId(), LocalDateTime.now());
+
+    assertEquals(0, updated, "Another user should not update the subtask");
+    assertEquals(1, subtaskRepository.countByIdIn(List.of(subtask.getId(), "missing")),
+        "Only the stored subtask should be counted");
+  }
+
+  private String subtaskTaskId() {
+    return subtaskRepository.findSubtaskRowById(subtask.getId()).orElseThrow().getTaskId();
+  }
+}
@@ -0,0 +1,241 @@
+package com.ivanolmo.kanbantaskmanager.repository;
+
+import com.ivanolmo.kanbantaskmanager.entity.Board;
+import com.ivanolmo.kanbantaskmanager.entity.Column;
+import com.ivanolmo.kanbantaskmanager.entity.Subtask;
+import com.ivanolmo.kanbantaskmanager.entity.Task;
+import com.ivanolmo.kanbantaskmanager.entity.User;
+import com.ivanolmo.kanbantaskmanager.util.Positions;
+import com.ivanolmo.kanbantaskmanager.util.UniqueKeys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+public class TaskRepositoryTest {
+
+  @Autowired
+  private TaskRepository taskRepository;
+
+  @Autowired
+  private BoardRepository boardRepository;
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  private User user;
+  private Board board;
+  private Column todo;
+  private Column done;
+  private Task task;
+
+  @BeforeEach
+  public void setUp() {
+    user = createUser("user@example.com");
+    board = createBoard("Test Board", user);
+    todo = createColumn("Todo", board);
+    done = createColumn("Done", board);
+    task = createTask("Task", todo);
+  }
+
+  @Test
+  public void testSave_InheritsUserId() {
+    assertEquals(user.getId(), todo.getUserId(), "Column should store the board owner");
+    assertEquals(user.getId(), task.getUserId(), "Task should store the board owner");
+    assertEquals(user.getId(), taskRepository.findTaskInfoById(task.getId()).orElseThrow()
+        .getUserId(), "Task info should read the stored owner");
+  }
+
+  @Test
+  public void testMoveTask() {
+    int updated = taskRepository.moveTask(task.getId(), done.getId(), user.getId(),
+        Positions.GAP, LocalDateTime.now());
+    entityManager.clear();
+
+    assertEquals(1, updated, "Task should be moved");
+    assertEquals(done.getId(), entityManager.find(Task.class, task.getId()).getColumn().getId(),
+        "Task should belong to the target column");
+  }
+
+  @Test
+  public void testMoveTask_ForeignColumn() {
+    User otherUser = createUser("other@example.com");
+    Column foreign = createColumn("Foreign", createBoard("Other Board", otherUser));
+
+    int updated = taskRepository.moveTask(task.getId(), foreign.getId(), user.getId(),
+        Positions.GAP, LocalDateTime.now());
+
+    assertEquals(0, updated, "Task should not move to another users column");
+  }
+
+  @Test
+  public void testMoveTask_ForeignTask() {
+    User otherUser = createUser("other@example.com");
+
+    int updated = taskRepository.moveTask(task.getId(), done.getId(), otherUser.getId(),
+        Positions.GAP, LocalDateTime.now());
+
+    assertEquals(0, updated, "Another user should not move the task");
+  }
+
+  @Test
+  public void testMoveTask_DuplicateTitle() {
+    createTask("TASK", done);
+
+    DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class,
+        () -> taskRepository.moveTask(task.getId(), done.getId(), user.getId(),
+            Positions.GAP, LocalDateTime.now()));
+    assertTrue(UniqueKeys.isViolated(e, Task.TITLE_KEY_CONSTRAINT),
+        "The title key constraint should reject the move");
+  }
+
+  @Test
+  public void testSoftDelete_HidesTaskAndFreesTitle() {
+    assertEquals(1, taskRepository.softDelete(task.getId(), user.getId(), LocalDateTime.now()),
+        "Task should be marked as deleted");
+    entityManager.clear();
+
+    assertTrue(taskRepository.findTaskInfoById(task.getId()).isEmpty(),
+        "Deleted task should not be found");
+    assertFalse(taskRepository.existsById(task.getId()), "Deleted task should not exist");
+    assertTrue(taskRepository.findTaskRowsByColumnId(todo.getId()).isEmpty(),
+        "Deleted task should not be listed");
+    assertDoesNotThrow(() -> createTask("Task", todo),
+        "The title of a deleted task should be free again");
+  }
+
+  @Test
+  public void testSoftDelete_ForeignTask() {
+    User otherUser = createUser("other@example.com");
+
+    assertEquals(0, taskRepository.softDelete(task.getId(), otherUser.getId(),
+        LocalDateTime.now()), "Another user should not delete the task");
+  }
+
+  @Test
+  public void testDeletedBoard_HidesTasksOnceStamped() {
+    boardRepository.softDelete(board.getId(), user.getId(), LocalDateTime.now());
+    assertEquals(1, boardRepository.stampTrashedChildren(10),
+        "The children of the deleted board should be stamped");
+    entityManager.clear();
+
+    assertTrue(taskRepository.findTaskInfoById(task.getId()).isEmpty(),
+        "Tasks of a deleted board should not be found");
+    assertFalse(taskRepository.existsById(task.getId()),
+        "Tasks of a deleted board should not exist");
+    assertEquals(0, taskRepository.moveTask(task.getId(), done.getId(), user.getId(),
+        Positions.GAP, LocalDateTime.now()), "Tasks of a deleted board should not move");
+  }
+
+  @Test
+  public void testStampTrashedChildren_StampsEachBoardOnce() {
+    LocalDateTime taskDeletedAt = LocalDateTime.now().minusHours(1);
+    taskRepository.softDelete(task.getId(), user.getId(), taskDeletedAt);
+    boardRepository.softDelete(board.getId(), user.getId(), LocalDateTime.now());
+
+    assertEquals(1, boardRepository.stampTrashedChildren(10), "One board should be stamped");
+    assertEquals(0, boardRepository.stampTrashedChildren(10),
+        "A stamped board should not be stamped again");
+    assertEquals(0, taskRepository.purgeTasks(taskDeletedAt.plusSeconds(1), 10),
+        "A task deleted on its own should wait for its board once the board is deleted");
+  }
+
+  @Test
+  public void testMoveTask_DeletedTargetBoard() {
+    Column other = createColumn("Other", createBoard("Other Board", user));
+    boardRepository.softDelete(other.getBoard().getId(), user.getId(), LocalDateTime.now());
+    boardRepository.stampTrashedChildren(10);
+
+    assertEquals(0, taskRepository.moveTask(task.getId(), other.getId(), user.getId(),
+        Positions.GAP, LocalDateTime.now()), "Task should not move into a deleted board");
+  }
+
+  @Test
+  public void testPurge_RemovesDeletedTasks() {
+    createSubtask("Subtask", task);
+    taskRepository.softDelete(task.getId(), user.getId(), LocalDateTime.now());
+    LocalDateTime cutoff = LocalDateTime.now().plusSeconds(1);
+
+    assertEquals(0, taskRepository.purgeTasks(cutoff, 10),
+        "A task should not be purged while it still has subtasks");
+    assertEquals(1, taskRepository.purgeSubtasks(cutoff, 10), "Subtasks should be purged");
+    assertEquals(1, taskRepository.purgeTasks(cutoff, 10), "The task should be purged");
+  }
+
+  @Test
+  public void testRestoreBoard_KeepsTasksDeletedOnTheirOwn() {
+    Task other = createTask("Other", todo);
+    taskRepository.softDelete(task.getId(), user.getId(), LocalDateTime.now().minusHours(1));
+    LocalDateTime deletedAt = LocalDateTime.now();
+    boardRepository.softDelete(board.getId(), user.getId(), deletedAt);
+    boardRepository.stampTrashedChildren(10);
+
+    assertEquals(1, boardRepository.restore(board.getId(), user.getId(), deletedAt.minusDays(7)),
+        "The board should be restored");
+    entityManager.clear();
+
+    assertTrue(taskRepository.findTaskInfoById(other.getId()).isPresent(),
+        "Tasks deleted with the board should be restored with it");
+    assertTrue(taskRepository.findTaskInfoById(task.getId()).isEmpty(),
+        "Tasks deleted on their own should stay in the trash");
+  }
+
+  @Test
+  public void testPurge_SkipsTasksOfDeletedBoard() {
+    createSubtask("Subtask", task);
+    boardRepository.softDelete(board.getId(), user.getId(), LocalDateTime.now());
+    boardRepository.stampTrashedChildren(10);
+    LocalDateTime cutoff = LocalDateTime.now().plusSeconds(1);
+
+    assertEquals(0, taskRepository.purgeSubtasks(cutoff, 10),
+        "Subtasks of a deleted board should wait for the board purge");
+    assertEquals(0, taskRepository.purgeTasks(cutoff, 10),
+        "Tasks of a deleted board should wait for the board purge");
+  }
+
+  @Test
+  public void testDeleteAllByColumnIds_IncludesDeletedTasks() {
+    taskRepository.softDelete(task.getId(), user.getId(), LocalDateTime.now());
+
+    assertEquals(1, taskRepository.deleteAllByColumnIds(List.of(todo.getId())),
+        "Deleted tasks of removed columns should be removed as well");
+  }
+
+  private User createUser(String email) {
+    User user = User.builder().email(email).password("password").build();
+    entityManager.persistAndFlush(user);
+    return user;
+  }
+
+  private Board createBoard(String name, User user) {
+    Board board = Board.builder().name(name).user(user).build();
+    entityManager.persistAndFlush(board);
+    return board;
+  }
+
+  private Column createColumn(String name, Board board) {
+    Column column = Column.builder().name(name).color("#000000").board(board).build();
+    entityManager.persistAndFlush(column);
+    return column;
+  }
+
+  private Task createTask(String title, Column column) {
+    Task task = Task.builder().title(title).description("Description").column(column).build();
+    entityManager.persistAndFlush(task);
+    return task;
+  }
+
+  private void createSubtask(String title, Task task) {
+    entityManager.persistAndFlush(Subtask.builder().title(title).completed(false).task(task).build());
+  }
+}
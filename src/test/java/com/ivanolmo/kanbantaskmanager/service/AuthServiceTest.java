@@ -6,6 +6,7 @@ import com.ivanolmo.kanbantaskmanager.dto.auth.AuthResponseDTO;
 import com.ivanolmo.kanbantaskmanager.entity.User;
 import com.ivanolmo.kanbantaskmanager.exception.AuthException;
 import com.ivanolmo.kanbantaskmanager.repository.UserRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -14,19 +15,26 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 
-import java.util.Optional;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,11 +44,13 @@ public class AuthServiceTest {
   @MockBean
   private AuthenticationManager authenticationManager;
   @MockBean
-  private BCryptPasswordEncoder passwordEncoder;
+  private PasswordEncoder passwordEncoder;
   @MockBean
   private UserRepository userRepository;
   @MockBean
   private JwtService jwtService;
+  @MockBean(name = "passwordHashingExecutor")
+  private ThreadPoolTaskExecutor passwordHashingExecutor;
   @Autowired
   private AuthService authService;
   @Captor
@@ -60,6 +70,12 @@ public class AuthServiceTest {
     request.setPassword(password);
 
     user = User.builder().email(email).password(password).build();
+
+    // run hashing work inline so results and exceptions are deterministic
+    doAnswer(invocation -> {
+      invocation.getArgument(0, Runnable.class).run();
+      return null;
+    }).when(passwordHashingExecutor).execute(any(Runnable.class));
   }
 
   @Test
@@ -72,7 +88,7 @@ public class AuthServiceTest {
     when(jwtService.generateToken(userDetailsCaptor.capture())).thenReturn("token");
 
     // then
-    AuthResponseDTO response = authService.register(request);
+    AuthResponseDTO response = authService.register(request).join();
     UserDetailsImpl capturedUserDetails = userDetailsCaptor.getValue();
 
     assertEquals(user.getId(), response.getUserId(), "User ID should match");
@@ -88,14 +104,17 @@ public class AuthServiceTest {
   @Test
   public void testRegister_emailAlreadyInUse() {
     // given
-    User existingUser = User.builder().email(request.getEmail()).password("existingPassword").build();
-    when(userRepository.findByEmail(request.getEmail().toLowerCase())).thenReturn(Optional.of(existingUser));
+    when(passwordEncoder.encode(request.getPassword())).thenReturn("encodedPassword");
+    when(userRepository.saveAndFlush(any(User.class)))
+        .thenThrow(new DataIntegrityViolationException("could not execute statement",
+            new ConstraintViolationException("duplicate key", null, User.EMAIL_KEY_CONSTRAINT)));
 
     // then
-    AuthException thrown = assertThrows(AuthException.class, () -> {
+    CompletionException completionException = assertThrows(CompletionException.class, () -> {
       // when
-      authService.register(request);
+      authService.register(request).join();
     });
+    AuthException thrown = assertInstanceOf(AuthException.class, completionException.getCause());
 
     assertEquals(HttpStatus.BAD_REQUEST, thrown.getHttpStatus());
     assertEquals("Email is already in use", thrown.getMessage());
@@ -110,11 +129,11 @@ public class AuthServiceTest {
 
     // when
     when(authenticationManager.authenticate(credentials)).thenReturn(mockAuthentication);
-    when(userRepository.findByEmail(request.getEmail())).thenReturn(Optional.of(user));
+    when(mockAuthentication.getPrincipal()).thenReturn(new UserDetailsImpl(user));
     when(jwtService.generateToken(userDetailsCaptor.capture())).thenReturn("token");
 
     // then
-    AuthResponseDTO response = authService.login(request);
+    AuthResponseDTO response = authService.login(request).join();
     UserDetailsImpl capturedUserDetails = userDetailsCaptor.getValue();
 
     assertEquals(user.getId(), response.getUserId(), "User ID should match");
@@ -124,7 +143,7 @@ public class AuthServiceTest {
 
     // verify interactions
     verify(authenticationManager).authenticate(credentials);
-    verify(userRepository).findByEmail(request.getEmail());
+    verify(userRepository, never()).findByEmailKey(any());
     verify(jwtService).generateToken(any(UserDetailsImpl.class));
   }
 
@@ -140,14 +159,36 @@ public class AuthServiceTest {
     when(authenticationManager.authenticate(credentials))
         .thenThrow(new BadCredentialsException("Bad credentials"));
 
+    // then
+    CompletionException completionException = assertThrows(
+        CompletionException.class,
+        () -> authService.login(request).join(),
+        "Expected login to fail for bad credentials"
+    );
+    AuthException thrown = assertInstanceOf(AuthException.class, completionException.getCause(),
+        "Expected login to throw AuthenticationException for bad credentials");
+
+    assertEquals("Invalid email or password", thrown.getMessage(), "Exception message should match");
+    assertEquals(HttpStatus.UNAUTHORIZED, thrown.getHttpStatus(), "HTTP status should be 401 Unauthorized");
+  }
+
+  @Test
+  public void testLogin_executorSaturated() {
+    // given
+    doThrow(new TaskRejectedException("Queue full"))
+        .when(passwordHashingExecutor).execute(any(Runnable.class));
+
     // then
     AuthException thrown = assertThrows(
         AuthException.class,
         () -> authService.login(request),
-        "Expected login to throw AuthenticationException for bad credentials"
+        "Expected login to be rejected when the hashing pool is saturated"
     );
 
-    assertEquals("Invalid email or password", thrown.getMessage(), "Exception message should match");
-    assertEquals(HttpStatus.UNAUTHORIZED, thrown.getHttpStatus(), "HTTP status should be 401 Unauthorized");
+    assertEquals(HttpStatus.TOO_MANY_REQUESTS, thrown.getHttpStatus(),
+        "HTTP status should be 429 Too Many Requests");
+
+    // verify interactions
+    verify(authenticationManager, never()).authenticate(any());
   }
 }
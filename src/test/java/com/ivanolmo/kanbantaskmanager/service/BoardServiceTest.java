@@ -2,20 +2,36 @@ package com.ivanolmo.kanbantaskmanager.service;
 
 import com.ivanolmo.kanbantaskmanager.dto.BoardDTO;
 import com.ivanolmo.kanbantaskmanager.dto.BoardInfo;
+import com.ivanolmo.kanbantaskmanager.dto.BoardPageDTO;
+import com.ivanolmo.kanbantaskmanager.dto.BoardRow;
 import com.ivanolmo.kanbantaskmanager.dto.ColumnDTO;
+import com.ivanolmo.kanbantaskmanager.dto.ColumnRow;
+import com.ivanolmo.kanbantaskmanager.dto.SubtaskRow;
+import com.ivanolmo.kanbantaskmanager.dto.TaskDTO;
+import com.ivanolmo.kanbantaskmanager.dto.TaskRow;
 import com.ivanolmo.kanbantaskmanager.entity.Board;
 import com.ivanolmo.kanbantaskmanager.entity.User;
 import com.ivanolmo.kanbantaskmanager.exception.EntityOperationException;
 import com.ivanolmo.kanbantaskmanager.mapper.BoardMapper;
 import com.ivanolmo.kanbantaskmanager.repository.BoardRepository;
+import com.ivanolmo.kanbantaskmanager.repository.ColumnRepository;
+import com.ivanolmo.kanbantaskmanager.repository.SubtaskRepository;
+import com.ivanolmo.kanbantaskmanager.repository.TaskRepository;
+import com.ivanolmo.kanbantaskmanager.util.KeysetCursor;
 import com.ivanolmo.kanbantaskmanager.util.UserHelper;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -36,6 +52,12 @@ public class BoardServiceTest {
     @MockBean
     private BoardRepository boardRepository;
     @MockBean
+    private ColumnRepository columnRepository;
+    @MockBean
+    private TaskRepository taskRepository;
+    @MockBean
+    private SubtaskRepository subtaskRepository;
+    @MockBean
     private BoardMapper boardMapper;
     @MockBean
     private UserHelper userHelper;
@@ -57,40 +79,71 @@ public class BoardServiceTest {
         lenient().when(securityContext.getAuthentication()).thenReturn(authentication);
         lenient().when(authentication.getName()).thenReturn(username);
 
+        when(userHelper.getCurrentUserId()).thenReturn(user.getId());
         when(userHelper.getCurrentUser()).thenReturn(user);
     }
 
     @Test
     public void testGetAllUserBoards() {
         // given
-        Board board1 = new Board();
-        Board board2 = new Board();
-        Board board3 = new Board();
-        List<Board> userBoards = Arrays.asList(board1, board2, board3);
-
-        BoardDTO boardDTO1 = new BoardDTO();
-        BoardDTO boardDTO2 = new BoardDTO();
-        BoardDTO boardDTO3 = new BoardDTO();
-        List<BoardDTO> returnedBoardDTOs = Arrays.asList(boardDTO1, boardDTO2, boardDTO3);
+        LocalDateTime now = LocalDateTime.now();
+        List<BoardRow> boardRows = Arrays.asList(
+                BoardRow.builder().id("board1").name("Board 1").build(),
+                BoardRow.builder().id("board2").name("Board 2").build());
+        List<ColumnRow> columnRows = List.of(
+                ColumnRow.builder().id("column1").boardId("board1").name("Column 1").build());
+        List<TaskRow> taskRows = List.of(
+                TaskRow.builder().id("task1").columnId("column1").title("Task 1").build());
+        List<SubtaskRow> subtaskRows = List.of(
+                SubtaskRow.builder().id("subtask1").taskId("task1").title("Subtask 1")
+                        .completed(true).createdAt(now).build());
+        List<String> boardIds = List.of("board1", "board2");
 
         // when
-        when(boardRepository.findAllByUserId(user.getId())).thenReturn(Optional.of(userBoards));
-        when(boardMapper.toDTO(board1)).thenReturn(boardDTO1);
-        when(boardMapper.toDTO(board2)).thenReturn(boardDTO2);
-        when(boardMapper.toDTO(board3)).thenReturn(boardDTO3);
+        when(boardRepository.findBoardRowsByUserId(user.getId(), PageRequest.of(0, 51)))
+                .thenReturn(boardRows);
+        when(columnRepository.findColumnRowsByBoardIds(boardIds)).thenReturn(columnRows);
+        when(taskRepository.findTaskRowsByBoardIds(boardIds)).thenReturn(taskRows);
+        when(subtaskRepository.findSubtaskRowsByBoardIds(boardIds)).thenReturn(subtaskRows);
 
         // then
-        List<BoardDTO> result = boardService.getAllUserBoards();
+        BoardPageDTO page = boardService.getAllUserBoards(null, 50);
+        List<BoardDTO> result = page.getBoards();
         assertNotNull(result, "Result should not be null");
-        assertEquals(returnedBoardDTOs.size(), result.size(), "The number of boards should match");
-        assertEquals(boardDTO1, result.get(0), "The BoardDTO instances should match");
-        assertEquals(boardDTO2, result.get(1), "The BoardDTO instances should match");
-        assertEquals(boardDTO3, result.get(2), "The BoardDTO instances should match");
+        assertNull(page.getNextCursor(), "There should be no next page");
+        assertEquals(2, result.size(), "The number of boards should match");
+        assertEquals("board1", result.get(0).getId(), "Board order should be preserved");
+        assertEquals(1, result.get(0).getColumns().size(), "Board 1 should have one column");
+        assertTrue(result.get(1).getColumns().isEmpty(), "Board 2 should have no columns");
+
+        TaskDTO task = result.get(0).getColumns().get(0).getTasks().get(0);
+        assertEquals("column1", task.getColumnId(), "Task column id should match");
+        assertEquals(1, task.getSubtasks().size(), "Task should have one subtask");
+        assertTrue(task.getSubtasks().get(0).getCompleted(), "Subtask state should match");
 
         // verify
-        verify(userHelper).getCurrentUser();
-        verify(boardRepository).findAllByUserId(anyString());
-        verify(boardMapper, times(3)).toDTO(any(Board.class));
+        verify(userHelper).getCurrentUserId();
+        verify(boardRepository).findBoardRowsByUserId(anyString(), any(Pageable.class));
+        verify(columnRepository).findColumnRowsByBoardIds(boardIds);
+        verify(taskRepository).findTaskRowsByBoardIds(boardIds);
+        verify(subtaskRepository).findSubtaskRowsByBoardIds(boardIds);
+        verify(boardMapper, never()).toDTO(any(Board.class));
+    }
+
+    @Test
+    public void testGetAllUserBoards_NoBoards() {
+        // when
+        when(boardRepository.findBoardRowsByUserId(anyString(), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        // then
+        List<BoardDTO> result = boardService.getAllUserBoards(null, 50).getBoards();
+        assertTrue(result.isEmpty(), "Result should be empty");
+
+        // verify child levels are not queried
+        verify(columnRepository, never()).findColumnRowsByBoardIds(anyList());
+        verify(taskRepository, never()).findTaskRowsByBoardIds(anyList());
+        verify(subtaskRepository, never()).findSubtaskRowsByBoardIds(anyList());
     }
 
   @Test
@@ -99,15 +152,155 @@ public class BoardServiceTest {
   // N/A for this test
 
   // when
-  when(userHelper.getCurrentUser())
+  when(userHelper.getCurrentUserId())
   .thenThrow(new EntityOperationException("User", "read", HttpStatus.NOT_FOUND));
 
   // then
   EntityOperationException e = assertThrows(EntityOperationException.class, () ->
-  boardService.getAllUserBoards());
+  boardService.getAllUserBoards(null, 50));
   assertEquals("User read operation failed", e.getMessage(), "The exception message should match");
   }
 
+    @Test
+    public void testGetAllUserBoards_NextPage() {
+        // given
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+        List<BoardRow> boardRows = List.of(
+                BoardRow.builder().id("board3").updatedAt(updatedAt.plusMinutes(1)).build(),
+                BoardRow.builder().id("board2").updatedAt(updatedAt).build(),
+                BoardRow.builder().id("board1").updatedAt(updatedAt.minusMinutes(1)).build());
+        String cursor = new KeysetCursor(updatedAt, "board4").encode();
+
+        // when
+        when(boardRepository.findBoardRowsByUserIdAfter(user.getId(), updatedAt, "board4",
+                PageRequest.of(0, 3))).thenReturn(boardRows);
+
+        // then
+        BoardPageDTO page = boardService.getAllUserBoards(cursor, 2);
+        assertEquals(2, page.getBoards().size(), "Page size should be limited");
+        assertEquals("board2", page.getBoards().get(1).getId(), "Last board should match");
+
+        KeysetCursor next = KeysetCursor.decode(page.getNextCursor());
+        assertEquals(updatedAt, next.updatedAt(), "Next cursor should point at the last board");
+        assertEquals("board2", next.id(), "Next cursor should point at the last board");
+
+        // verify
+        verify(boardRepository, never()).findBoardRowsByUserId(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    public void testGetAllUserBoards_InvalidCursor() {
+        // then
+        EntityOperationException e = assertThrows(EntityOperationException.class,
+                () -> boardService.getAllUserBoards("not-a-cursor", 50));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getHttpStatus(), "Status should be bad request");
+
+        // verify
+        verify(boardRepository, never()).findBoardRowsByUserIdAfter(anyString(),
+                any(LocalDateTime.class), anyString(), any(Pageable.class));
+    }
+
+    @Test
+    public void testGetBoard() {
+        // given
+        BoardRow boardRow = BoardRow.builder().id("board").name("Board").build();
+        List<String> boardIds = List.of("board");
+        List<ColumnRow> columnRows = List.of(
+                ColumnRow.builder().id("column").boardId("board").name("Column").build());
+        List<TaskRow> taskRows = List.of(
+                TaskRow.builder().id("task").columnId("column").title("Task").build());
+
+        // when
+        when(boardRepository.findBoardRowByIdAndUserId("board", user.getId()))
+                .thenReturn(Optional.of(boardRow));
+        when(columnRepository.findColumnRowsByBoardIds(boardIds)).thenReturn(columnRows);
+        when(taskRepository.findTaskRowsByBoardIds(boardIds)).thenReturn(taskRows);
+        when(subtaskRepository.findSubtaskRowsByBoardIds(boardIds)).thenReturn(List.of());
+
+        // then
+        BoardDTO result = boardService.getBoard("board", true);
+        assertEquals("board", result.getId(), "Board id should match");
+        assertEquals(1, result.getColumns().get(0).getTasks().size(), "Tasks should be loaded");
+
+        // verify
+        verify(boardRepository).findBoardRowByIdAndUserId("board", user.getId());
+        verify(taskRepository).findTaskRowsByBoardIds(boardIds);
+    }
+
+    @Test
+    public void testGetBoard_WithoutTasks() {
+        // given
+        BoardRow boardRow = BoardRow.builder().id("board").name("Board").build();
+        List<ColumnRow> columnRows = List.of(
+                ColumnRow.builder().id("column").boardId("board").name("Column").build());
+
+        // when
+        when(boardRepository.findBoardRowByIdAndUserId("board", user.getId()))
+                .thenReturn(Optional.of(boardRow));
+        when(columnRepository.findColumnRowsByBoardIds(List.of("board"))).thenReturn(columnRows);
+
+        // then
+        BoardDTO result = boardService.getBoard("board", false);
+        assertEquals(1, result.getColumns().size(), "Columns should be loaded");
+        assertNull(result.getColumns().get(0).getTasks(), "Tasks should not be loaded");
+
+        // verify
+        verify(taskRepository, never()).findTaskRowsByBoardIds(anyList());
+        verify(subtaskRepository, never()).findSubtaskRowsByBoardIds(anyList());
+    }
+
+    @Test
+    public void testGetBoard_BoardNotFoundException() {
+        // when
+        when(boardRepository.findBoardRowByIdAndUserId("board", user.getId()))
+                .thenReturn(Optional.empty());
+
+        // then
+        EntityOperationException e = assertThrows(EntityOperationException.class,
+                () -> boardService.getBoard("board", true));
+        assertEquals("Board read operation failed", e.getMessage(),
+                "The exception message should match");
+        assertEquals(HttpStatus.NOT_FOUND, e.getHttpStatus(), "Status should be not found");
+    }
+
+    @Test
+    public void testGetBoardColumn() {
+        // given
+        ColumnRow columnRow = ColumnRow.builder().id("column").boardId("board").build();
+        List<TaskRow> taskRows = List.of(
+                TaskRow.builder().id("task").columnId("column").title("Task").build());
+        List<SubtaskRow> subtaskRows = List.of(
+                SubtaskRow.builder().id("subtask").taskId("task").completed(false).build());
+
+        // when
+        when(columnRepository.findColumnRowByIdAndBoardIdAndUserId("column", "board",
+                user.getId())).thenReturn(Optional.of(columnRow));
+        when(taskRepository.findTaskRowsByColumnId("column")).thenReturn(taskRows);
+        when(subtaskRepository.findSubtaskRowsByColumnId("column")).thenReturn(subtaskRows);
+
+        // then
+        ColumnDTO result = boardService.getBoardColumn("board", "column");
+        assertEquals("column", result.getId(), "Column id should match");
+        assertEquals(1, result.getTasks().get(0).getSubtasks().size(),
+                "Subtasks should be loaded");
+    }
+
+    @Test
+    public void testGetBoardColumn_ColumnNotFoundException() {
+        // when
+        when(columnRepository.findColumnRowByIdAndBoardIdAndUserId("column", "board",
+                user.getId())).thenReturn(Optional.empty());
+
+        // then
+        EntityOperationException e = assertThrows(EntityOperationException.class,
+                () -> boardService.getBoardColumn("board", "column"));
+        assertEquals("Column read operation failed", e.getMessage(),
+                "The exception message should match");
+
+        // verify
+        verify(taskRepository, never()).findTaskRowsByColumnId(anyString());
+    }
+
     @Test
     public void testAddBoardToUser() {
         // given
@@ -116,10 +309,8 @@ public class BoardServiceTest {
         BoardDTO returnedBoardDTO = BoardDTO.builder().name("New Board").build();
 
         // when
-        when(boardRepository.findByNameAndUserId(boardDTO.getName(), user.getId()))
-                .thenReturn(Optional.empty());
         when(boardMapper.toEntity(boardDTO)).thenReturn(board);
-        when(boardRepository.save(any(Board.class))).thenReturn(board);
+        when(boardRepository.saveAndFlush(any(Board.class))).thenReturn(board);
         when(boardMapper.toDTO(board)).thenReturn(returnedBoardDTO);
 
         // then
@@ -129,9 +320,8 @@ public class BoardServiceTest {
 
         // verify interactions
         verify(userHelper).getCurrentUser();
-        verify(boardRepository).findByNameAndUserId(anyString(), anyString());
         verify(boardMapper).toEntity(boardDTO);
-        verify(boardRepository).save(any(Board.class));
+        verify(boardRepository).saveAndFlush(any(Board.class));
         verify(boardMapper).toDTO(board);
     }
 
@@ -159,11 +349,12 @@ public class BoardServiceTest {
     public void testAddBoardToUser_BoardAlreadyExistsException() {
         // given
         BoardDTO boardDTO = BoardDTO.builder().name("Existing Board").build();
-        Board board = Board.builder().id("board").name(boardDTO.getName()).user(user).build();
+        Board board = Board.builder().name(boardDTO.getName()).user(user).build();
 
         // when
-        when(boardRepository.findByNameAndUserId(boardDTO.getName(), user.getId()))
-                .thenReturn(Optional.of(board));
+        when(boardMapper.toEntity(boardDTO)).thenReturn(board);
+        when(boardRepository.saveAndFlush(any(Board.class)))
+                .thenThrow(duplicateKey(Board.NAME_KEY_CONSTRAINT));
 
         // then
         EntityOperationException e = assertThrows(EntityOperationException.class,
@@ -173,8 +364,7 @@ public class BoardServiceTest {
 
         // verify interactions
         verify(userHelper).getCurrentUser();
-        verify(boardRepository).findByNameAndUserId(boardDTO.getName(), user.getId());
-        verify(boardRepository, never()).save(any(Board.class));
+        verify(boardRepository).saveAndFlush(any(Board.class));
     }
 
     @Test
@@ -184,10 +374,8 @@ public class BoardServiceTest {
         Board board = Board.builder().name(boardDTO.getName()).user(user).build();
 
         // when
-        when(boardRepository.findByNameAndUserId(boardDTO.getName(), user.getId()))
-                .thenReturn(Optional.empty());
         when(boardMapper.toEntity(boardDTO)).thenReturn(board);
-        doThrow(new RuntimeException("Error")).when(boardRepository).save(any(Board.class));
+        doThrow(new RuntimeException("Error")).when(boardRepository).saveAndFlush(any(Board.class));
 
         // then
         EntityOperationException e = assertThrows(EntityOperationException.class,
@@ -196,9 +384,8 @@ public class BoardServiceTest {
                 "The exception message should match");
 
         verify(userHelper).getCurrentUser();
-        verify(boardRepository).findByNameAndUserId(anyString(), anyString());
         verify(boardMapper).toEntity(boardDTO);
-        verify(boardRepository).save(any(Board.class));
+        verify(boardRepository).saveAndFlush(any(Board.class));
     }
 
     @Test
@@ -213,11 +400,11 @@ public class BoardServiceTest {
         BoardDTO boardDTO = BoardDTO.builder().name("New Board Name").columns(columnDTOs).build();
 
         // when
-        when(userHelper.getCurrentUser()).thenReturn(user);
+        when(userHelper.getCurrentUserId()).thenReturn(user.getId());
         when(boardRepository.findByIdAndUserId("boardId", user.getId()))
                 .thenReturn(Optional.of(board));
         when(columnService.updateColumns("boardId", columnDTOs)).thenReturn(columnDTOs);
-        when(boardRepository.save(any(Board.class))).thenReturn(board);
+        when(boardRepository.saveAndFlush(any(Board.class))).thenReturn(board);
         when(boardMapper.toDTO(any(Board.class))).thenReturn(boardDTO);
 
         // Assertions
@@ -227,13 +414,56 @@ public class BoardServiceTest {
         assertFalse(result.getColumns().isEmpty(), "Columns should not be empty");
 
         // verify interactions
-        verify(userHelper).getCurrentUser();
+        verify(userHelper).getCurrentUserId();
         verify(boardRepository).findByIdAndUserId("boardId", user.getId());
         verify(columnService).updateColumns(anyString(), anyList());
-        verify(boardRepository).save(board);
+        verify(boardRepository).saveAndFlush(board);
         verify(boardMapper).toDTO(board);
     }
 
+    @Test
+    public void testUpdateBoard_VersionMismatchException() {
+        // given
+        Board board = Board.builder().id("boardId").name("Board").user(user).version(2L).build();
+        BoardDTO boardDTO = BoardDTO.builder().name("Board").version(1L).build();
+
+        // when
+        when(boardRepository.findByIdAndUserId("boardId", user.getId()))
+                .thenReturn(Optional.of(board));
+
+        // then
+        EntityOperationException e = assertThrows(EntityOperationException.class,
+                () -> boardService.updateBoard("boardId", boardDTO));
+        assertEquals(HttpStatus.PRECONDITION_FAILED, e.getHttpStatus(),
+                "A stale version should be rejected with 412");
+
+        // verify interactions
+        verify(boardRepository, never()).saveAndFlush(any(Board.class));
+        verify(columnService, never()).updateColumns(anyString(), anyList());
+    }
+
+    @Test
+    public void testUpdateBoard_ConcurrentModificationException() {
+        // given
+        Board board = Board.builder().id("boardId").name("Board").user(user).version(1L).build();
+        BoardDTO boardDTO = BoardDTO.builder().name("Board").version(1L).build();
+
+        // when
+        when(boardRepository.findByIdAndUserId("boardId", user.getId()))
+                .thenReturn(Optional.of(board));
+        when(boardRepository.saveAndFlush(board))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Board.class, "boardId"));
+
+        // then
+        EntityOperationException e = assertThrows(EntityOperationException.class,
+                () -> boardService.updateBoard("boardId", boardDTO));
+        assertEquals(HttpStatus.PRECONDITION_FAILED, e.getHttpStatus(),
+                "A lost race should be rejected with 412");
+
+        // verify interactions
+        verify(columnService, never()).updateColumns(anyString(), anyList());
+    }
+
     @Test
     public void testUpdateBoard_UserNotFoundException() {
         // given
@@ -246,7 +476,7 @@ public class BoardServiceTest {
         BoardDTO boardDTO = BoardDTO.builder().name("New Board Name").columns(columnDTOs).build();
 
         // when
-        when(userHelper.getCurrentUser())
+        when(userHelper.getCurrentUserId())
                 .thenThrow(new EntityOperationException("User", "read", HttpStatus.NOT_FOUND));
         EntityOperationException e = assertThrows(EntityOperationException.class,
                 () -> boardService.updateBoard(board.getId(), boardDTO));
@@ -256,7 +486,7 @@ public class BoardServiceTest {
                 "The exception message should match");
 
         // verify interactions
-        verify(userHelper).getCurrentUser();
+        verify(userHelper).getCurrentUserId();
         verify(boardRepository, never()).save(any(Board.class));
     }
 
@@ -274,7 +504,7 @@ public class BoardServiceTest {
         BoardDTO boardDTO = BoardDTO.builder().name("New Board Name").columns(columnDTOs).build();
 
         // when
-        when(userHelper.getCurrentUser()).thenReturn(currentUser);
+        when(userHelper.getCurrentUserId()).thenReturn(currentUser.getId());
         when(boardRepository.findByIdAndUserId(otherBoard.getId(), currentUser.getId()))
                 .thenReturn(Optional.of(otherBoard));
 
@@ -285,7 +515,7 @@ public class BoardServiceTest {
                 "The exception message should match");
 
         // verify interactions
-        verify(userHelper).getCurrentUser();
+        verify(userHelper).getCurrentUserId();
         verify(boardRepository).findByIdAndUserId(otherBoard.getId(), currentUser.getId());
         verify(boardRepository, never()).save(any(Board.class));
     }
@@ -296,7 +526,7 @@ public class BoardServiceTest {
         BoardDTO boardDTO = BoardDTO.builder().id("boardId").build();
 
         // when
-        when(userHelper.getCurrentUser()).thenReturn(user);
+        when(userHelper.getCurrentUserId()).thenReturn(user.getId());
         when(boardRepository.findByIdAndUserId(boardDTO.getId(), user.getId()))
                 .thenThrow(new EntityOperationException("Board", "read", HttpStatus.NOT_FOUND));
 
@@ -307,7 +537,7 @@ public class BoardServiceTest {
                 "The exception message should match");
 
         // verify interactions
-        verify(userHelper).getCurrentUser();
+        verify(userHelper).getCurrentUserId();
         verify(boardRepository).findByIdAndUserId(boardDTO.getId(), user.getId());
         verify(boardRepository, never()).save(any(Board.class));
     }
@@ -316,7 +546,6 @@ public class BoardServiceTest {
     public void testUpdateBoard_BoardAlreadyExistsException() {
         // given
         Board existingBoard = Board.builder().id("boardId").user(user).build();
-        Board anotherBoard = Board.builder().id("anotherBoardId").user(user).build();
         ColumnDTO columnDTO = ColumnDTO.builder().id("col1").name("Column One").color("#FF5733")
                 .createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now())
                 .tasks(new ArrayList<>()).build();
@@ -326,11 +555,11 @@ public class BoardServiceTest {
                 BoardDTO.builder().name("Duplicate Board Name").columns(columnDTOs).build();
 
         // when
-        when(userHelper.getCurrentUser()).thenReturn(user);
+        when(userHelper.getCurrentUserId()).thenReturn(user.getId());
         when(boardRepository.findByIdAndUserId(existingBoard.getId(), user.getId()))
                 .thenReturn(Optional.of(existingBoard));
-        when(boardRepository.findByNameAndUserId(boardDTO.getName(), user.getId()))
-                .thenReturn(Optional.of(anotherBoard));
+        when(boardRepository.saveAndFlush(existingBoard))
+                .thenThrow(duplicateKey(Board.NAME_KEY_CONSTRAINT));
 
         // then
         EntityOperationException e = assertThrows(EntityOperationException.class,
@@ -339,10 +568,9 @@ public class BoardServiceTest {
                 "The exception message should match");
 
         // verify interactions
-        verify(userHelper).getCurrentUser();
+        verify(userHelper).getCurrentUserId();
         verify(boardRepository).findByIdAndUserId(existingBoard.getId(), user.getId());
-        verify(boardRepository).findByNameAndUserId(boardDTO.getName(), user.getId());
-        verify(boardRepository, never()).save(any(Board.class));
+        verify(columnService, never()).updateColumns(anyString(), anyList());
     }
 
     @Test
@@ -358,12 +586,10 @@ public class BoardServiceTest {
                 BoardDTO.builder().name("Updated Board Name").columns(columnDTOs).build();
 
         // when
-        when(userHelper.getCurrentUser()).thenReturn(user);
+        when(userHelper.getCurrentUserId()).thenReturn(user.getId());
         when(boardRepository.findByIdAndUserId(board.getId(), user.getId()))
                 .thenReturn(Optional.of(board));
-        when(boardRepository.findByNameAndUserId(boardDTO.getName(), user.getId()))
-                .thenReturn(Optional.empty());
-        doThrow(new RuntimeException("Error")).when(boardRepository).save(any(Board.class));
+        doThrow(new RuntimeException("Error")).when(boardRepository).saveAndFlush(any(Board.class));
 
         // then
         EntityOperationException e = assertThrows(EntityOperationException.class,
@@ -372,10 +598,9 @@ public class BoardServiceTest {
                 "The exception message should match");
 
         // verify interactions
-        verify(userHelper).getCurrentUser();
+        verify(userHelper).getCurrentUserId();
         verify(boardRepository).findByIdAndUserId(board.getId(), user.getId());
-        verify(boardRepository).findByNameAndUserId(boardDTO.getName(), user.getId());
-        verify(boardRepository).save(any(Board.class));
+        verify(boardRepository).saveAndFlush(any(Board.class));
     }
 
     @Test
@@ -387,15 +612,16 @@ public class BoardServiceTest {
 
         // when
         when(boardRepository.findBoardInfoById(board.getId())).thenReturn(Optional.of(boardInfo));
-        doNothing().when(boardRepository).deleteById(board.getId());
+        when(boardRepository.softDelete(eq(board.getId()), eq(user.getId()),
+                any(LocalDateTime.class))).thenReturn(1);
 
         // then
         boardService.deleteBoard(board.getId());
 
         // verify interactions
-        verify(userHelper).getCurrentUser();
+        verify(userHelper).getCurrentUserId();
         verify(boardRepository).findBoardInfoById(anyString());
-        verify(boardRepository).deleteById(anyString());
+        verify(boardRepository).softDelete(anyString(), anyString(), any(LocalDateTime.class));
     }
 
     @Test
@@ -404,7 +630,7 @@ public class BoardServiceTest {
         Board board = Board.builder().id("board").name("Board Name").user(user).build();
 
         // when
-        when(userHelper.getCurrentUser())
+        when(userHelper.getCurrentUserId())
                 .thenThrow(new EntityOperationException("User", "read", HttpStatus.NOT_FOUND));
 
         // then
@@ -414,7 +640,7 @@ public class BoardServiceTest {
                 "The exception message should " + "match");
 
         // verify interactions
-        verify(userHelper).getCurrentUser();
+        verify(userHelper).getCurrentUserId();
     }
 
     @Test
@@ -435,9 +661,9 @@ public class BoardServiceTest {
                 "The exception message should match");
 
         // verify interactions
-        verify(userHelper).getCurrentUser();
+        verify(userHelper).getCurrentUserId();
         verify(boardRepository).findBoardInfoById(anyString());
-        verify(boardRepository, never()).deleteById(anyString());
+        verify(boardRepository, never()).softDelete(anyString(), anyString(), any());
     }
 
     @Test
@@ -456,9 +682,9 @@ public class BoardServiceTest {
                 "The exception message should match");
 
         // verify interactions
-        verify(userHelper).getCurrentUser();
+        verify(userHelper).getCurrentUserId();
         verify(boardRepository).findBoardInfoById(anyString());
-        verify(boardRepository, never()).deleteById(anyString());
+        verify(boardRepository, never()).softDelete(anyString(), anyString(), any());
     }
 
     @Test
@@ -470,8 +696,10 @@ public class BoardServiceTest {
 
         // when
         when(boardRepository.findBoardInfoById(board.getId())).thenReturn(Optional.of(boardInfo));
-        doThrow(new EntityOperationException("Board", "delete", HttpStatus.INTERNAL_SERVER_ERROR))
-                .when(boardRepository).deleteById(board.getId());
+        when(boardRepository.softDelete(eq(board.getId()), eq(user.getId()),
+                any(LocalDateTime.class)))
+                .thenThrow(new EntityOperationException("Board", "delete",
+                        HttpStatus.INTERNAL_SERVER_ERROR));
 
         // then
         Exception e = assertThrows(EntityOperationException.class,
@@ -480,8 +708,70 @@ public class BoardServiceTest {
                 "The exception message should match");
 
         // verify interactions
-        verify(userHelper).getCurrentUser();
+        verify(userHelper).getCurrentUserId();
         verify(boardRepository).findBoardInfoById(anyString());
-        verify(boardRepository).deleteById(anyString());
+        verify(boardRepository).softDelete(anyString(), anyString(), any(LocalDateTime.class));
+    }
+
+    @Test
+    public void testRestoreBoard() {
+        // given
+        BoardRow boardRow = BoardRow.builder().id("board").name("Board").version(2L).build();
+        LocalDateTime before = LocalDateTime.now();
+
+        // when
+        when(boardRepository.restore(eq("board"), eq(user.getId()), any(LocalDateTime.class)))
+                .thenReturn(1);
+        when(boardRepository.findBoardRowByIdAndUserId("board", user.getId()))
+                .thenReturn(Optional.of(boardRow));
+
+        // then
+        BoardDTO result = boardService.restoreBoard("board");
+        assertEquals("board", result.getId(), "Board id should match");
+
+        // verify, only boards deleted within the default seven day retention are restored
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(boardRepository).restore(eq("board"), eq(user.getId()), cutoff.capture());
+        assertFalse(cutoff.getValue().isBefore(before.minusDays(7)),
+                "The cutoff should be the retention window before now");
+        assertTrue(cutoff.getValue().isBefore(before.minusDays(6)),
+                "The cutoff should be the retention window before now");
+    }
+
+    @Test
+    public void testRestoreBoard_BoardNotFoundException() {
+        // when
+        when(boardRepository.restore(eq("board"), eq(user.getId()), any(LocalDateTime.class)))
+                .thenReturn(0);
+
+        // then
+        EntityOperationException e = assertThrows(EntityOperationException.class,
+                () -> boardService.restoreBoard("board"));
+        assertEquals("Board restore operation failed", e.getMessage(),
+                "The exception message should match");
+        assertEquals(HttpStatus.NOT_FOUND, e.getHttpStatus(), "The status should be 404");
+
+        // verify interactions
+        verify(boardRepository, never()).findBoardRowByIdAndUserId(anyString(), anyString());
+    }
+
+    @Test
+    public void testRestoreBoard_DuplicateNameException() {
+        // when
+        when(boardRepository.restore(eq("board"), eq(user.getId()), any(LocalDateTime.class)))
+                .thenThrow(duplicateKey(Board.NAME_KEY_CONSTRAINT));
+
+        // then
+        EntityOperationException e = assertThrows(EntityOperationException.class,
+                () -> boardService.restoreBoard("board"));
+        assertEquals("A board with that name already exists", e.getMessage(),
+                "The exception message should match");
+        assertEquals(HttpStatus.CONFLICT, e.getHttpStatus(), "The status should be 409");
+    }
+
+    // what a write that runs into one of the unique key constraints throws
+    private static DataIntegrityViolationException duplicateKey(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("duplicate key", null, constraintName));
     }
 }
@@ -1,11 +1,17 @@
 package com.ivanolmo.kanbantaskmanager.service;
 
 import com.ivanolmo.kanbantaskmanager.dto.ColumnDTO;
+import com.ivanolmo.kanbantaskmanager.dto.ColumnInfo;
+import com.ivanolmo.kanbantaskmanager.dto.PositionRow;
 import com.ivanolmo.kanbantaskmanager.entity.Board;
+import com.ivanolmo.kanbantaskmanager.entity.Column;
 import com.ivanolmo.kanbantaskmanager.entity.User;
 import com.ivanolmo.kanbantaskmanager.exception.EntityOperationException;
 import com.ivanolmo.kanbantaskmanager.repository.BoardRepository;
 import com.ivanolmo.kanbantaskmanager.repository.ColumnRepository;
+import com.ivanolmo.kanbantaskmanager.repository.SubtaskRepository;
+import com.ivanolmo.kanbantaskmanager.repository.TaskRepository;
+import com.ivanolmo.kanbantaskmanager.util.Positions;
 import com.ivanolmo.kanbantaskmanager.util.UserHelper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,6 +29,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -34,6 +41,10 @@ public class ColumnServiceTest {
   @MockBean
   private BoardRepository boardRepository;
   @MockBean
+  private TaskRepository taskRepository;
+  @MockBean
+  private SubtaskRepository subtaskRepository;
+  @MockBean
   private UserHelper userHelper;
   @Autowired
   private ColumnService columnService;
@@ -51,7 +62,7 @@ public class ColumnServiceTest {
     lenient().when(securityContext.getAuthentication()).thenReturn(authentication);
     lenient().when(authentication.getName()).thenReturn(username);
 
-    when(userHelper.getCurrentUser()).thenReturn(user);
+    when(userHelper.getCurrentUserId()).thenReturn(user.getId());
   }
 
   @Test
@@ -64,7 +75,7 @@ public class ColumnServiceTest {
             ColumnDTO.builder().id("column2").name("Column 2").color("blue").build());
 
     // when
-    when(userHelper.getCurrentUser()).thenReturn(user);
+    when(userHelper.getCurrentUserId()).thenReturn(user.getId());
     when(boardRepository.findByIdAndUserId(boardId, user.getId())).thenReturn(Optional.of(board));
     when(columnRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -74,11 +85,46 @@ public class ColumnServiceTest {
     assertEquals(columnDTOs.size(), result.size(), "Result size should match");
 
     // verify
-    verify(userHelper).getCurrentUser();
+    verify(userHelper).getCurrentUserId();
     verify(boardRepository).findByIdAndUserId(anyString(), anyString());
     verify(columnRepository).saveAll(anyList());
   }
 
+  @Test
+  public void testUpdateColumns_OnlyWritesDifferences() {
+    // given
+    String boardId = "board";
+    Board board = Board.builder().id(boardId).user(user).build();
+    Column unchanged = Column.builder().id("column1").name("Column 1").color("#fff").board(board)
+        .build();
+    Column changed = Column.builder().id("column2").name("Column 2").color("#fff").board(board)
+        .build();
+    Column removed = Column.builder().id("column3").name("Column 3").color("#fff").board(board)
+        .build();
+    List<ColumnDTO> columnDTOs = List.of(
+        ColumnDTO.builder().name("Column 0").color("#000").build(),
+        ColumnDTO.builder().id("column1").name("Column 1").color("#fff").build(),
+        ColumnDTO.builder().id("column2").name("Renamed").color("#fff").build());
+
+    // when
+    when(boardRepository.findByIdAndUserId(boardId, user.getId())).thenReturn(Optional.of(board));
+    when(columnRepository.findAllByBoardId(boardId))
+        .thenReturn(Optional.of(List.of(unchanged, changed, removed)));
+
+    // then
+    List<ColumnDTO> result = columnService.updateColumns(boardId, columnDTOs);
+    assertEquals(List.of("Column 0", "Column 1", "Renamed"),
+        result.stream().map(ColumnDTO::getName).toList(), "Result should follow request order");
+    assertEquals("Renamed", changed.getName(), "Changed column should be updated in place");
+
+    // verify
+    verify(columnRepository).saveAll(argThat(columns -> ((List<?>) columns).size() == 1));
+    verify(subtaskRepository).deleteAllByColumnIds(List.of("column3"));
+    verify(taskRepository).deleteAllByColumnIds(List.of("column3"));
+    verify(columnRepository).deleteAllByIdInBatch(List.of("column3"));
+    verify(columnRepository, never()).deleteAll(anyList());
+  }
+
   @Test
   public void testUpdateColumns_UserNotFoundException() {
     // given
@@ -87,7 +133,7 @@ public class ColumnServiceTest {
     List<ColumnDTO> columnDTOs = List.of(columnDTO);
 
     // when
-    when(userHelper.getCurrentUser())
+    when(userHelper.getCurrentUserId())
         .thenThrow(new EntityOperationException("User", "read", HttpStatus.NOT_FOUND));
 
     // then
@@ -97,7 +143,7 @@ public class ColumnServiceTest {
         "The exception message should match");
 
     // verify
-    verify(userHelper).getCurrentUser();
+    verify(userHelper).getCurrentUserId();
     verify(boardRepository, never()).findById(anyString());
   }
 
@@ -110,7 +156,7 @@ public class ColumnServiceTest {
     List<ColumnDTO> columnDTOs = List.of(ColumnDTO.builder().id("column").build());
 
     // when
-    when(userHelper.getCurrentUser()).thenReturn(user);
+    when(userHelper.getCurrentUserId()).thenReturn(user.getId());
     when(boardRepository.findByIdAndUserId(boardId, user.getId()))
         .thenReturn(Optional.of(otherBoard));
 
@@ -121,7 +167,7 @@ public class ColumnServiceTest {
         "The exception message should match");
 
     // verify
-    verify(userHelper).getCurrentUser();
+    verify(userHelper).getCurrentUserId();
     verify(boardRepository).findByIdAndUserId(anyString(), anyString());
     verify(columnRepository, never()).saveAll(anyList());
   }
@@ -133,7 +179,7 @@ public class ColumnServiceTest {
     List<ColumnDTO> columnDTOs = List.of(ColumnDTO.builder().id("column").build());
 
     // when
-    when(userHelper.getCurrentUser()).thenReturn(user);
+    when(userHelper.getCurrentUserId()).thenReturn(user.getId());
     when(boardRepository.findByIdAndUserId(boardId, user.getId()))
         .thenThrow(new EntityOperationException("Board", "read", HttpStatus.NOT_FOUND));
 
@@ -144,8 +190,69 @@ public class ColumnServiceTest {
         "The exception message should match");
 
     // verify
-    verify(userHelper).getCurrentUser();
+    verify(userHelper).getCurrentUserId();
     verify(boardRepository).findByIdAndUserId(anyString(), anyString());
     verify(columnRepository, never()).saveAll(anyList());
   }
+
+  @Test
+  public void testReorderColumn() {
+    // given
+    String boardId = "board";
+    List<PositionRow> siblings = List.of(new PositionRow("column1", Positions.at(0)),
+        new PositionRow("column2", Positions.at(1)));
+
+    // when
+    when(columnRepository.findPositionRowsByBoardIdAndUserId(boardId, user.getId()))
+        .thenReturn(siblings);
+
+    // then
+    columnService.reorderColumn(boardId, "column1", 5);
+
+    // verify, an index past the end moves the column last
+    verify(columnRepository).updatePosition("column1", user.getId(), Positions.at(2));
+    verify(boardRepository, never()).findByIdAndUserId(anyString(), anyString());
+  }
+
+  @Test
+  public void testReorderColumn_ColumnNotFoundException() {
+    // given
+    String boardId = "board";
+
+    // when
+    when(columnRepository.findPositionRowsByBoardIdAndUserId(boardId, user.getId()))
+        .thenReturn(List.of(new PositionRow("column1", Positions.at(0))));
+
+    // then
+    EntityOperationException e = assertThrows(EntityOperationException.class,
+        () -> columnService.reorderColumn(boardId, "otherColumn", 0));
+    assertEquals("Column read operation failed", e.getMessage(),
+        "The exception message should match");
+    assertEquals(HttpStatus.NOT_FOUND, e.getHttpStatus(), "The status should be 404");
+
+    // verify
+    verify(columnRepository, never()).updatePosition(anyString(), anyString(), anyLong());
+  }
+
+  @Test
+  public void testReorderColumn_ForbiddenException() {
+    // given
+    String boardId = "board";
+    ColumnInfo columnInfo = new ColumnInfo("otherColumn", "otherUser", new Column());
+
+    // when
+    when(columnRepository.findPositionRowsByBoardIdAndUserId(boardId, user.getId()))
+        .thenReturn(List.of());
+    when(columnRepository.findColumnInfoById("otherColumn")).thenReturn(Optional.of(columnInfo));
+
+    // then
+    EntityOperationException e = assertThrows(EntityOperationException.class,
+        () -> columnService.reorderColumn(boardId, "otherColumn", 0));
+    assertEquals("You do not have permission to update columns on this board", e.getMessage(),
+        "The exception message should match");
+    assertEquals(HttpStatus.FORBIDDEN, e.getHttpStatus(), "The status should be 403");
+
+    // verify
+    verify(columnRepository, never()).updatePosition(anyString(), anyString(), anyLong());
+  }
 }
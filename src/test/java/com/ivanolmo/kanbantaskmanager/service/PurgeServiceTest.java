@@ -0,0 +1,119 @@
+package com.ivanolmo.kanbantaskmanager.service;
+
+import com.ivanolmo.kanbantaskmanager.repository.BoardRepository;
+import com.ivanolmo.kanbantaskmanager.repository.PurgeLockRepository;
+import com.ivanolmo.kanbantaskmanager.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class PurgeServiceTest {
+  private static final int BATCH_SIZE = 500;
+
+  @MockBean
+  private BoardRepository boardRepository;
+  @MockBean
+  private TaskRepository taskRepository;
+  @SpyBean
+  private PurgeLockRepository purgeLockRepository;
+  @Autowired
+  private PurgeService purgeService;
+
+  @Test
+  public void testPurge_RunsBatchesUntilOneComesBackShort() {
+    // when
+    when(taskRepository.purgeSubtasks(any(LocalDateTime.class), eq(BATCH_SIZE)))
+        .thenReturn(BATCH_SIZE, BATCH_SIZE, 3);
+    when(taskRepository.purgeTasks(any(LocalDateTime.class), eq(BATCH_SIZE))).thenReturn(2);
+    when(boardRepository.purgeBoards(any(LocalDateTime.class), eq(BATCH_SIZE))).thenReturn(1);
+
+    // then
+    assertEquals(2L * BATCH_SIZE + 3 + 2 + 1, purgeService.purge(),
+        "Every purged row should be counted");
+
+    // verify
+    verify(taskRepository, times(3)).purgeSubtasks(any(LocalDateTime.class), eq(BATCH_SIZE));
+    verify(taskRepository).purgeTasks(any(LocalDateTime.class), eq(BATCH_SIZE));
+  }
+
+  @Test
+  public void testPurge_SkipsWhileAnotherInstanceHoldsTheLock() {
+    // when
+    doReturn(false).when(purgeLockRepository).tryLock();
+
+    // then
+    assertEquals(0, purgeService.purge(), "Nothing should be purged without the lock");
+
+    // verify
+    verify(boardRepository, never()).stampTrashedChildren(anyInt());
+    verify(taskRepository, never()).purgeSubtasks(any(LocalDateTime.class), anyInt());
+    verify(boardRepository, never()).purgeBoards(any(LocalDateTime.class), anyInt());
+  }
+
+  @Test
+  public void testPurge_StampsOneBoardPerBatch() {
+    // when
+    when(boardRepository.stampTrashedChildren(1)).thenReturn(1, 1, 0);
+
+    // then
+    purgeService.purge();
+
+    // verify
+    verify(boardRepository, times(3)).stampTrashedChildren(1);
+  }
+
+  @Test
+  public void testPurge_RemovesChildrenFirst() {
+    // then
+    purgeService.purge();
+
+    // verify
+    InOrder order = inOrder(taskRepository, boardRepository);
+    order.verify(boardRepository).stampTrashedChildren(1);
+    order.verify(taskRepository).purgeSubtasks(any(LocalDateTime.class), anyInt());
+    order.verify(taskRepository).purgeTasks(any(LocalDateTime.class), anyInt());
+    order.verify(boardRepository).purgeSubtasks(any(LocalDateTime.class), anyInt());
+    order.verify(boardRepository).purgeTasks(any(LocalDateTime.class), anyInt());
+    order.verify(boardRepository).purgeColumns(any(LocalDateTime.class), anyInt());
+    order.verify(boardRepository).purgeBoards(any(LocalDateTime.class), anyInt());
+  }
+
+  @Test
+  public void testPurge_KeepsBoardsInsideRetention() {
+    // given
+    LocalDateTime before = LocalDateTime.now();
+
+    // then
+    purgeService.purge();
+
+    // verify, deleted tasks go right away while boards wait out the seven day retention
+    ArgumentCaptor<LocalDateTime> taskCutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+    ArgumentCaptor<LocalDateTime> boardCutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+    verify(taskRepository).purgeTasks(taskCutoff.capture(), anyInt());
+    verify(boardRepository).purgeBoards(boardCutoff.capture(), anyInt());
+    assertTrue(!taskCutoff.getValue().isBefore(before), "Deleted tasks should not be retained");
+    assertEquals(taskCutoff.getValue().minusDays(7), boardCutoff.getValue(),
+        "Boards should be retained for seven days");
+  }
+}
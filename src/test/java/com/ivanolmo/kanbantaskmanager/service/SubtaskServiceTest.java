@@ -1,15 +1,17 @@
 package com.ivanolmo.kanbantaskmanager.service;
 
+import com.ivanolmo.kanbantaskmanager.dto.PositionRow;
+import com.ivanolmo.kanbantaskmanager.dto.SubtaskCompletionDTO;
 import com.ivanolmo.kanbantaskmanager.dto.SubtaskDTO;
+import com.ivanolmo.kanbantaskmanager.dto.SubtaskRow;
 import com.ivanolmo.kanbantaskmanager.entity.Task;
-import com.ivanolmo.kanbantaskmanager.entity.Board;
-import com.ivanolmo.kanbantaskmanager.entity.Column;
 import com.ivanolmo.kanbantaskmanager.entity.Subtask;
 import com.ivanolmo.kanbantaskmanager.entity.User;
 import com.ivanolmo.kanbantaskmanager.exception.EntityOperationException;
 import com.ivanolmo.kanbantaskmanager.mapper.SubtaskMapper;
 import com.ivanolmo.kanbantaskmanager.repository.TaskRepository;
 import com.ivanolmo.kanbantaskmanager.repository.SubtaskRepository;
+import com.ivanolmo.kanbantaskmanager.util.Positions;
 import com.ivanolmo.kanbantaskmanager.util.UserHelper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -25,10 +27,15 @@ import org.springframework.test.context.ActiveProfiles;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
@@ -57,7 +64,7 @@ public class SubtaskServiceTest {
     lenient().when(securityContext.getAuthentication()).thenReturn(authentication);
     lenient().when(authentication.getName()).thenReturn(username);
 
-    when(userHelper.getCurrentUser()).thenReturn(user);
+    when(userHelper.getCurrentUserId()).thenReturn(user.getId());
   }
 
   @Test
@@ -67,10 +74,7 @@ public class SubtaskServiceTest {
     SubtaskDTO subtaskDTO =
         SubtaskDTO.builder().id("subtask1").title("title").completed(false).build();
     List<SubtaskDTO> subtaskDTOs = Collections.singletonList(subtaskDTO);
-    User user = User.builder().id("user").build();
-    Board board = Board.builder().user(user).build();
-    Column column = Column.builder().board(board).build();
-    Task task = Task.builder().id(taskId).column(column).build();
+    Task task = Task.builder().id(taskId).userId("user").build();
 
     // when
     when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
@@ -82,12 +86,38 @@ public class SubtaskServiceTest {
     List<SubtaskDTO> result = subtaskService.updateSubtasks(taskId, subtaskDTOs);
 
     // verify interactions
-    verify(userHelper).getCurrentUser();
+    verify(userHelper).getCurrentUserId();
     verify(taskRepository).findById(taskId);
     verify(subtaskRepository).findAllByTaskId(taskId);
     verify(subtaskRepository).saveAll(anyList());
-    verify(subtaskRepository).deleteAllInBatch(anyList());
-    assertTrue(result.isEmpty());
+    verify(subtaskRepository, never()).deleteAllByIdInBatch(anyList());
+    assertEquals(1, result.size(), "New subtask should be returned");
+  }
+
+  @Test
+  public void testUpdateSubtasks_DeletesRemovedInBatch() {
+    // given
+    String taskId = "task";
+    Task task = Task.builder().id(taskId).userId("user").build();
+    Subtask kept = Subtask.builder().id("subtask1").title("title").completed(false).task(task)
+        .build();
+    Subtask removed = Subtask.builder().id("subtask2").title("other").completed(false).task(task)
+        .build();
+    List<SubtaskDTO> subtaskDTOs = List.of(
+        SubtaskDTO.builder().id("subtask1").title("title").completed(false).build());
+
+    // when
+    when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+    when(subtaskRepository.findAllByTaskId(taskId))
+        .thenReturn(Optional.of(List.of(kept, removed)));
+
+    // then
+    List<SubtaskDTO> result = subtaskService.updateSubtasks(taskId, subtaskDTOs);
+    assertEquals(1, result.size(), "Only the kept subtask should be returned");
+
+    // verify interactions
+    verify(subtaskRepository, never()).saveAll(anyList());
+    verify(subtaskRepository).deleteAllByIdInBatch(List.of("subtask2"));
   }
 
   @Test
@@ -99,7 +129,7 @@ public class SubtaskServiceTest {
     List<SubtaskDTO> subtaskDTOs = Collections.singletonList(subtaskDTO);
 
     // when
-    when(userHelper.getCurrentUser())
+    when(userHelper.getCurrentUserId())
         .thenThrow(new EntityOperationException("User", "read", HttpStatus.NOT_FOUND));
 
     // then
@@ -109,7 +139,7 @@ public class SubtaskServiceTest {
         "The exception message should match");
 
     // verify
-    verify(userHelper).getCurrentUser();
+    verify(userHelper).getCurrentUserId();
     verify(taskRepository, never()).findById(anyString());
   }
 
@@ -120,10 +150,7 @@ public class SubtaskServiceTest {
     SubtaskDTO subtaskDTO =
         SubtaskDTO.builder().id("subtask1").title("title").completed(false).build();
     List<SubtaskDTO> subtaskDTOs = Collections.singletonList(subtaskDTO);
-    User otherUser = User.builder().id("otherUser").build();
-    Board board = Board.builder().user(otherUser).build();
-    Column column = Column.builder().board(board).build();
-    Task task = Task.builder().id(taskId).column(column).build();
+    Task task = Task.builder().id(taskId).userId("otherUser").build();
 
     // when
     when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
@@ -135,7 +162,7 @@ public class SubtaskServiceTest {
         "The exception message should match");
 
     // verify
-    verify(userHelper).getCurrentUser();
+    verify(userHelper).getCurrentUserId();
     verify(taskRepository).findById(taskId);
   }
 
@@ -157,7 +184,7 @@ public class SubtaskServiceTest {
         "The exception message should match");
 
     // verify interactions
-    verify(userHelper).getCurrentUser();
+    verify(userHelper).getCurrentUserId();
     verify(taskRepository).findById(taskId);
   }
 
@@ -165,25 +192,22 @@ public class SubtaskServiceTest {
   public void testToggleSubtaskCompletion() {
     // given
     String id = "subtask";
-    User user = User.builder().id("user").build();
-    Board board = Board.builder().user(user).build();
-    Column column = Column.builder().board(board).build();
-    Task task = Task.builder().id("task").column(column).build();
-    Subtask subtask = Subtask.builder().id(id).task(task).completed(false).build();
+    SubtaskRow subtaskRow = SubtaskRow.builder().id(id).taskId("task").completed(true).build();
     SubtaskDTO subtaskDTO = SubtaskDTO.builder().id(id).completed(true).build();
 
     // when
-    when(subtaskRepository.findById(id)).thenReturn(Optional.of(subtask));
-    when(subtaskRepository.save(subtask)).thenReturn(subtask);
-    when(subtaskMapper.toDTO(subtask)).thenReturn(subtaskDTO);
+    when(subtaskRepository.toggleCompletion(eq(id), eq("user"), any())).thenReturn(1);
+    when(subtaskRepository.findSubtaskRowById(id)).thenReturn(Optional.of(subtaskRow));
+    when(subtaskMapper.toDTO(subtaskRow)).thenReturn(subtaskDTO);
 
     // then
     SubtaskDTO result = subtaskService.toggleSubtaskCompletion(id);
 
     // verify interactions
-    verify(userHelper).getCurrentUser();
-    verify(subtaskRepository).findById(id);
-    verify(subtaskRepository).save(subtask);
+    verify(userHelper).getCurrentUserId();
+    verify(subtaskRepository).toggleCompletion(eq(id), eq("user"), any());
+    verify(subtaskRepository, never()).findById(anyString());
+    verify(subtaskRepository, never()).existsById(anyString());
     assertTrue(result.getCompleted());
   }
 
@@ -193,7 +217,7 @@ public class SubtaskServiceTest {
     String id = "subtask";
 
     // when
-    when(userHelper.getCurrentUser())
+    when(userHelper.getCurrentUserId())
         .thenThrow(new EntityOperationException("User", "read", HttpStatus.NOT_FOUND));
 
     // then
@@ -203,47 +227,55 @@ public class SubtaskServiceTest {
         "The exception message should match");
 
     // verify
-    verify(userHelper).getCurrentUser();
-    verify(subtaskRepository, never()).findById(anyString());
+    verify(userHelper).getCurrentUserId();
+    verify(subtaskRepository, never()).toggleCompletion(anyString(), anyString(), any());
+  }
+
+  @Test
+  public void testToggleSubtaskCompletion_SubtaskNotFoundException() {
+    // given
+    String id = "subtask";
+
+    // when
+    when(subtaskRepository.toggleCompletion(eq(id), eq("user"), any())).thenReturn(0);
+    when(subtaskRepository.existsById(id)).thenReturn(false);
+
+    // then
+    EntityOperationException e = assertThrows(EntityOperationException.class,
+        () -> subtaskService.toggleSubtaskCompletion(id));
+    assertEquals("Subtask read operation failed", e.getMessage(),
+        "The exception message should match");
+    assertEquals(HttpStatus.NOT_FOUND, e.getHttpStatus(), "The status should be 404");
   }
 
   @Test
   public void testToggleSubtaskCompletion_UserForbiddenException() {
     // given
     String id = "subtask";
-    User otherUser = User.builder().id("otherUser").build();
-    Board board = Board.builder().user(otherUser).build();
-    Column column = Column.builder().board(board).build();
-    Task task = Task.builder().id("task").column(column).build();
-    Subtask subtask = Subtask.builder().id(id).task(task).completed(false).build();
 
     // when
-    when(subtaskRepository.findById(id)).thenReturn(Optional.of(subtask));
+    when(subtaskRepository.toggleCompletion(eq(id), eq("user"), any())).thenReturn(0);
+    when(subtaskRepository.existsById(id)).thenReturn(true);
 
     // then
     EntityOperationException e = assertThrows(EntityOperationException.class,
         () -> subtaskService.toggleSubtaskCompletion(id));
     assertEquals("You do not have permission to update this subtask", e.getMessage(),
         "The exception message should match");
+    assertEquals(HttpStatus.FORBIDDEN, e.getHttpStatus(), "The status should be 403");
 
     // verify
-    verify(userHelper).getCurrentUser();
-    verify(subtaskRepository).findById(id);
+    verify(subtaskRepository, never()).findSubtaskRowById(anyString());
   }
 
   @Test
   public void testToggleSubtaskCompletion_ToggleSubtaskException() {
     // given
     String id = "subtask";
-    User user = User.builder().id("user").build();
-    Board board = Board.builder().user(user).build();
-    Column column = Column.builder().board(board).build();
-    Task task = Task.builder().id("task").column(column).build();
-    Subtask subtask = Subtask.builder().id(id).task(task).completed(false).build();
 
     // when
-    when(subtaskRepository.findById(id)).thenReturn(Optional.of(subtask));
-    doThrow(RuntimeException.class).when(subtaskRepository).save(subtask);
+    when(subtaskRepository.toggleCompletion(eq(id), eq("user"), any()))
+        .thenThrow(RuntimeException.class);
 
     // then
     EntityOperationException e = assertThrows(EntityOperationException.class,
@@ -252,8 +284,118 @@ public class SubtaskServiceTest {
         "The exception message should match");
 
     // verify interactions
-    verify(userHelper).getCurrentUser();
-    verify(subtaskRepository).findById(id);
-    verify(subtaskRepository).save(subtask);
+    verify(userHelper).getCurrentUserId();
+    verify(subtaskRepository).toggleCompletion(eq(id), eq("user"), any());
+  }
+
+  @Test
+  public void testUpdateSubtaskCompletion() {
+    // given
+    List<SubtaskCompletionDTO> completions = List.of(
+        SubtaskCompletionDTO.builder().id("subtask1").completed(true).build(),
+        SubtaskCompletionDTO.builder().id("subtask2").completed(false).build());
+    SubtaskRow first = SubtaskRow.builder().id("subtask1").completed(true).build();
+    SubtaskRow second = SubtaskRow.builder().id("subtask2").completed(false).build();
+
+    // when
+    when(subtaskRepository.updateCompletion(eq(Set.of("subtask1", "subtask2")),
+        eq(List.of("subtask1")), eq("user"), any())).thenReturn(2);
+    when(subtaskRepository.findSubtaskRowsByIds(anyCollection()))
+        .thenReturn(List.of(second, first));
+    when(subtaskMapper.toDTO(any(SubtaskRow.class))).thenAnswer(invocation -> {
+      SubtaskRow row = invocation.getArgument(0);
+      return SubtaskDTO.builder().id(row.getId()).completed(row.getCompleted()).build();
+    });
+
+    // then
+    List<SubtaskDTO> result = subtaskService.updateSubtaskCompletion(completions);
+    assertEquals(List.of("subtask1", "subtask2"), result.stream().map(SubtaskDTO::getId).toList(),
+        "Result should follow request order");
+    assertTrue(result.get(0).getCompleted());
+    assertFalse(result.get(1).getCompleted());
+
+    // verify interactions
+    verify(userHelper).getCurrentUserId();
+    verify(subtaskRepository, never()).countByIdIn(anyCollection());
+    verify(subtaskRepository, never()).findById(anyString());
+  }
+
+  @Test
+  public void testUpdateSubtaskCompletion_SubtaskNotFoundException() {
+    // given
+    List<SubtaskCompletionDTO> completions = List.of(
+        SubtaskCompletionDTO.builder().id("subtask1").completed(true).build(),
+        SubtaskCompletionDTO.builder().id("missing").completed(true).build());
+
+    // when
+    when(subtaskRepository.updateCompletion(anyCollection(), anyCollection(), eq("user"), any()))
+        .thenReturn(1);
+    when(subtaskRepository.countByIdIn(anyCollection())).thenReturn(1L);
+
+    // then
+    EntityOperationException e = assertThrows(EntityOperationException.class,
+        () -> subtaskService.updateSubtaskCompletion(completions));
+    assertEquals("Subtask read operation failed", e.getMessage(),
+        "The exception message should match");
+    assertEquals(HttpStatus.NOT_FOUND, e.getHttpStatus(), "The status should be 404");
+  }
+
+  @Test
+  public void testUpdateSubtaskCompletion_UserForbiddenException() {
+    // given
+    List<SubtaskCompletionDTO> completions = List.of(
+        SubtaskCompletionDTO.builder().id("subtask1").completed(true).build(),
+        SubtaskCompletionDTO.builder().id("foreign").completed(true).build());
+
+    // when
+    when(subtaskRepository.updateCompletion(anyCollection(), anyCollection(), eq("user"), any()))
+        .thenReturn(1);
+    when(subtaskRepository.countByIdIn(anyCollection())).thenReturn(2L);
+
+    // then
+    EntityOperationException e = assertThrows(EntityOperationException.class,
+        () -> subtaskService.updateSubtaskCompletion(completions));
+    assertEquals("You do not have permission to update these subtasks", e.getMessage(),
+        "The exception message should match");
+    assertEquals(HttpStatus.FORBIDDEN, e.getHttpStatus(), "The status should be 403");
+
+    // verify interactions
+    verify(subtaskRepository, never()).findSubtaskRowsByIds(anyCollection());
+  }
+
+  @Test
+  public void testReorderSubtask_RenumbersWhenNeighboursAreAdjacent() {
+    // given
+    String subtaskId = "subtask";
+    List<PositionRow> siblings = List.of(new PositionRow("first", Positions.GAP),
+        new PositionRow("second", Positions.GAP + 1), new PositionRow(subtaskId, Positions.at(2)));
+
+    // when
+    when(subtaskRepository.findSiblingPositionRows(subtaskId, "user")).thenReturn(siblings);
+
+    // then
+    subtaskService.reorderSubtask(subtaskId, 1);
+
+    // verify interactions, the first subtask already sits on its new position
+    verify(subtaskRepository).updatePosition(subtaskId, "user", Positions.at(1));
+    verify(subtaskRepository).updatePosition("second", "user", Positions.at(2));
+    verify(subtaskRepository, never()).updatePosition(eq("first"), anyString(), anyLong());
+  }
+
+  @Test
+  public void testReorderSubtask_SubtaskNotFoundException() {
+    // given
+    String subtaskId = "subtask";
+
+    // when
+    when(subtaskRepository.findSiblingPositionRows(subtaskId, "user")).thenReturn(List.of());
+    when(subtaskRepository.existsById(subtaskId)).thenReturn(false);
+
+    // then
+    EntityOperationException e = assertThrows(EntityOperationException.class,
+        () -> subtaskService.reorderSubtask(subtaskId, 0));
+    assertEquals("Subtask read operation failed", e.getMessage(),
+        "The exception message should match");
+    assertEquals(HttpStatus.NOT_FOUND, e.getHttpStatus(), "The status should be 404");
   }
 }
@@ -1,6 +1,7 @@
 package com.ivanolmo.kanbantaskmanager.service;
 
 import com.ivanolmo.kanbantaskmanager.dto.ColumnInfo;
+import com.ivanolmo.kanbantaskmanager.dto.PositionRow;
 import com.ivanolmo.kanbantaskmanager.dto.TaskDTO;
 import com.ivanolmo.kanbantaskmanager.dto.TaskInfo;
 import com.ivanolmo.kanbantaskmanager.entity.Column;
@@ -10,24 +11,31 @@ import com.ivanolmo.kanbantaskmanager.exception.EntityOperationException;
 import com.ivanolmo.kanbantaskmanager.mapper.TaskMapper;
 import com.ivanolmo.kanbantaskmanager.repository.ColumnRepository;
 import com.ivanolmo.kanbantaskmanager.repository.TaskRepository;
+import com.ivanolmo.kanbantaskmanager.util.Positions;
 import com.ivanolmo.kanbantaskmanager.util.UserHelper;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
@@ -59,7 +67,7 @@ public class TaskServiceTest {
     lenient().when(securityContext.getAuthentication()).thenReturn(authentication);
     lenient().when(authentication.getName()).thenReturn(username);
 
-    when(userHelper.getCurrentUser()).thenReturn(user);
+    when(userHelper.getCurrentUserId()).thenReturn(user.getId());
   }
 
   @Test
@@ -78,10 +86,8 @@ public class TaskServiceTest {
 
     // when
     when(columnRepository.findColumnInfoById(column.getId())).thenReturn(Optional.of(columnInfo));
-    when(taskRepository.findByTitleAndColumnId(newTaskDTO.getTitle(), column.getId()))
-        .thenReturn(Optional.empty());
     when(taskMapper.toEntity(newTaskDTO)).thenReturn(task);
-    when(taskRepository.save(any(Task.class))).thenReturn(task);
+    when(taskRepository.saveAndFlush(any(Task.class))).thenReturn(task);
     when(taskMapper.toDTO(task)).thenReturn(returnedTaskDTO);
 
     // then
@@ -91,11 +97,10 @@ public class TaskServiceTest {
     assertEquals("New Task Description", result.getDescription(), "Task description should match");
 
     // verify interactions
-    verify(userHelper).getCurrentUser();
+    verify(userHelper).getCurrentUserId();
     verify(columnRepository).findColumnInfoById(anyString());
-    verify(taskRepository).findByTitleAndColumnId(anyString(), anyString());
     verify(taskMapper).toEntity(any(TaskDTO.class));
-    verify(taskRepository).save(any(Task.class));
+    verify(taskRepository).saveAndFlush(any(Task.class));
     verify(taskMapper).toDTO(any(Task.class));
   }
 
@@ -106,7 +111,7 @@ public class TaskServiceTest {
     TaskDTO taskDTO = new TaskDTO();
 
     // when
-    when(userHelper.getCurrentUser())
+    when(userHelper.getCurrentUserId())
         .thenThrow(new EntityOperationException("User", "read", HttpStatus.NOT_FOUND));
 
     // then
@@ -116,7 +121,7 @@ public class TaskServiceTest {
         "The exception message should match");
 
     // verify
-    verify(userHelper).getCurrentUser();
+    verify(userHelper).getCurrentUserId();
     verify(taskRepository, never()).save(any(Task.class));
   }
 
@@ -141,7 +146,7 @@ public class TaskServiceTest {
         "The exception message should match");
 
     // verify
-    verify(userHelper).getCurrentUser();
+    verify(userHelper).getCurrentUserId();
     verify(columnRepository).findColumnInfoById(anyString());
     verify(taskRepository, never()).save(any(Task.class));
   }
@@ -162,7 +167,7 @@ public class TaskServiceTest {
         "The exception message should match");
 
     // verify
-    verify(userHelper).getCurrentUser();
+    verify(userHelper).getCurrentUserId();
     verify(columnRepository).findColumnInfoById(anyString());
     verify(taskRepository, never()).save(any(Task.class));
   }
@@ -181,8 +186,9 @@ public class TaskServiceTest {
 
     // when
     when(columnRepository.findColumnInfoById(column.getId())).thenReturn(Optional.of(columnInfo));
-    when(taskRepository.findByTitleAndColumnId(taskDTO.getTitle(), column.getId()))
-        .thenReturn(Optional.of(task));
+    when(taskMapper.toEntity(taskDTO)).thenReturn(task);
+    when(taskRepository.saveAndFlush(any(Task.class)))
+        .thenThrow(duplicateKey(Task.TITLE_KEY_CONSTRAINT));
 
     // then
     EntityOperationException e = assertThrows(EntityOperationException.class,
@@ -191,10 +197,9 @@ public class TaskServiceTest {
         "The exception message should match");
 
     // verify
-    verify(userHelper).getCurrentUser();
+    verify(userHelper).getCurrentUserId();
     verify(columnRepository).findColumnInfoById(anyString());
-    verify(taskRepository).findByTitleAndColumnId(anyString(), anyString());
-    verify(taskRepository, never()).save(any(Task.class));
+    verify(taskRepository).saveAndFlush(any(Task.class));
   }
 
   @Test
@@ -211,10 +216,9 @@ public class TaskServiceTest {
 
     // when
     when(columnRepository.findColumnInfoById(column.getId())).thenReturn(Optional.of(columnInfo));
-    when(taskRepository.findByTitleAndColumnId(taskDTO.getTitle(), column.getId()))
-        .thenReturn(Optional.empty());
     when(taskMapper.toEntity(taskDTO)).thenReturn(task);
-    when(taskRepository.save(any(Task.class))).thenThrow(new RuntimeException("Database error"));
+    when(taskRepository.saveAndFlush(any(Task.class)))
+        .thenThrow(new RuntimeException("Database error"));
 
     // then
     EntityOperationException e = assertThrows(EntityOperationException.class,
@@ -223,11 +227,10 @@ public class TaskServiceTest {
         "The exception message should match");
 
     // verify
-    verify(userHelper).getCurrentUser();
+    verify(userHelper).getCurrentUserId();
     verify(columnRepository).findColumnInfoById(anyString());
-    verify(taskRepository).findByTitleAndColumnId(anyString(), anyString());
     verify(taskMapper).toEntity(any(TaskDTO.class));
-    verify(taskRepository).save(any(Task.class));
+    verify(taskRepository).saveAndFlush(any(Task.class));
   }
 
   @Test
@@ -247,9 +250,7 @@ public class TaskServiceTest {
 
     // when
     when(taskRepository.findTaskInfoById(taskId)).thenReturn(Optional.of(taskInfo));
-    when(taskRepository.findByTitleAndColumnId(taskDTO.getTitle(), columnId))
-        .thenReturn(Optional.empty());
-    when(taskRepository.save(any(Task.class))).thenReturn(updatedTask);
+    when(taskRepository.saveAndFlush(any(Task.class))).thenReturn(updatedTask);
     when(taskMapper.toDTO(updatedTask)).thenReturn(taskDTO);
 
     // then
@@ -261,11 +262,64 @@ public class TaskServiceTest {
 
     // verify interactions
     verify(taskRepository).findTaskInfoById(anyString());
-    verify(taskRepository).findByTitleAndColumnId(anyString(), anyString());
-    verify(taskRepository).save(any(Task.class));
+    verify(taskRepository).saveAndFlush(any(Task.class));
     verify(taskMapper).toDTO(any(Task.class));
   }
 
+  @Test
+  public void testUpdateTask_ColumnForbiddenException() {
+    // given
+    String taskId = "task";
+    Column column = Column.builder().id("column").name("Test Column").build();
+    TaskDTO taskDTO = TaskDTO.builder().title("Existing Task")
+        .description("Existing Task Description").columnId("foreignColumn").build();
+    Task existingTask = Task.builder().id(taskId).title("Existing Task")
+        .description("Existing Task Description").column(column).build();
+    TaskInfo taskInfo = TaskInfo.builder().taskId(taskId).userId(user.getId())
+        .task(existingTask).build();
+    ColumnInfo columnInfo =
+        ColumnInfo.builder().columnId("foreignColumn").userId("otherUser").build();
+
+    // when
+    when(taskRepository.findTaskInfoById(taskId)).thenReturn(Optional.of(taskInfo));
+    when(columnRepository.findColumnInfoById("foreignColumn")).thenReturn(Optional.of(columnInfo));
+
+    // then
+    EntityOperationException e =
+        assertThrows(EntityOperationException.class, () -> taskService.updateTask(taskId, taskDTO));
+    assertEquals("You do not have permission to move a task to this column", e.getMessage(),
+        "The exception message should match");
+
+    // verify interactions
+    verify(taskRepository, never()).save(any(Task.class));
+  }
+
+  @Test
+  public void testUpdateTask_VersionMismatchException() {
+    // given
+    String taskId = "task";
+    Column column = Column.builder().id("column").name("Test Column").build();
+    TaskDTO taskDTO = TaskDTO.builder().title("Task").description("Description")
+        .columnId("column").version(1L).build();
+    Task existingTask = Task.builder().id(taskId).title("Task").description("Description")
+        .column(column).version(2L).build();
+    TaskInfo taskInfo = TaskInfo.builder().taskId(taskId).userId(user.getId())
+        .task(existingTask).build();
+
+    // when
+    when(taskRepository.findTaskInfoById(taskId)).thenReturn(Optional.of(taskInfo));
+
+    // then
+    EntityOperationException e =
+        assertThrows(EntityOperationException.class, () -> taskService.updateTask(taskId, taskDTO));
+    assertEquals(HttpStatus.PRECONDITION_FAILED, e.getHttpStatus(),
+        "A stale version should be rejected with 412");
+
+    // verify interactions
+    verify(taskRepository, never()).saveAndFlush(any(Task.class));
+    verify(subtaskService, never()).updateSubtasks(anyString(), any());
+  }
+
   @Test
   public void testUpdateTask_UserNotFoundException() {
     // given
@@ -346,13 +400,11 @@ public class TaskServiceTest {
         .description("Existing Task Description").column(column).build();
     TaskInfo taskInfo = TaskInfo.builder().taskId(existingTask.getId()).userId(user.getId())
         .task(existingTask).build();
-    Task conflictingTask = Task.builder().id("conflict").title(taskDTO.getTitle())
-        .description("Conflicting Task Description").column(column).build();
 
     // when
     when(taskRepository.findTaskInfoById(taskId)).thenReturn(Optional.of(taskInfo));
-    when(taskRepository.findByTitleAndColumnId(taskDTO.getTitle(), columnId))
-        .thenReturn(Optional.of(conflictingTask));
+    when(taskRepository.saveAndFlush(existingTask))
+        .thenThrow(duplicateKey(Task.TITLE_KEY_CONSTRAINT));
 
     // then
     EntityOperationException e =
@@ -362,8 +414,7 @@ public class TaskServiceTest {
 
     // verify
     verify(taskRepository).findTaskInfoById(anyString());
-    verify(taskRepository).findByTitleAndColumnId(anyString(), anyString());
-    verify(taskRepository, never()).save(any(Task.class));
+    verify(subtaskService, never()).updateSubtasks(anyString(), any());
   }
 
   @Test
@@ -381,9 +432,7 @@ public class TaskServiceTest {
 
     // when
     when(taskRepository.findTaskInfoById(taskId)).thenReturn(Optional.of(taskInfo));
-    when(taskRepository.findByTitleAndColumnId(taskDTO.getTitle(), columnId))
-        .thenReturn(Optional.empty());
-    when(taskRepository.save(any(Task.class))).thenThrow(new RuntimeException("Database error"));
+    when(taskRepository.saveAndFlush(any(Task.class))).thenThrow(new RuntimeException("Database error"));
 
     // then
     EntityOperationException e =
@@ -393,8 +442,7 @@ public class TaskServiceTest {
 
     // verify
     verify(taskRepository).findTaskInfoById(anyString());
-    verify(taskRepository).findByTitleAndColumnId(anyString(), anyString());
-    verify(taskRepository).save(any(Task.class));
+    verify(taskRepository).saveAndFlush(any(Task.class));
   }
 
   @Test
@@ -406,15 +454,16 @@ public class TaskServiceTest {
 
     // when
     when(taskRepository.findTaskInfoById(taskId)).thenReturn(Optional.of(taskInfo));
-    doNothing().when(taskRepository).deleteById(taskId);
+    when(taskRepository.softDelete(eq(taskId), eq(user.getId()), any(LocalDateTime.class)))
+        .thenReturn(1);
 
     // then
     taskService.deleteTask(taskId);
 
     // verify interactions
-    verify(userHelper).getCurrentUser();
+    verify(userHelper).getCurrentUserId();
     verify(taskRepository).findTaskInfoById(taskId);
-    verify(taskRepository).deleteById(taskId);
+    verify(taskRepository).softDelete(eq(taskId), eq(user.getId()), any(LocalDateTime.class));
   }
 
   @Test
@@ -423,7 +472,7 @@ public class TaskServiceTest {
     String taskId = "task";
 
     // when
-    when(userHelper.getCurrentUser())
+    when(userHelper.getCurrentUserId())
         .thenThrow(new EntityOperationException("User", "read", HttpStatus.NOT_FOUND));
 
     // then
@@ -433,8 +482,8 @@ public class TaskServiceTest {
         "The exception message should match");
 
     // verify
-    verify(userHelper).getCurrentUser();
-    verify(taskRepository, never()).deleteById(anyString());
+    verify(userHelper).getCurrentUserId();
+    verify(taskRepository, never()).softDelete(anyString(), anyString(), any());
   }
 
   @Test
@@ -454,9 +503,9 @@ public class TaskServiceTest {
         "The exception message should match");
 
     // verify
-    verify(userHelper).getCurrentUser();
+    verify(userHelper).getCurrentUserId();
     verify(taskRepository).findTaskInfoById(taskId);
-    verify(taskRepository, never()).deleteById(anyString());
+    verify(taskRepository, never()).softDelete(anyString(), anyString(), any());
   }
 
   @Test
@@ -474,9 +523,9 @@ public class TaskServiceTest {
         "The exception message should match");
 
     // verify interactions
-    verify(userHelper).getCurrentUser();
+    verify(userHelper).getCurrentUserId();
     verify(taskRepository).findTaskInfoById(taskId);
-    verify(taskRepository, never()).deleteById(anyString());
+    verify(taskRepository, never()).softDelete(anyString(), anyString(), any());
   }
 
   @Test
@@ -488,7 +537,8 @@ public class TaskServiceTest {
 
     // when
     when(taskRepository.findTaskInfoById(taskId)).thenReturn(Optional.of(taskInfo));
-    doThrow(RuntimeException.class).when(taskRepository).deleteById(taskId);
+    when(taskRepository.softDelete(eq(taskId), eq(user.getId()), any(LocalDateTime.class)))
+        .thenThrow(RuntimeException.class);
 
     // then
     EntityOperationException e =
@@ -497,8 +547,159 @@ public class TaskServiceTest {
         "The exception message should match");
 
     // verify interactions
-    verify(userHelper).getCurrentUser();
+    verify(userHelper).getCurrentUserId();
     verify(taskRepository).findTaskInfoById(taskId);
-    verify(taskRepository).deleteById(taskId);
+    verify(taskRepository).softDelete(eq(taskId), eq(user.getId()), any(LocalDateTime.class));
+  }
+
+  @Test
+  public void testMoveTask() {
+    // given
+    String taskId = "task";
+    String columnId = "column";
+
+    // when
+    when(taskRepository.moveTask(eq(taskId), eq(columnId), eq(user.getId()), eq(Positions.GAP),
+        any())).thenReturn(1);
+
+    // then
+    taskService.moveTask(taskId, columnId);
+
+    // verify interactions
+    verify(userHelper).getCurrentUserId();
+    verify(taskRepository).moveTask(eq(taskId), eq(columnId), eq(user.getId()), eq(Positions.GAP),
+        any());
+    verify(taskRepository, never()).findById(anyString());
+    verify(taskRepository, never()).findTaskInfoById(anyString());
+  }
+
+  @Test
+  public void testMoveTask_TaskNotFoundException() {
+    // given
+    String taskId = "task";
+    String columnId = "column";
+
+    // when
+    when(taskRepository.moveTask(eq(taskId), eq(columnId), eq(user.getId()), eq(Positions.GAP),
+        any())).thenReturn(0);
+    when(taskRepository.findTaskInfoById(taskId)).thenReturn(Optional.empty());
+
+    // then
+    EntityOperationException e = assertThrows(EntityOperationException.class,
+        () -> taskService.moveTask(taskId, columnId));
+    assertEquals("Task read operation failed", e.getMessage(),
+        "The exception message should match");
+    assertEquals(HttpStatus.NOT_FOUND, e.getHttpStatus(), "The status should be 404");
+  }
+
+  @Test
+  public void testMoveTask_TaskForbiddenException() {
+    // given
+    String taskId = "task";
+    String columnId = "column";
+    TaskInfo taskInfo = TaskInfo.builder().taskId(taskId).userId("otherUser").build();
+
+    // when
+    when(taskRepository.moveTask(eq(taskId), eq(columnId), eq(user.getId()), eq(Positions.GAP),
+        any())).thenReturn(0);
+    when(taskRepository.findTaskInfoById(taskId)).thenReturn(Optional.of(taskInfo));
+
+    // then
+    EntityOperationException e = assertThrows(EntityOperationException.class,
+        () -> taskService.moveTask(taskId, columnId));
+    assertEquals("You do not have permission to move this task", e.getMessage(),
+        "The exception message should match");
+    assertEquals(HttpStatus.FORBIDDEN, e.getHttpStatus(), "The status should be 403");
+
+    // verify interactions
+    verify(columnRepository, never()).findColumnInfoById(anyString());
+  }
+
+  @Test
+  public void testMoveTask_ColumnForbiddenException() {
+    // given
+    String taskId = "task";
+    String columnId = "column";
+    TaskInfo taskInfo = TaskInfo.builder().taskId(taskId).userId(user.getId()).build();
+    ColumnInfo columnInfo = ColumnInfo.builder().columnId(columnId).userId("otherUser").build();
+
+    // when
+    when(taskRepository.moveTask(eq(taskId), eq(columnId), eq(user.getId()), eq(Positions.GAP),
+        any())).thenReturn(0);
+    when(taskRepository.findTaskInfoById(taskId)).thenReturn(Optional.of(taskInfo));
+    when(columnRepository.findColumnInfoById(columnId)).thenReturn(Optional.of(columnInfo));
+
+    // then
+    EntityOperationException e = assertThrows(EntityOperationException.class,
+        () -> taskService.moveTask(taskId, columnId));
+    assertEquals("You do not have permission to move a task to this column", e.getMessage(),
+        "The exception message should match");
+    assertEquals(HttpStatus.FORBIDDEN, e.getHttpStatus(), "The status should be 403");
+  }
+
+  @Test
+  public void testMoveTask_TitleAlreadyExistsException() {
+    // given
+    String taskId = "task";
+    String columnId = "column";
+
+    // when
+    when(taskRepository.moveTask(eq(taskId), eq(columnId), eq(user.getId()), eq(Positions.GAP),
+        any())).thenThrow(duplicateKey(Task.TITLE_KEY_CONSTRAINT));
+
+    // then
+    EntityOperationException e = assertThrows(EntityOperationException.class,
+        () -> taskService.moveTask(taskId, columnId));
+    assertEquals("A task with that title already exists", e.getMessage(),
+        "The exception message should match");
+    assertEquals(HttpStatus.CONFLICT, e.getHttpStatus(), "The status should be 409");
+
+    // verify interactions
+    verify(taskRepository, never()).findTaskInfoById(anyString());
+  }
+
+  @Test
+  public void testReorderTask() {
+    // given
+    String taskId = "task";
+    List<PositionRow> siblings = List.of(new PositionRow("first", Positions.at(0)),
+        new PositionRow("second", Positions.at(1)), new PositionRow(taskId, Positions.at(2)));
+
+    // when
+    when(taskRepository.findSiblingPositionRows(taskId, user.getId())).thenReturn(siblings);
+
+    // then
+    taskService.reorderTask(taskId, 1);
+
+    // verify interactions, only the moved task is written
+    verify(taskRepository).updatePosition(taskId, user.getId(),
+        (Positions.at(0) + Positions.at(1)) / 2);
+    verify(taskRepository, times(1)).updatePosition(anyString(), anyString(), anyLong());
+  }
+
+  @Test
+  public void testReorderTask_TaskForbiddenException() {
+    // given
+    String taskId = "task";
+
+    // when
+    when(taskRepository.findSiblingPositionRows(taskId, user.getId())).thenReturn(List.of());
+    when(taskRepository.existsById(taskId)).thenReturn(true);
+
+    // then
+    EntityOperationException e = assertThrows(EntityOperationException.class,
+        () -> taskService.reorderTask(taskId, 0));
+    assertEquals("You do not have permission to move this task", e.getMessage(),
+        "The exception message should match");
+    assertEquals(HttpStatus.FORBIDDEN, e.getHttpStatus(), "The status should be 403");
+
+    // verify interactions
+    verify(taskRepository, never()).updatePosition(anyString(), anyString(), anyLong());
+  }
+
+  // what a write that runs into one of the unique key constraints throws
+  private static DataIntegrityViolationException duplicateKey(String constraintName) {
+    return new DataIntegrityViolationException("could not execute statement",
+        new ConstraintViolationException("duplicate key", null, constraintName));
   }
 }
@@ -0,0 +1,73 @@
+package com.ivanolmo.kanbantaskmanager.util;
+
+import com.ivanolmo.kanbantaskmanager.dto.ColumnDTO;
+import com.ivanolmo.kanbantaskmanager.entity.Column;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CollectionDiffTest {
+
+  @Test
+  public void testOf_ClassifiesChildren() {
+    Column kept = Column.builder().id("kept").name("Kept").color("#fff").build();
+    Column renamed = Column.builder().id("renamed").name("Old").color("#fff").build();
+    Column removed = Column.builder().id("removed").name("Removed").color("#fff").build();
+
+    ColumnDTO insertedDTO = ColumnDTO.builder().name("New").color("#000").build();
+    ColumnDTO unknownIdDTO = ColumnDTO.builder().id("unknown").name("Unknown").color("#000").build();
+    ColumnDTO keptDTO = ColumnDTO.builder().id("kept").name("Kept").color("#fff").build();
+    ColumnDTO renamedDTO = ColumnDTO.builder().id("renamed").name("New Name").color("#fff").build();
+
+    CollectionDiff<Column, ColumnDTO> diff = diff(List.of(kept, renamed, removed),
+        List.of(insertedDTO, keptDTO, unknownIdDTO, renamedDTO));
+
+    assertEquals(List.of(insertedDTO, unknownIdDTO), diff.getInserted(),
+        "Dtos without a stored match should be inserts");
+    assertEquals(1, diff.getChanged().size(), "Only the renamed column should be changed");
+    assertSame(renamed, diff.getChanged().get(0).existing(), "Changed entry should keep entity");
+    assertEquals(List.of(removed), diff.getRemoved(), "Unreferenced columns should be removed");
+    assertEquals(List.of("removed"), diff.getRemovedIds(Column::getId), "Removed ids should match");
+  }
+
+  @Test
+  public void testApply_KeepsIncomingOrder() {
+    Column first = Column.builder().id("first").name("First").color("#fff").build();
+    Column second = Column.builder().id("second").name("Second").color("#fff").build();
+
+    CollectionDiff<Column, ColumnDTO> diff = diff(List.of(first, second), List.of(
+        ColumnDTO.builder().id("second").name("Second Renamed").color("#fff").build(),
+        ColumnDTO.builder().name("Third").color("#fff").build(),
+        ColumnDTO.builder().id("first").name("First").color("#fff").build()));
+
+    List<Column> result = diff.apply(
+        dto -> Column.builder().name(dto.getName()).color(dto.getColor()).build(),
+        (column, dto) -> column.setName(dto.getName()));
+
+    assertEquals(List.of("Second Renamed", "Third", "First"),
+        result.stream().map(Column::getName).toList(), "Result should follow incoming order");
+    assertSame(second, result.get(0), "Changed columns should be updated in place");
+    assertSame(first, result.get(2), "Unchanged columns should be returned as they are");
+  }
+
+  @Test
+  public void testOf_EmptyIncomingRemovesEverything() {
+    Column column = Column.builder().id("column").name("Column").color("#fff").build();
+
+    CollectionDiff<Column, ColumnDTO> diff = diff(List.of(column), List.of());
+
+    assertTrue(diff.getInserted().isEmpty(), "Nothing should be inserted");
+    assertTrue(diff.getChanged().isEmpty(), "Nothing should be changed");
+    assertEquals(List.of(column), diff.getRemoved(), "Every stored column should be removed");
+  }
+
+  private static CollectionDiff<Column, ColumnDTO> diff(List<Column> existing,
+                                                        List<ColumnDTO> incoming) {
+    return CollectionDiff.of(existing, Column::getId, incoming, ColumnDTO::getId,
+        (column, dto) -> Objects.equals(column.getName(), dto.getName())
+            && Objects.equals(column.getColor(), dto.getColor()));
+  }
+}
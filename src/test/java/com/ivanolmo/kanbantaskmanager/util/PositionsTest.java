@@ -0,0 +1,87 @@
+package com.ivanolmo.kanbantaskmanager.util;
+
+import com.ivanolmo.kanbantaskmanager.dto.PositionRow;
+import com.ivanolmo.kanbantaskmanager.entity.Column;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PositionsTest {
+
+  @Test
+  public void testBetween() {
+    assertEquals(OptionalLong.of(Positions.GAP), Positions.between(null, null),
+        "An empty list should start at the gap");
+    assertEquals(OptionalLong.of(Positions.GAP / 2), Positions.between(null, Positions.GAP),
+        "Moving first should halve the first position");
+    assertEquals(OptionalLong.of(3 * Positions.GAP), Positions.between(2 * Positions.GAP, null),
+        "Moving last should add the gap");
+    assertEquals(OptionalLong.of(11), Positions.between(10L, 12L),
+        "Two apart should still leave room");
+    assertTrue(Positions.between(10L, 11L).isEmpty(), "Adjacent positions should leave no room");
+  }
+
+  @Test
+  public void testMove_SingleRow() {
+    List<PositionRow> siblings = rows(Positions.at(0), Positions.at(1), Positions.at(2));
+
+    assertEquals(Optional.of(Map.of("2", Positions.GAP / 2)), Positions.move(siblings, "2", 0),
+        "Only the moved row should get a new position");
+    assertEquals(Optional.of(Map.of("0", Positions.at(3))), Positions.move(siblings, "0", 10),
+        "An index past the end should move the row last");
+    assertEquals(Optional.of(Map.of()), Positions.move(siblings, "1", 1),
+        "Moving a row onto its own index should write nothing");
+    assertEquals(Optional.empty(), Positions.move(siblings, "unknown", 0),
+        "A row that is not a sibling should not be found");
+  }
+
+  @Test
+  public void testMove_RenumbersWhenFull() {
+    List<PositionRow> siblings = rows(Positions.GAP, Positions.GAP + 1, Positions.at(2));
+
+    assertEquals(Optional.of(Map.of("2", Positions.at(1), "1", Positions.at(2))),
+        Positions.move(siblings, "2", 1), "Only rows off their renumbered position should change");
+  }
+
+  @Test
+  public void testAssign_KeepsOrderedPositions() {
+    List<Column> columns = columns(Positions.at(0), null, Positions.at(1), null);
+
+    Positions.assign(columns, Column::getPosition, Column::setPosition);
+
+    assertEquals(List.of(Positions.at(0), Positions.at(0) + Positions.GAP / 2, Positions.at(1),
+            Positions.at(2)), columns.stream().map(Column::getPosition).toList(),
+        "Stored positions should be kept and new columns slotted around them");
+  }
+
+  @Test
+  public void testAssign_RenumbersOutOfOrderPositions() {
+    List<Column> columns = columns(Positions.at(1), Positions.at(0), null);
+
+    Positions.assign(columns, Column::getPosition, Column::setPosition);
+
+    assertEquals(List.of(Positions.at(0), Positions.at(1), Positions.at(2)),
+        columns.stream().map(Column::getPosition).toList(),
+        "A reordered list should be renumbered");
+  }
+
+  // rows with ids "0", "1", ... in the given order
+  private static List<PositionRow> rows(long... positions) {
+    return IntStream.range(0, positions.length)
+        .mapToObj(i -> new PositionRow(String.valueOf(i), positions[i]))
+        .toList();
+  }
+
+  private static List<Column> columns(Long... positions) {
+    return Arrays.stream(positions)
+        .map(position -> Column.builder().name("Column").position(position).build())
+        .toList();
+  }
+}
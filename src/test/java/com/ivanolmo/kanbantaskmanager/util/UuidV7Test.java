@@ -0,0 +1,35 @@
+package com.ivanolmo.kanbantaskmanager.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UuidV7Test {
+
+  @Test
+  public void testGenerate_SetsVersionAndVariant() {
+    UUID uuid = UuidV7.generate();
+
+    assertEquals(7, uuid.version(), "Version should be 7");
+    assertEquals(2, uuid.variant(), "Variant should be the IETF variant");
+  }
+
+  @Test
+  public void testGenerate_EmbedsTimestamp() {
+    long epochMillis = 1_700_000_000_000L;
+    UUID uuid = UuidV7.generate(epochMillis);
+
+    assertEquals(epochMillis, uuid.getMostSignificantBits() >>> 16,
+        "The first 48 bits should hold the timestamp");
+  }
+
+  @Test
+  public void testGenerate_OrdersByTime() {
+    String earlier = UuidV7.generate(1_700_000_000_000L).toString();
+    String later = UuidV7.generate(1_700_000_000_001L).toString();
+
+    assertTrue(earlier.compareTo(later) < 0, "Later ids should sort after earlier ones");
+  }
+}